@@ -0,0 +1,19 @@
+package com.airclicker.benchmarks;
+
+import java.util.Locale;
+
+/**
+ * The assertions of the headless checks. A failed check throws, so the {@code java} process
+ * exits with a non-zero status and the message names the broken property.
+ */
+final class Checks {
+    private Checks() { }
+
+    static void check(boolean condition, String format, Object... args) {
+        if (!condition) throw new AssertionError(String.format(Locale.ROOT, format, args));
+    }
+
+    static void pass(String format, Object... args) {
+        System.out.println("OK   " + String.format(Locale.ROOT, format, args));
+    }
+}
@@ -0,0 +1,85 @@
+package com.airclicker.benchmarks;
+
+import com.airclicker.backends.NullInputBackend;
+import com.airclicker.controllers.ClickTarget;
+import com.airclicker.controllers.ClickTiming;
+import com.airclicker.controllers.Clicker;
+import com.airclicker.controllers.HumanTiming;
+import com.airclicker.controllers.KeySequence;
+import com.airclicker.controllers.MouseButton;
+import com.airclicker.controllers.TargetSequence;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of one iteration of the click loop with the pacing disabled, against a
+ * backend that discards every event. Run with {@code -prof gc} to see the allocation per click,
+ * which is expected to be zero in steady state: the only allocations are per session and are
+ * amortised over {@value #CLICKS} clicks. {@code humanizedLoop} draws every period and target
+ * offset from a humanizer; the loop runs faster than the producer, so it also covers the
+ * fallback to the plain period.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClickLoopBenchmark {
+    static final int CLICKS = 10_000;
+
+    private Clicker clicker;
+    private Clicker humanized;
+    private TargetSequence targets;
+    private KeySequence keys;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.clicker = Clicker.build(new NullInputBackend());
+        this.targets = TargetSequence.compile(List.of(
+                new ClickTarget(10, 10, MouseButton.LEFT.mask(), 2),
+                new ClickTarget(200, 40, MouseButton.RIGHT.mask(), 1),
+                new ClickTarget(640, 480, MouseButton.LEFT.mask(), 3)));
+        this.keys = KeySequence.ofText("Hello, World!\n");
+        this.humanized = Clicker.build(new NullInputBackend());
+        this.humanized.setHumanTiming(HumanTiming.parse("lognormal:0.3,max=3,jitter=4"));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CLICKS)
+    public void limitedLoop() {
+        this.clicker.begin(ClickTiming.ofMillis(0), CLICKS, MouseButton.LEFT);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CLICKS)
+    public void targetLoop() {
+        this.clicker.begin(ClickTiming.ofMillis(0), CLICKS, this.targets);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CLICKS)
+    public void humanizedLoop() {
+        this.humanized.begin(ClickTiming.ofMillis(0), CLICKS, this.targets);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CLICKS)
+    public void keyLoop() {
+        this.clicker.begin(ClickTiming.ofMillis(0), CLICKS, this.keys);
+    }
+}
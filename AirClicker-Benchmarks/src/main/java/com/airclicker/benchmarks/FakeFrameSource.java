@@ -0,0 +1,30 @@
+package com.airclicker.benchmarks;
+
+import com.airclicker.templates.FrameSource;
+
+/**
+ * A {@link FrameSource} that serves prepared frames instead of reading the screen, switching
+ * to the next frame on every capture. Copying a frame costs about as much as copying a
+ * captured raster, without the display.
+ */
+final class FakeFrameSource implements FrameSource {
+    private final int[][] frames;
+    private int next;
+
+    FakeFrameSource(int[]... frames) {
+        this.frames = frames;
+    }
+
+    @Override
+    public void capture(int x, int y, int width, int height, int[] pixels) {
+        int[] frame = this.frames[this.next];
+        if (++this.next == this.frames.length) this.next = 0;
+        System.arraycopy(frame, 0, pixels, 0, width * height);
+    }
+
+    static int[] filled(int size, int rgb) {
+        int[] frame = new int[size];
+        java.util.Arrays.fill(frame, rgb);
+        return frame;
+    }
+}
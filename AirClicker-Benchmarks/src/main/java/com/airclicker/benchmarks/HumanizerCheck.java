@@ -0,0 +1,134 @@
+package com.airclicker.benchmarks;
+
+import com.airclicker.controllers.HumanTiming;
+import com.airclicker.controllers.Humanizer;
+
+import java.util.concurrent.locks.LockSupport;
+
+import static com.airclicker.benchmarks.Checks.check;
+import static com.airclicker.benchmarks.Checks.pass;
+
+/**
+ * Checks the samples a {@link Humanizer} hands to the click thread: the mean and standard
+ * deviation of the period ratios for both distributions, that the clamps hold, that position
+ * offsets stay within the jitter, and that equal seeds give equal samples. Reads that found
+ * the ring empty return the plain ratio, they are left out of the statistics and give the
+ * producer time to catch up, which the click thread always does between two clicks.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.airclicker.benchmarks.HumanizerCheck
+ * </pre>
+ */
+public final class HumanizerCheck {
+    private static final int SAMPLES = 400_000;
+
+    private HumanizerCheck() { }
+
+    public static void main(String[] args) {
+        moments(HumanTiming.parse("gauss:0.1"), 0.1);
+        moments(HumanTiming.parse("lognormal:0.3,max=3"), 0.3);
+        clamps(HumanTiming.parse("gauss:0.5,min=0.8,max=1.2"));
+        jitter(HumanTiming.parse("gauss:0.1,jitter=4"));
+        jitter(HumanTiming.parse("gauss:0.1"));
+        seeds(HumanTiming.parse("lognormal:0.3,jitter=3"));
+    }
+
+    /**
+     * The ratios have a mean of 1 and roughly the configured standard deviation. The default
+     * clamps cut a little off the tails, so the deviation may come out slightly lower.
+     */
+    private static void moments(HumanTiming settings, double sigma) {
+        double sum = 0, squares = 0;
+        int n = 0;
+        try (Humanizer humanizer = Humanizer.start(settings, 42)) {
+            while (n < SAMPLES) {
+                long underruns = humanizer.getUnderruns();
+                double ratio = (double) humanizer.nextRatio() / Humanizer.ONE;
+                if (humanizer.getUnderruns() != underruns) {
+                    yieldToProducer();
+                    continue;
+                }
+                sum += ratio;
+                squares += ratio * ratio;
+                n++;
+            }
+        }
+        double mean = sum / n;
+        double sd = Math.sqrt(squares / n - mean * mean);
+        check(Math.abs(mean - 1) < 0.01, "%s: mean ratio %.4f, expected 1", settings.distribution(), mean);
+        check(sd > sigma * 0.85 && sd < sigma * 1.05, "%s: standard deviation %.4f, expected about %.2f", settings.distribution(), sd, sigma);
+        pass("%s sigma %.2f: mean %.4f, sd %.4f over %d samples", settings.distribution(), sigma, mean, sd, n);
+    }
+
+    /**
+     * No ratio leaves {@code [min, max]}, and with a wide distribution both bounds are reached.
+     */
+    private static void clamps(HumanTiming settings) {
+        long min = Math.round(settings.min() * Humanizer.ONE), max = Math.round(settings.max() * Humanizer.ONE);
+        long lowest = Long.MAX_VALUE, highest = Long.MIN_VALUE;
+        try (Humanizer humanizer = Humanizer.start(settings, 7)) {
+            for (int i = 0; i < SAMPLES; i++) {
+                long ratio = humanizer.nextRatio();
+                lowest = Math.min(lowest, ratio);
+                highest = Math.max(highest, ratio);
+            }
+        }
+        check(lowest == min, "clamp: lowest ratio %d, expected %d", lowest, min);
+        check(highest == max, "clamp: highest ratio %d, expected %d", highest, max);
+        pass("clamps [%.1f, %.1f] hold and are reached", settings.min(), settings.max());
+    }
+
+    /**
+     * Offsets stay within the jitter on both axes, centred on the target with a standard
+     * deviation of about half the jitter, and are zero without jitter.
+     */
+    private static void jitter(HumanTiming settings) {
+        int limit = settings.jitterPixels();
+        double sum = 0, squares = 0;
+        int n = 0, worst = 0;
+        try (Humanizer humanizer = Humanizer.start(settings, 99)) {
+            while (n < 2 * SAMPLES) {
+                long underruns = humanizer.getUnderruns();
+                humanizer.nextRatio();
+                int dx = humanizer.dx(), dy = humanizer.dy();
+                worst = Math.max(worst, Math.max(Math.abs(dx), Math.abs(dy)));
+                if (humanizer.getUnderruns() != underruns) {
+                    check(dx == 0 && dy == 0, "jitter: a read of an empty ring moved the click by %d,%d", dx, dy);
+                    yieldToProducer();
+                    continue;
+                }
+                sum += dx + dy;
+                squares += dx * dx + dy * dy;
+                n += 2;
+            }
+        }
+        check(worst <= limit, "jitter: offset %d beyond the jitter of %d", worst, limit);
+        if (limit == 0) {
+            pass("no jitter: every offset is 0");
+            return;
+        }
+        double mean = sum / n;
+        double sd = Math.sqrt(squares / n - mean * mean);
+        check(Math.abs(mean) < 0.05, "jitter: mean offset %.4f, expected 0", mean);
+        check(sd > limit * 0.4 && sd < limit * 0.55, "jitter: standard deviation %.3f, expected about %.1f", sd, limit / 2.0);
+        check(worst == limit, "jitter: largest offset %d never reached the jitter of %d", worst, limit);
+        pass("jitter %d: offsets within +-%d, mean %.4f, sd %.3f", limit, worst, mean, sd);
+    }
+
+    /**
+     * The prefilled ring only depends on the seed.
+     */
+    private static void seeds(HumanTiming settings) {
+        try (Humanizer a = Humanizer.start(settings, 1234); Humanizer b = Humanizer.start(settings, 1234)) {
+            for (int i = 0; i < Humanizer.CAPACITY; i++) {
+                long ra = a.nextRatio(), rb = b.nextRatio();
+                check(ra == rb && a.dx() == b.dx() && a.dy() == b.dy(), "seed: sample %d differs between equal seeds", i);
+            }
+        }
+        pass("equal seeds give equal samples");
+    }
+
+    private static void yieldToProducer() {
+        LockSupport.parkNanos(50_000);
+    }
+}
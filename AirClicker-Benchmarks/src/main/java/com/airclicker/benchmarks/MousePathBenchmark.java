@@ -0,0 +1,65 @@
+package com.airclicker.benchmarks;
+
+import com.airclicker.backends.NullInputBackend;
+import com.airclicker.controllers.MouseMotion;
+import com.airclicker.controllers.MousePath;
+import com.airclicker.templates.InputBackend;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the CPU cost of one pointer move across a 1080p screen, without the waits between
+ * positions. {@code plan} computes the path, {@code planAndSend} also sends every position to
+ * a {@link NullInputBackend}. A move has to stay in the microseconds, so thousands of moves a
+ * minute cost a fraction of one core.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MousePathBenchmark {
+    /**
+     * The motion spec, see {@link MouseMotion#parse(String)}.
+     */
+    @Param({"minjerk", "bezier@240hz"})
+    public String motion;
+
+    private MouseMotion parsed;
+    private final MousePath path = new MousePath();
+    private final InputBackend backend = new NullInputBackend();
+    private int step;
+
+    @Setup
+    public void setup() {
+        this.parsed = MouseMotion.parse(this.motion);
+    }
+
+    @Benchmark
+    public int plan() {
+        int s = this.step++ & 255;
+        return this.path.plan(this.parsed, s, 1080 - s, 1919 - s, s).getLength();
+    }
+
+    @Benchmark
+    public int planAndSend() {
+        int s = this.step++ & 255;
+        MousePath path = this.path.plan(this.parsed, s, 1080 - s, 1919 - s, s);
+        int n = path.getLength();
+        for (int i = 1; i < n; i++) this.backend.mouseMove(path.getX(i), path.getY(i));
+        return n;
+    }
+}
@@ -0,0 +1,104 @@
+package com.airclicker.benchmarks;
+
+import com.airclicker.backends.RecordingInputBackend;
+import com.airclicker.controllers.ClickTarget;
+import com.airclicker.controllers.ClickTiming;
+import com.airclicker.controllers.Clicker;
+import com.airclicker.controllers.MouseButton;
+import com.airclicker.controllers.MouseMotion;
+import com.airclicker.controllers.MousePath;
+import com.airclicker.controllers.TargetSequence;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static com.airclicker.benchmarks.Checks.check;
+import static com.airclicker.benchmarks.Checks.pass;
+
+/**
+ * Checks the pointer paths of {@code --glide}: the amount of positions for the move duration,
+ * that a straight path only moves forward and a Bezier path bows to one side by the expected
+ * amount, that both end exactly on the target, and that a {@link Clicker} sends the positions
+ * one sample period apart, recorded with a {@link RecordingInputBackend}.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.airclicker.benchmarks.MousePathCheck
+ * </pre>
+ */
+public final class MousePathCheck {
+    private MousePathCheck() { }
+
+    public static void main(String[] args) {
+        shape(MouseMotion.parse("minjerk"), 100, 200, 1100, 200);
+        shape(MouseMotion.parse("minjerk"), 1500, 900, 20, 40);
+        shape(MouseMotion.parse("bezier@240hz"), 100, 200, 1100, 200);
+        shape(MouseMotion.parse("bezier"), 640, 360, 640, 360);
+        timing(MouseMotion.parse("bezier@240hz"));
+        timing(MouseMotion.parse("minjerk@60hz"));
+    }
+
+    /**
+     * One position per sample period of the move duration plus the start point, a start and end
+     * exactly on the given points, progress that never goes backwards along the line, and a
+     * sideways distance of three quarters of the bend, the peak of a cubic Bezier curve whose
+     * control points are both moved sideways by the bend.
+     */
+    private static void shape(MouseMotion motion, int fromX, int fromY, int toX, int toY) {
+        MousePath path = new MousePath().plan(motion, fromX, fromY, toX, toY);
+        int n = path.getLength();
+        double dx = toX - fromX, dy = toY - fromY, distance = Math.hypot(dx, dy);
+        long samples = Math.max(1, Math.round((double) motion.durationNanos(distance) / motion.sampleNanos()));
+        check(n == samples + 1, "%s: %d positions for %d sample periods", motion.curve(), n, samples);
+        check(path.getSampleNanos() == motion.sampleNanos(), "%s: sample period %d ns, expected %d", motion.curve(), path.getSampleNanos(), motion.sampleNanos());
+        check(path.getX(0) == fromX && path.getY(0) == fromY, "%s: starts at %d,%d", motion.curve(), path.getX(0), path.getY(0));
+        check(path.getX(n - 1) == toX && path.getY(n - 1) == toY, "%s: ends at %d,%d instead of %d,%d",
+                motion.curve(), path.getX(n - 1), path.getY(n - 1), toX, toY);
+        double along = -1, bow = 0;
+        for (int i = 0; i < n; i++) {
+            double px = path.getX(i) - fromX, py = path.getY(i) - fromY;
+            double progress = distance == 0 ? 0 : (px * dx + py * dy) / distance;
+            double side = distance == 0 ? 0 : (py * dx - px * dy) / distance;
+            // One pixel of rounding on either axis may step back slightly.
+            check(progress >= along - 1.5, "%s: position %d steps back along the line", motion.curve(), i);
+            along = Math.max(along, progress);
+            if (Math.abs(side) > Math.abs(bow)) bow = side;
+        }
+        double expected = 0.75 * motion.bend() * distance;
+        check(Math.abs(bow - expected) <= 2, "%s: bows %.1f px, expected %.1f", motion.curve(), bow, expected);
+        pass("%s %d,%d -> %d,%d: %d positions, bow %.1f px", motion.curve(), fromX, fromY, toX, toY, n, bow);
+    }
+
+    /**
+     * A clicker gliding to a target sends exactly the planned positions before pressing, the
+     * gaps between them are one sample period and the whole move takes its planned duration.
+     */
+    private static void timing(MouseMotion motion) {
+        RecordingInputBackend backend = new RecordingInputBackend(4096);
+        Clicker clicker = Clicker.build(backend);
+        clicker.setMotion(motion);
+        ClickTarget target = new ClickTarget(1200, 700, MouseButton.LEFT.mask(), 1);
+        clicker.begin(ClickTiming.ofMillis(10), 1, TargetSequence.compile(List.of(target)));
+
+        MousePath path = new MousePath().plan(motion, 0, 0, target.x(), target.y());
+        int moves = 0;
+        while (moves < backend.size() && backend.getType(moves) == RecordingInputBackend.MOUSE_MOVE) moves++;
+        check(moves == path.getLength() - 1, "%s: %d moves before the press, planned %d", motion.curve(), moves, path.getLength() - 1);
+        check(moves < backend.size() && backend.getType(moves) == RecordingInputBackend.MOUSE_PRESS, "%s: no press after the glide", motion.curve());
+        for (int i = 0; i < moves; i++) {
+            check(backend.getFirst(i) == path.getX(i + 1) && backend.getSecond(i) == path.getY(i + 1),
+                    "%s: move %d went to %d,%d instead of %d,%d", motion.curve(), i,
+                    backend.getFirst(i), backend.getSecond(i), path.getX(i + 1), path.getY(i + 1));
+        }
+        long[] gaps = new long[moves - 1];
+        for (int i = 1; i < moves; i++) gaps[i - 1] = backend.getTime(i) - backend.getTime(i - 1);
+        Arrays.sort(gaps);
+        long sample = motion.sampleNanos(), median = gaps[gaps.length / 2];
+        check(Math.abs(median - sample) < sample / 10, "%s: median gap %d us, expected %d us", motion.curve(), median / 1000, sample / 1000);
+        long span = backend.getTime(moves - 1) - backend.getTime(0), planned = (long) (moves - 1) * sample;
+        // Deadlines are absolute, so a late position never delays the ones after it.
+        check(span > planned - sample / 2 && span < planned + 3 * sample, "%s: glide took %.1f ms, planned %.1f ms",
+                motion.curve(), span / 1e6, planned / 1e6);
+        pass("%s: %d moves, median gap %.1f us for %.1f us, %.1f ms for %.1f ms", motion.curve(), moves,
+                median / 1e3, sample / 1e3, span / 1e6, planned / 1e6);
+    }
+}
@@ -0,0 +1,72 @@
+package com.airclicker.benchmarks;
+
+import com.airclicker.backends.NullInputBackend;
+import com.airclicker.controllers.ClickTiming;
+import com.airclicker.controllers.Clicker;
+import com.airclicker.controllers.MouseButton;
+import com.airclicker.controllers.PixelTrigger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the pixel trigger against a {@link FakeFrameSource}, so it runs headless. The
+ * source alternates between a frame that shows the colour and one that does not.
+ * {@code poll} is one capture and comparison of a matching frame, the worst case for an
+ * {@code all} match. {@code triggerLoop} is the full path through the click loop, where every
+ * other poll triggers a click. The capture-to-click budget is 5 ms.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PixelTriggerBenchmark {
+    static final int TRIGGERS = 1_000;
+    static final int COLOR = 0xFF3300;
+
+    /**
+     * The side of the square watched region.
+     */
+    @Param({"1", "4", "32"})
+    public int side;
+
+    private PixelTrigger trigger;
+    private PixelTrigger matching;
+    private Clicker clicker;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        int size = this.side * this.side;
+        int[] hit = FakeFrameSource.filled(size, COLOR + 0x000204);
+        int[] miss = FakeFrameSource.filled(size, 0x202020);
+        this.trigger = PixelTrigger.all(new FakeFrameSource(hit, miss), 0, 0, this.side, this.side, COLOR, 8);
+        this.matching = PixelTrigger.all(new FakeFrameSource(hit), 0, 0, this.side, this.side, COLOR, 8);
+        this.clicker = Clicker.build(new NullInputBackend());
+    }
+
+    @Benchmark
+    public boolean poll() {
+        return this.matching.poll();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TRIGGERS)
+    public void triggerLoop() {
+        this.clicker.begin(ClickTiming.ofMillis(0), TRIGGERS, this.trigger, MouseButton.LEFT);
+    }
+}
@@ -0,0 +1,66 @@
+package com.airclicker.benchmarks;
+
+import com.airclicker.backends.NullInputBackend;
+import com.airclicker.controllers.ClickStats;
+import com.airclicker.controllers.Clicker;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs one second worth of clicks at a target rate and reports how far the achieved rate and
+ * the per-click lateness are from the target. The primary score is the wall time of the run,
+ * the ideal value being {@code (cps - 1) / cps} seconds.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SchedulerAccuracyBenchmark {
+    @Param({"10", "100", "1000"})
+    public int cps;
+
+    private Clicker clicker;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Accuracy {
+        /**
+         * The relative error of the achieved rate in parts per million.
+         */
+        public double rateErrorPpm;
+        /**
+         * The 99th percentile lateness of a click in microseconds.
+         */
+        public double p99Micros;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.clicker = Clicker.build(new NullInputBackend());
+    }
+
+    @Benchmark
+    public ClickStats oneSecond(Accuracy accuracy) {
+        this.clicker.begin(1000 / this.cps, this.cps, "left");
+        ClickStats stats = this.clicker.getLastStats();
+        accuracy.rateErrorPpm = Math.abs(stats.achievedCps() - this.cps) / this.cps * 1e6;
+        accuracy.p99Micros = stats.p99Nanos() / 1e3;
+        return stats;
+    }
+}
@@ -0,0 +1,61 @@
+package com.airclicker.benchmarks;
+
+import com.airclicker.backends.NullInputBackend;
+import com.airclicker.controllers.Clicker;
+import com.airclicker.controllers.ClickerEngine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time between a stop request and the click loop having exited, for a job that
+ * clicks as fast as possible and for one waiting on its next deadline.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StopLatencyBenchmark {
+    @Param({"0", "1"})
+    public int speed;
+
+    private ClickerEngine engine;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.engine = ClickerEngine.build(Clicker.build(new NullInputBackend()));
+    }
+
+    @Setup(Level.Invocation)
+    public void startJob() throws InterruptedException {
+        this.engine.start(this.speed, 0, "left");
+        // Let the job reach its loop before asking it to stop.
+        TimeUnit.MICROSECONDS.sleep(200);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.engine.shutdown();
+    }
+
+    @Benchmark
+    public boolean stopToExit() throws InterruptedException {
+        this.engine.stop();
+        return this.engine.awaitTermination(1, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,74 @@
+package com.airclicker.benchmarks;
+
+import com.airclicker.vision.Match;
+import com.airclicker.vision.TemplateMatcher;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures one template search on a synthetic 1920x1080 screen covered in random rectangles,
+ * so it runs headless. {@code fullSearch} forgets the last match first and searches the whole
+ * screen, {@code cachedSearch} finds the template where it was last seen. The pixels are
+ * passed as an {@code int[]}, which is what a {@code FrameSource} capture produces.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TemplateMatchBenchmark {
+    static final int WIDTH = 1920;
+    static final int HEIGHT = 1080;
+    static final int X = 1234;
+    static final int Y = 567;
+
+    private int[] screen;
+    private TemplateMatcher matcher;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < 3000; i++) {
+            graphics.setColor(new Color(random.nextInt(0xFFFFFF)));
+            graphics.fillRect(random.nextInt(WIDTH), random.nextInt(HEIGHT), 5 + random.nextInt(80), 5 + random.nextInt(40));
+        }
+        graphics.dispose();
+        BufferedImage template = new BufferedImage(64, 48, BufferedImage.TYPE_INT_RGB);
+        template.getRaster().setDataElements(0, 0, image.getSubimage(X, Y, 64, 48).getRaster());
+        this.screen = image.getRGB(0, 0, WIDTH, HEIGHT, null, 0, WIDTH);
+        this.matcher = TemplateMatcher.of(template);
+        Match match = this.matcher.find(this.screen, WIDTH, HEIGHT);
+        if (match == null || match.x() != X || match.y() != Y)
+            throw new IllegalStateException("Template not found at " + X + "," + Y + ": " + match);
+    }
+
+    @Benchmark
+    public Match fullSearch() {
+        this.matcher.forget();
+        return this.matcher.find(this.screen, WIDTH, HEIGHT);
+    }
+
+    @Benchmark
+    public Match cachedSearch() {
+        return this.matcher.find(this.screen, WIDTH, HEIGHT);
+    }
+}
@@ -0,0 +1,52 @@
+package com.airclicker.backends;
+
+import com.airclicker.templates.InputBackend;
+import com.airclicker.templates.InputBackendProvider;
+
+/**
+ * An {@link InputBackend} that discards every event. Used on headless systems and to
+ * measure the overhead of the click loop itself.
+ *
+ * @author shabman
+ * @version 1.0.0
+ */
+public final class NullInputBackend implements InputBackend {
+    @Override
+    public void mousePress(int buttons) { }
+
+    @Override
+    public void mouseRelease(int buttons) { }
+
+    @Override
+    public void mouseMove(int x, int y) { }
+
+    @Override
+    public void keyPress(int keycode) { }
+
+    @Override
+    public void keyRelease(int keycode) { }
+    /**
+     * Registers {@link NullInputBackend} under the name {@code null}.
+     */
+    public static final class Provider implements InputBackendProvider {
+        @Override
+        public String name() {
+            return "null";
+        }
+
+        @Override
+        public int priority() {
+            return 0;
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public InputBackend create() {
+            return new NullInputBackend();
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.airclicker.backends;
+
+import com.airclicker.templates.InputBackend;
+import com.airclicker.templates.InputBackendProvider;
+
+import java.awt.Point;
+import java.util.Arrays;
+
+/**
+ * An {@link InputBackend} that stores every event in memory together with its
+ * {@code System.nanoTime()} timestamp. Events are kept in parallel primitive arrays, so
+ * recording does not allocate until the arrays need to grow. Use {@link #RecordingInputBackend(int)}
+ * with a large enough capacity to keep the click loop allocation free.
+ *
+ * <p>Recording happens on the clicking thread, read the events once the job has finished.</p>
+ *
+ * @author shabman
+ * @version 1.0.0
+ */
+public final class RecordingInputBackend implements InputBackend {
+    public static final int MOUSE_PRESS = 0;
+    public static final int MOUSE_RELEASE = 1;
+    public static final int MOUSE_MOVE = 2;
+    public static final int KEY_PRESS = 3;
+    public static final int KEY_RELEASE = 4;
+    /**
+     * The timestamp of every event.
+     */
+    private long[] times;
+    /**
+     * The type of every event, one of the constants declared by this class.
+     */
+    private int[] types;
+    /**
+     * The button mask, key code or x coordinate of every event.
+     */
+    private int[] first;
+    /**
+     * The y coordinate of every move event.
+     */
+    private int[] second;
+    /**
+     * The amount of events recorded.
+     */
+    private int size;
+    /**
+     * The last position the pointer was moved to.
+     */
+    private int x, y;
+
+    /**
+     * Creates a backend with room for 1024 events before growing.
+     */
+    public RecordingInputBackend() {
+        this(1024);
+    }
+    /**
+     * Creates a backend with room for the given amount of events before growing.
+     *
+     * @param capacity The initial capacity.
+     */
+    public RecordingInputBackend(int capacity) {
+        capacity = Math.max(16, capacity);
+        this.times = new long[capacity];
+        this.types = new int[capacity];
+        this.first = new int[capacity];
+        this.second = new int[capacity];
+    }
+
+    @Override
+    public void mousePress(int buttons) {
+        this.append(MOUSE_PRESS, buttons, 0);
+    }
+
+    @Override
+    public void mouseRelease(int buttons) {
+        this.append(MOUSE_RELEASE, buttons, 0);
+    }
+
+    @Override
+    public void mouseMove(int x, int y) {
+        this.x = x;
+        this.y = y;
+        this.append(MOUSE_MOVE, x, y);
+    }
+
+    @Override
+    public void keyPress(int keycode) {
+        this.append(KEY_PRESS, keycode, 0);
+    }
+
+    @Override
+    public void keyRelease(int keycode) {
+        this.append(KEY_RELEASE, keycode, 0);
+    }
+
+    @Override
+    public Point getPointerLocation() {
+        return new Point(this.x, this.y);
+    }
+    /**
+     * Forgets every recorded event while keeping the allocated capacity.
+     */
+    public void clear() {
+        this.size = 0;
+    }
+    /**
+     * The amount of events recorded.
+     * @return {@code int} the event count.
+     */
+    public int size() {
+        return this.size;
+    }
+    /**
+     * The {@code System.nanoTime()} timestamp of an event.
+     * @param index The event index.
+     * @return {@code long} the timestamp.
+     */
+    public long getTime(int index) {
+        return this.times[index];
+    }
+    /**
+     * The type of an event.
+     * @param index The event index.
+     * @return {@code int} one of the event constants of this class.
+     */
+    public int getType(int index) {
+        return this.types[index];
+    }
+    /**
+     * The button mask, key code or x coordinate of an event.
+     * @param index The event index.
+     * @return {@code int} the first argument of the event.
+     */
+    public int getFirst(int index) {
+        return this.first[index];
+    }
+    /**
+     * The y coordinate of a move event, zero for every other event.
+     * @param index The event index.
+     * @return {@code int} the second argument of the event.
+     */
+    public int getSecond(int index) {
+        return this.second[index];
+    }
+    /**
+     * Counts the recorded events of a type.
+     * @param type One of the event constants of this class.
+     * @return {@code int} the amount of matching events.
+     */
+    public int count(int type) {
+        int n = 0;
+        for (int i = 0; i < this.size; i++) if (this.types[i] == type) n++;
+        return n;
+    }
+
+    private void append(int type, int a, int b) {
+        int i = this.size;
+        if (i == this.times.length) this.grow();
+        this.times[i] = System.nanoTime();
+        this.types[i] = type;
+        this.first[i] = a;
+        this.second[i] = b;
+        this.size = i + 1;
+    }
+
+    private void grow() {
+        int capacity = this.times.length << 1;
+        this.times = Arrays.copyOf(this.times, capacity);
+        this.types = Arrays.copyOf(this.types, capacity);
+        this.first = Arrays.copyOf(this.first, capacity);
+        this.second = Arrays.copyOf(this.second, capacity);
+    }
+    /**
+     * Registers {@link RecordingInputBackend} under the name {@code recording}. It is never
+     * selected automatically.
+     */
+    public static final class Provider implements InputBackendProvider {
+        @Override
+        public String name() {
+            return "recording";
+        }
+
+        @Override
+        public int priority() {
+            return -1;
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public InputBackend create() {
+            return new RecordingInputBackend();
+        }
+    }
+}
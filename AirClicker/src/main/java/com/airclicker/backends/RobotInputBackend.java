@@ -0,0 +1,121 @@
+package com.airclicker.backends;
+
+import com.airclicker.templates.FrameSource;
+import com.airclicker.templates.InputBackend;
+import com.airclicker.templates.InputBackendProvider;
+
+import java.awt.AWTException;
+import java.awt.GraphicsEnvironment;
+import java.awt.MouseInfo;
+import java.awt.Point;
+import java.awt.PointerInfo;
+import java.awt.Rectangle;
+import java.awt.Robot;
+import java.awt.image.BufferedImage;
+
+/**
+ * An {@link InputBackend} backed by {@code java.awt.Robot}. This is the default backend
+ * on every desktop system and requires a display. It is also a {@link FrameSource}, reading
+ * the screen through the same {@code Robot}.
+ *
+ * @author shabman
+ * @version 1.1.0
+ */
+public final class RobotInputBackend implements InputBackend, FrameSource {
+    /**
+     * The robot that injects every event.
+     */
+    private final Robot robot;
+
+    /**
+     * Creates the backend with a new {@code Robot} for the default screen.
+     *
+     * @throws AWTException if the platform does not allow low level input control.
+     */
+    public RobotInputBackend() throws AWTException {
+        this.robot = new Robot();
+        this.robot.setAutoDelay(0);
+        this.robot.setAutoWaitForIdle(false);
+    }
+
+    @Override
+    public void mousePress(int buttons) {
+        this.robot.mousePress(buttons);
+    }
+
+    @Override
+    public void mouseRelease(int buttons) {
+        this.robot.mouseRelease(buttons);
+    }
+
+    @Override
+    public void mouseMove(int x, int y) {
+        this.robot.mouseMove(x, y);
+    }
+
+    @Override
+    public void keyPress(int keycode) {
+        this.robot.keyPress(keycode);
+    }
+
+    @Override
+    public void keyRelease(int keycode) {
+        this.robot.keyRelease(keycode);
+    }
+
+    @Override
+    public Point getPointerLocation() {
+        PointerInfo info = MouseInfo.getPointerInfo();
+        return info == null ? new Point() : info.getLocation();
+    }
+    /**
+     * Captures the rectangle through {@code Robot.createScreenCapture}. The robot allocates an
+     * image per capture, which is why callers should keep the rectangle as small as possible.
+     * Integer rasters are copied as they are, without a colour model conversion per pixel.
+     */
+    @Override
+    public void capture(int x, int y, int width, int height, int[] pixels) {
+        BufferedImage frame = this.robot.createScreenCapture(new Rectangle(x, y, width, height));
+        int type = frame.getType();
+        if (type == BufferedImage.TYPE_INT_RGB || type == BufferedImage.TYPE_INT_ARGB) {
+            frame.getRaster().getDataElements(0, 0, width, height, pixels);
+        } else {
+            frame.getRGB(0, 0, width, height, pixels, 0, width);
+        }
+    }
+    /**
+     * The robot used by this backend.
+     * @return {@code Robot} the robot.
+     */
+    public Robot getRobot() {
+        return this.robot;
+    }
+    /**
+     * Registers {@link RobotInputBackend} under the name {@code robot}.
+     */
+    public static final class Provider implements InputBackendProvider {
+        @Override
+        public String name() {
+            return "robot";
+        }
+
+        @Override
+        public int priority() {
+            return 100;
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return !GraphicsEnvironment.isHeadless();
+        }
+
+        @Override
+        public InputBackend create() {
+            try {
+                return new RobotInputBackend();
+            } catch (AWTException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        }
+    }
+}
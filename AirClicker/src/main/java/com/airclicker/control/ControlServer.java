@@ -0,0 +1,520 @@
+package com.airclicker.control;
+
+import com.airclicker.controllers.ClickJob;
+import com.airclicker.controllers.ClickTarget;
+import com.airclicker.controllers.ClickTiming;
+import com.airclicker.controllers.ClickerEngine;
+import com.airclicker.controllers.ClickerMetrics;
+import com.airclicker.controllers.JobScheduler;
+import com.airclicker.controllers.MouseButton;
+import com.airclicker.controllers.TargetSequence;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The {@code ControlServer} class lets other processes start, stop and reconfigure the clicker
+ * over a local socket, either a Unix domain socket or a TCP port bound to the loopback address.
+ *
+ * Every connection is served by a single selector thread, so a slow or stalled client never
+ * blocks the others nor the clicking thread. The protocol is one ASCII command per line, each
+ * answered with a line starting with {@code OK} or {@code ERR}:
+ *
+ * <pre>
+ * START [limit]        Starts clicking with the current settings
+ * STOP                 Stops clicking
+ * RATE &lt;spec&gt;          Sets the timing, e.g. 500cps, applied live while running
+ * BUTTON &lt;name&gt;        Sets the button used by the next START and TARGET
+ * LIMIT &lt;n&gt;            Sets the click limit of the next START, 0 for no limit
+ * TARGET &lt;x,y[,n]&gt;     Adds a target, applied live while running over targets
+ * TARGETS CLEAR        Removes every target, refused while running
+ * STATS                Replies with the live metrics
+ * SUBSCRIBE &lt;ms&gt;       Pushes the live metrics every interval
+ * UNSUBSCRIBE          Stops pushing the live metrics
+ * SCHEDULE &lt;when&gt; [AFTER &lt;id&gt;]  Queues a job with the current settings, see {@link JobScheduler#parseTime(String)}
+ * JOBS                 Lists the ids of the running and waiting jobs
+ * CANCEL &lt;id&gt;          Removes a waiting job or stops the running one
+ * QUIT                 Closes the connection
+ * </pre>
+ *
+ * The job commands are only available if the server was opened with a {@link JobScheduler}.
+ *
+ * @author shabman
+ * @version 1.1.2
+ */
+public final class ControlServer implements Closeable {
+    /**
+     * The system property holding the address the desktop application listens on, e.g.
+     * {@code unix:/tmp/air-clicker.sock} or {@code tcp:7777}.
+     */
+    public static final String CONTROL_PROPERTY = "airclicker.control";
+    /**
+     * The longest command accepted, longer lines close the connection.
+     */
+    private static final int MAX_LINE = 256;
+    /**
+     * The size of the pending output of one connection.
+     */
+    private static final int WRITE_BUFFER = 8 * 1024;
+    /**
+     * The shortest interval a client may subscribe to the live metrics with.
+     */
+    private static final long MIN_SUBSCRIPTION_MILLIS = 10;
+    /**
+     * The logger tracker to log information to the console.
+     *
+     * @apiNote There is no java doc available for {@code Logger} and {@code LoggerFactory}
+     */
+    private static final Logger logger = LoggerFactory.getLogger(ControlServer.class);
+    /**
+     * The engine controlled by the clients.
+     */
+    private final ClickerEngine engine;
+    /**
+     * The queue the job commands act on, {@code null} if they are not available.
+     */
+    private final JobScheduler jobs;
+    /**
+     * The selector every channel is registered with.
+     */
+    private final Selector selector;
+    /**
+     * The listening channel.
+     */
+    private final ServerSocketChannel server;
+    /**
+     * The socket file of a Unix domain socket, deleted on close, {@code null} for TCP.
+     */
+    private final Path socketFile;
+    /**
+     * The selector thread.
+     */
+    private final Thread thread;
+    /**
+     * Determines if the selector thread should keep running.
+     */
+    private volatile boolean running = true;
+    /**
+     * The timing of the next started job, only touched by the selector thread.
+     */
+    private ClickTiming timing = ClickTiming.ofMillis(100);
+    /**
+     * The click limit of the next started job, only touched by the selector thread.
+     */
+    private long limit;
+    /**
+     * The button of the next started job, only touched by the selector thread.
+     */
+    private MouseButton button = MouseButton.LEFT;
+    /**
+     * The targets of the next started job, only touched by the selector thread.
+     */
+    private final List<ClickTarget> targets = new ArrayList<>();
+
+    /**
+     * The state of one connection.
+     */
+    private static final class Client {
+        /**
+         * The bytes received but not yet parsed into a command.
+         */
+        final ByteBuffer in = ByteBuffer.allocate(MAX_LINE);
+        /**
+         * The bytes waiting for the socket to accept them.
+         */
+        final ByteBuffer out = ByteBuffer.allocateDirect(WRITE_BUFFER);
+        /**
+         * The interval of pushed metrics in nanoseconds, {@code 0} if not subscribed.
+         */
+        long interval;
+        /**
+         * The time the next metrics are due.
+         */
+        long due;
+        /**
+         * Set by {@code QUIT}, the connection is closed once the output is flushed.
+         */
+        boolean closing;
+    }
+
+    /**
+     * Prevents the class from being instantiated
+     */
+    private ControlServer(ClickerEngine engine, JobScheduler jobs, ServerSocketChannel server, Path socketFile) throws IOException {
+        this.engine = engine;
+        this.jobs = jobs;
+        this.server = server;
+        this.socketFile = socketFile;
+        this.selector = Selector.open();
+        server.configureBlocking(false);
+        server.register(this.selector, SelectionKey.OP_ACCEPT);
+        this.thread = new Thread(this::loop, "air-clicker-control");
+        this.thread.setDaemon(true);
+    }
+    /**
+     * Opens a server on the given address and starts serving connections.
+     *
+     * @param engine The engine controlled by the clients.
+     * @param address {@code unix:<path>} for a Unix domain socket or {@code tcp:<port>} for a loopback port.
+     * @return {@code ControlServer} the running server.
+     * @throws IOException if the address cannot be bound.
+     * @throws IllegalArgumentException if the address is malformed.
+     */
+    public static ControlServer open(ClickerEngine engine, String address) throws IOException {
+        return open(engine, null, address);
+    }
+    /**
+     * Opens a server on the given address that also accepts the job commands.
+     *
+     * @param engine The engine controlled by the clients.
+     * @param jobs The queue the job commands act on, {@code null} to disable them.
+     * @param address {@code unix:<path>} for a Unix domain socket or {@code tcp:<port>} for a loopback port.
+     * @return {@code ControlServer} the running server.
+     * @throws IOException if the address cannot be bound.
+     * @throws IllegalArgumentException if the address is malformed.
+     */
+    public static ControlServer open(ClickerEngine engine, JobScheduler jobs, String address) throws IOException {
+        ServerSocketChannel server;
+        Path socketFile = null;
+        SocketAddress bind;
+        if (address.startsWith("unix:")) {
+            socketFile = Path.of(address.substring(5));
+            Files.deleteIfExists(socketFile);
+            server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+            bind = UnixDomainSocketAddress.of(socketFile);
+        } else if (address.startsWith("tcp:")) {
+            int port;
+            try {
+                port = Integer.parseInt(address.substring(4));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid control port: " + address);
+            }
+            server = ServerSocketChannel.open(StandardProtocolFamily.INET);
+            bind = new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+        } else {
+            throw new IllegalArgumentException("Invalid control address, expected unix:<path> or tcp:<port>: " + address);
+        }
+        try {
+            server.bind(bind);
+            ControlServer control = new ControlServer(engine, jobs, server, socketFile);
+            control.thread.start();
+            logger.info("Control server listening on " + server.getLocalAddress());
+            return control;
+        } catch (IOException e) {
+            server.close();
+            throw e;
+        }
+    }
+    /**
+     * The address the server is bound to.
+     * @return {@code SocketAddress} the local address.
+     * @throws IOException if the channel is closed.
+     */
+    public SocketAddress getAddress() throws IOException {
+        return this.server.getLocalAddress();
+    }
+    /**
+     * Blocks until the server is closed.
+     *
+     * @throws InterruptedException if the calling thread is interrupted while waiting.
+     */
+    public void join() throws InterruptedException {
+        this.thread.join();
+    }
+    /**
+     * Stops serving, closes every connection and removes the socket file.
+     */
+    @Override
+    public void close() {
+        this.running = false;
+        this.selector.wakeup();
+        try {
+            this.thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void loop() {
+        try {
+            while (this.running) {
+                long now = System.nanoTime();
+                long next = this.publish(now);
+                if (next == Long.MAX_VALUE) this.selector.select();
+                else this.selector.select(Math.max(1, (next - now) / 1_000_000));
+                Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    try {
+                        if (!key.isValid()) continue;
+                        if (key.isAcceptable()) this.accept();
+                        else {
+                            if (key.isReadable()) this.read(key);
+                            if (key.isValid() && key.isWritable()) this.flush(key);
+                        }
+                    } catch (IOException e) {
+                        this.disconnect(key);
+                    }
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            logger.error(e.getMessage());
+        } finally {
+            this.shutdown();
+        }
+    }
+
+    private void shutdown() {
+        try {
+            for (SelectionKey key : this.selector.keys()) key.channel().close();
+            this.selector.close();
+            this.server.close();
+            if (this.socketFile != null) Files.deleteIfExists(this.socketFile);
+        } catch (IOException e) {
+            logger.error(e.getMessage());
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = this.server.accept();
+        if (channel == null) return;
+        channel.configureBlocking(false);
+        channel.register(this.selector, SelectionKey.OP_READ, new Client());
+    }
+
+    private void read(SelectionKey key) throws IOException {
+        Client client = (Client) key.attachment();
+        SocketChannel channel = (SocketChannel) key.channel();
+        ByteBuffer in = client.in;
+        if (channel.read(in) < 0) {
+            this.disconnect(key);
+            return;
+        }
+        in.flip();
+        int start = 0;
+        for (int i = in.position(); i < in.limit(); i++) {
+            if (in.get(i) != '\n') continue;
+            String line = new String(in.array(), start, i - start, StandardCharsets.US_ASCII).trim();
+            start = i + 1;
+            if (!line.isEmpty()) this.send(key, client, this.handle(client, line), false);
+            if (!key.isValid()) return;
+        }
+        in.position(start);
+        in.compact();
+        if (!in.hasRemaining()) {
+            this.send(key, client, "ERR line too long", false);
+            client.closing = true;
+            this.flush(key);
+        }
+    }
+
+    /**
+     * Executes one command.
+     *
+     * @return {@code String} the reply line.
+     */
+    private String handle(Client client, String line) {
+        String[] parts = line.split("\\s+", 2);
+        String command = parts[0].toUpperCase(Locale.ROOT);
+        String argument = parts.length > 1 ? parts[1] : null;
+        try {
+            switch (command) {
+                case "START":
+                    if (this.engine.isRunning()) return "ERR already running";
+                    if (argument != null) this.limit = parseLimit(argument);
+                    if (this.targets.isEmpty()) this.engine.start(this.timing, this.limit, this.button);
+                    else this.engine.start(this.timing, this.limit, TargetSequence.compile(this.targets));
+                    return "OK started";
+                case "STOP":
+                    this.engine.stop();
+                    return "OK stopped";
+                case "RATE":
+                    this.timing = ClickTiming.parse(require(argument, command));
+                    boolean live = this.engine.setTiming(this.timing);
+                    return String.format(Locale.ROOT, "OK rate %.2f cps%s", this.timing.cps(), live ? " live" : "");
+                case "BUTTON":
+                    this.button = MouseButton.parse(require(argument, command));
+                    return "OK button " + this.button.name().toLowerCase(Locale.ROOT);
+                case "LIMIT":
+                    this.limit = parseLimit(require(argument, command));
+                    return "OK limit " + this.limit;
+                case "TARGET":
+                    this.targets.add(this.parseTarget(require(argument, command)));
+                    if (this.engine.isRunning()) this.engine.setTargets(TargetSequence.compile(this.targets));
+                    return "OK targets " + this.targets.size();
+                case "TARGETS":
+                    if (!"CLEAR".equalsIgnoreCase(require(argument, command))) return "ERR usage: TARGETS CLEAR";
+                    // A running session always needs a target, so it keeps its list until it stops.
+                    if (this.engine.isRunning()) return "ERR running, STOP before clearing targets";
+                    this.targets.clear();
+                    return "OK targets 0";
+                case "STATS":
+                    return this.formatStats();
+                case "SUBSCRIBE":
+                    long millis = Math.max(MIN_SUBSCRIPTION_MILLIS, parseLimit(require(argument, command)));
+                    client.interval = millis * 1_000_000;
+                    client.due = System.nanoTime() + client.interval;
+                    return "OK subscribed " + millis + "ms";
+                case "UNSUBSCRIBE":
+                    client.interval = 0;
+                    return "OK unsubscribed";
+                case "SCHEDULE":
+                    return this.schedule(require(argument, command));
+                case "JOBS":
+                    StringBuilder ids = new StringBuilder("OK jobs");
+                    for (ClickJob job : this.requireJobs().getJobs()) ids.append(' ').append(job.id());
+                    return ids.toString();
+                case "CANCEL":
+                    return this.requireJobs().cancel(parseLimit(require(argument, command)))
+                            ? "OK cancelled" : "ERR no such job";
+                case "QUIT":
+                    client.closing = true;
+                    return "OK bye";
+                default:
+                    return "ERR unknown command " + command;
+            }
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return "ERR " + e.getMessage();
+        } catch (IOException e) {
+            logger.error(e.getMessage());
+            return "ERR cannot save jobs";
+        }
+    }
+
+    private String schedule(String argument) throws IOException {
+        String[] parts = argument.trim().split("\\s+");
+        if (parts.length != 1 && !(parts.length == 3 && parts[1].equalsIgnoreCase("AFTER")))
+            return "ERR usage: SCHEDULE <when> [AFTER <id>]";
+        ClickJob job = ClickJob.of(this.timing, this.limit, this.button, this.targets)
+                .startingAt(JobScheduler.parseTime(parts[0]));
+        if (parts.length == 3) job = job.chainedTo(parseLimit(parts[2]));
+        return "OK job " + this.requireJobs().submit(job);
+    }
+
+    private JobScheduler requireJobs() {
+        if (this.jobs == null) throw new IllegalStateException("jobs are not enabled");
+        return this.jobs;
+    }
+
+    /**
+     * Pushes the live metrics to every subscriber that is due.
+     *
+     * @param now The current time.
+     * @return {@code long} the time the next subscriber is due, {@link Long#MAX_VALUE} if none.
+     */
+    private long publish(long now) {
+        long next = Long.MAX_VALUE;
+        String stats = null;
+        for (SelectionKey key : this.selector.keys()) {
+            if (!(key.attachment() instanceof Client client) || client.interval == 0 || !key.isValid()) continue;
+            if (now - client.due >= 0) {
+                if (stats == null) stats = this.formatStats();
+                this.send(key, client, stats, true);
+                client.due = now + client.interval;
+            }
+            next = Math.min(next, client.due);
+        }
+        return next;
+    }
+
+    /**
+     * Queues a line on a connection. Metrics are dropped when a subscriber falls behind,
+     * a client that does not read its replies is disconnected.
+     */
+    private void send(SelectionKey key, Client client, String line, boolean droppable) {
+        byte[] bytes = (line + "\n").getBytes(StandardCharsets.US_ASCII);
+        if (client.out.remaining() < bytes.length) {
+            if (!droppable) this.disconnect(key);
+            return;
+        }
+        client.out.put(bytes);
+        try {
+            this.flush(key);
+        } catch (IOException e) {
+            this.disconnect(key);
+        }
+    }
+
+    private void flush(SelectionKey key) throws IOException {
+        Client client = (Client) key.attachment();
+        ByteBuffer out = client.out;
+        out.flip();
+        ((SocketChannel) key.channel()).write(out);
+        out.compact();
+        if (out.position() > 0) {
+            key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+        } else if (client.closing) {
+            this.disconnect(key);
+        } else {
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+        }
+    }
+
+    private void disconnect(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            logger.error(e.getMessage());
+        }
+    }
+
+    private String formatStats() {
+        ClickerMetrics metrics = this.engine.getClicker().getMetrics();
+        return String.format(Locale.ROOT, "STATS running=%b clicks=%d cps=%.2f p50=%.1f p99=%.1f max=%.1f",
+                metrics.isRunning(), metrics.getSessionClicks(), metrics.getAchievedCps(),
+                metrics.getLatencyP50Micros(), metrics.getLatencyP99Micros(), metrics.getLatencyMaxMicros());
+    }
+
+    private ClickTarget parseTarget(String value) {
+        String[] parts = value.split(",");
+        if (parts.length < 2 || parts.length > 3) throw new IllegalArgumentException("invalid target " + value);
+        int repeat = parts.length == 3 ? (int) parseLimit(parts[2]) : 1;
+        return new ClickTarget(parseCoordinate(parts[0]), parseCoordinate(parts[1]), this.button.mask(), repeat);
+    }
+
+    private static int parseCoordinate(String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid coordinate " + value);
+        }
+    }
+
+    private static String require(String argument, String command) {
+        if (argument == null) throw new IllegalArgumentException("missing argument for " + command);
+        return argument;
+    }
+
+    private static long parseLimit(String value) {
+        try {
+            long parsed = Long.parseLong(value.trim());
+            if (parsed < 0) throw new IllegalArgumentException("must not be negative: " + value);
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid number " + value);
+        }
+    }
+}
@@ -0,0 +1,390 @@
+package com.airclicker.controllers;
+
+import com.airclicker.templates.InputBackend;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The {@code ClickChannels} class clicks several buttons at independent rates and limits,
+ * e.g. the left button at 20 clicks per second and the right one at 3, from a single thread.
+ *
+ * Channels are kept in a hashed timing wheel: every channel waits in the slot of the tick its
+ * next press or release is due in, so a tick only visits the channels due around it and
+ * costs the same with two channels or sixty. Every button change due in the same tick is sent
+ * as one {@link InputBackend#mouseBatch(int, int, int)}. Two channels clicking the same button
+ * in the same tick therefore produce a single physical click.
+ *
+ * Channel state lives in flat arrays indexed by the channel id and is only touched by the
+ * wheel thread. Other threads hand changes over through a command queue.
+ *
+ * @author shabman
+ * @version 1.0.0
+ */
+public final class ClickChannels implements AutoCloseable {
+    /**
+     * The maximum amount of open channels.
+     */
+    public static final int MAX_CHANNELS = 64;
+    /**
+     * The default length of a tick, also the finest resolution of a channel.
+     */
+    public static final long DEFAULT_TICK_NANOS = 1_000_000;
+    /**
+     * The amount of slots on the wheel, a power of two.
+     */
+    private static final int WHEEL_SIZE = 512;
+    /**
+     * How long before a tick the thread stops parking and spins.
+     */
+    private static final long SPIN_NANOS = 50_000;
+    /**
+     * The backend every batch is sent to, used by the wheel thread only.
+     */
+    private final InputBackend backend;
+    /**
+     * The length of a tick in nanoseconds.
+     */
+    private final long tickNanos;
+    /**
+     * The first channel in every slot, {@code -1} if empty.
+     */
+    private final int[] heads = new int[WHEEL_SIZE];
+    /**
+     * The next and previous channel in the same slot, {@code -1} at either end.
+     */
+    private final int[] next = new int[MAX_CHANNELS], previous = new int[MAX_CHANNELS];
+    /**
+     * The tick the next event of every channel is due in.
+     */
+    private final long[] due = new long[MAX_CHANNELS];
+    /**
+     * The button mask of every channel.
+     */
+    private final int[] masks = new int[MAX_CHANNELS];
+    /**
+     * The period, hold time and limit of every channel.
+     */
+    private final long[] periods = new long[MAX_CHANNELS], holds = new long[MAX_CHANNELS], limits = new long[MAX_CHANNELS];
+    /**
+     * The time of the current or next press of every channel, relative to {@link #origin}.
+     */
+    private final long[] pressAt = new long[MAX_CHANNELS];
+    /**
+     * Determines if the button of a channel is held down.
+     */
+    private final boolean[] held = new boolean[MAX_CHANNELS];
+    /**
+     * Determines if a channel is on the wheel, only touched by the wheel thread.
+     */
+    private final boolean[] linked = new boolean[MAX_CHANNELS];
+    /**
+     * The clicks of every channel, written by the wheel thread and readable from any thread.
+     */
+    private final AtomicLongArray clicks = new AtomicLongArray(MAX_CHANNELS);
+    /**
+     * The ids handed out by {@link #open(MouseButton, ClickTiming, long)}, guarded by {@code this}.
+     */
+    private final boolean[] reserved = new boolean[MAX_CHANNELS];
+    /**
+     * The changes waiting to be applied by the wheel thread.
+     */
+    private final ConcurrentLinkedQueue<Runnable> commands = new ConcurrentLinkedQueue<>();
+    /**
+     * The lateness of every tick.
+     */
+    private final JitterHistogram jitter = new JitterHistogram();
+    /**
+     * The wheel thread.
+     */
+    private final Thread thread;
+    /**
+     * Determines if the wheel thread should keep running.
+     */
+    private volatile boolean running = true;
+    /**
+     * The time of tick {@code 0}.
+     */
+    private long origin;
+    /**
+     * The next tick to be processed.
+     */
+    private long tick;
+    /**
+     * The amount of channels on the wheel.
+     */
+    private int linkedCount;
+    /**
+     * Buttons of closed channels that still have to be released.
+     */
+    private int pendingRelease;
+
+    /**
+     * Prevents the class from being instantiated
+     */
+    private ClickChannels(InputBackend backend, long tickNanos) {
+        if (tickNanos <= 0) throw new IllegalArgumentException("Tick must be positive: " + tickNanos);
+        this.backend = backend;
+        this.tickNanos = tickNanos;
+        Arrays.fill(this.heads, -1);
+        this.thread = new Thread(this::loop, "air-clicker-channels");
+        this.thread.setDaemon(true);
+        this.thread.setPriority(Thread.MAX_PRIORITY);
+    }
+    /**
+     * Starts a wheel with {@link #DEFAULT_TICK_NANOS} ticks.
+     *
+     * @param backend The backend to click with, it must not be used by another clicking thread.
+     * @return {@code ClickChannels} the running wheel.
+     */
+    public static ClickChannels build(InputBackend backend) {
+        return build(backend, DEFAULT_TICK_NANOS);
+    }
+    /**
+     * Starts a wheel.
+     *
+     * @param backend The backend to click with, it must not be used by another clicking thread.
+     * @param tickNanos The length of a tick, events are rounded up to the next tick.
+     * @return {@code ClickChannels} the running wheel.
+     */
+    public static ClickChannels build(InputBackend backend, long tickNanos) {
+        ClickChannels channels = new ClickChannels(backend, tickNanos);
+        channels.thread.start();
+        return channels;
+    }
+    /**
+     * Opens a channel that starts clicking on the next tick. The id is reused once the
+     * channel has closed.
+     *
+     * @param button The button to click.
+     * @param timing The hold and gap durations of every click.
+     * @param limit Amount of clicks before the channel closes, {@code 0} for no limit.
+     * @return {@code int} the channel id.
+     * @throws IllegalStateException if {@link #MAX_CHANNELS} channels are open.
+     */
+    public int open(MouseButton button, ClickTiming timing, long limit) {
+        if (limit < 0) throw new IllegalArgumentException("Limit must not be negative: " + limit);
+        if (timing.periodNanos() <= 0) throw new IllegalArgumentException("Period must be positive");
+        int id = this.reserve();
+        this.clicks.set(id, 0);
+        this.submit(() -> {
+            this.masks[id] = button.mask();
+            this.periods[id] = timing.periodNanos();
+            this.holds[id] = timing.holdNanos();
+            this.limits[id] = limit;
+            this.held[id] = false;
+            this.pressAt[id] = this.tick * this.tickNanos;
+            this.link(id, this.tick);
+        });
+        return id;
+    }
+    /**
+     * Changes the timing of an open channel, the next press follows one new period after the
+     * last one.
+     *
+     * @param id The channel id.
+     * @param timing The new hold and gap durations.
+     */
+    public void retime(int id, ClickTiming timing) {
+        if (timing.periodNanos() <= 0) throw new IllegalArgumentException("Period must be positive");
+        this.submit(() -> {
+            if (!this.linked[id]) return;
+            long period = timing.periodNanos();
+            if (!this.held[id]) {
+                this.pressAt[id] = Math.max(this.pressAt[id] - this.periods[id] + period, this.tick * this.tickNanos);
+                this.unlink(id);
+                this.link(id, this.tickOf(this.pressAt[id]));
+            }
+            this.periods[id] = period;
+            this.holds[id] = timing.holdNanos();
+        });
+    }
+    /**
+     * Closes a channel, releasing its button if it is held.
+     *
+     * @param id The channel id.
+     */
+    public void close(int id) {
+        this.submit(() -> {
+            if (this.linked[id]) this.finish(id);
+        });
+    }
+    /**
+     * Closes every channel.
+     */
+    public void closeAll() {
+        this.submit(() -> {
+            for (int id = 0; id < MAX_CHANNELS; id++) if (this.linked[id]) this.finish(id);
+        });
+    }
+    /**
+     * The clicks of a channel since it was opened.
+     *
+     * @param id The channel id.
+     * @return {@code long} the click count.
+     */
+    public long getClicks(int id) {
+        return this.clicks.get(id);
+    }
+    /**
+     * Determines if a channel is still open.
+     *
+     * @param id The channel id.
+     * @return {@code boolean} false once the channel reached its limit or was closed.
+     */
+    public synchronized boolean isOpen(int id) {
+        return this.reserved[id];
+    }
+    /**
+     * Determines if any channel is open.
+     *
+     * @return {@code boolean} true while a channel is clicking.
+     */
+    public synchronized boolean isActive() {
+        for (boolean r : this.reserved) if (r) return true;
+        return false;
+    }
+    /**
+     * The lateness of every tick of the wheel thread.
+     * @return {@code JitterHistogram} the histogram.
+     */
+    public JitterHistogram getJitter() {
+        return this.jitter;
+    }
+    /**
+     * Stops the wheel thread after releasing every held button.
+     */
+    @Override
+    public void close() {
+        this.running = false;
+        LockSupport.unpark(this.thread);
+        try {
+            this.thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private synchronized int reserve() {
+        for (int id = 0; id < MAX_CHANNELS; id++) {
+            if (!this.reserved[id]) {
+                this.reserved[id] = true;
+                return id;
+            }
+        }
+        throw new IllegalStateException("No more than " + MAX_CHANNELS + " channels can be open");
+    }
+
+    private synchronized void free(int id) {
+        this.reserved[id] = false;
+    }
+
+    private void submit(Runnable command) {
+        this.commands.add(command);
+        LockSupport.unpark(this.thread);
+    }
+
+    private void loop() {
+        this.origin = System.nanoTime();
+        while (this.running) {
+            if (this.linkedCount == 0) {
+                if (this.pendingRelease == 0 && this.commands.isEmpty()) LockSupport.park(this);
+                // Skip the ticks spent idle instead of replaying them.
+                this.tick = Math.max(this.tick, (System.nanoTime() - this.origin) / this.tickNanos + 1);
+            }
+            Runnable command;
+            while ((command = this.commands.poll()) != null) command.run();
+            if (this.linkedCount == 0 && this.pendingRelease == 0) continue;
+            long deadline = this.origin + this.tick * this.tickNanos;
+            ClickScheduler.waitUntil(deadline, SPIN_NANOS);
+            this.jitter.record(System.nanoTime() - deadline);
+            this.advance();
+        }
+        for (int id = 0; id < MAX_CHANNELS; id++) if (this.linked[id]) this.finish(id);
+        if (this.pendingRelease != 0) this.backend.mouseRelease(this.pendingRelease);
+    }
+
+    /**
+     * Processes the channels due in the current tick and sends their button changes as one batch.
+     */
+    private void advance() {
+        long now = this.tick++;
+        int release = this.pendingRelease, press = 0, click = 0;
+        this.pendingRelease = 0;
+        int id = this.heads[(int) (now & (WHEEL_SIZE - 1))];
+        while (id != -1) {
+            int following = this.next[id];
+            if (this.due[id] == now) {
+                this.unlink(id);
+                if (this.held[id]) {
+                    release |= this.masks[id];
+                    this.held[id] = false;
+                    this.schedulePress(id);
+                } else if (this.holds[id] == 0) {
+                    click |= this.masks[id];
+                    this.clicks.lazySet(id, this.clicks.get(id) + 1);
+                    this.schedulePress(id);
+                } else {
+                    press |= this.masks[id];
+                    this.held[id] = true;
+                    this.clicks.lazySet(id, this.clicks.get(id) + 1);
+                    this.link(id, this.tickOf(this.pressAt[id] + this.holds[id]));
+                }
+            }
+            id = following;
+        }
+        if ((release | press | click) != 0) this.backend.mouseBatch(release, press, click);
+    }
+
+    /**
+     * Puts a channel back on the wheel for its next press, or closes it once its limit is reached.
+     */
+    private void schedulePress(int id) {
+        if (this.limits[id] != 0 && this.clicks.get(id) >= this.limits[id]) {
+            this.finish(id);
+            return;
+        }
+        this.pressAt[id] += this.periods[id];
+        this.link(id, this.tickOf(this.pressAt[id]));
+    }
+
+    private void finish(int id) {
+        if (this.linked[id]) this.unlink(id);
+        if (this.held[id]) {
+            this.pendingRelease |= this.masks[id];
+            this.held[id] = false;
+        }
+        this.free(id);
+    }
+
+    /**
+     * The first tick at or after a time relative to {@link #origin}.
+     */
+    private long tickOf(long nanos) {
+        return (nanos + this.tickNanos - 1) / this.tickNanos;
+    }
+
+    private void link(int id, long at) {
+        // An event whose tick was already processed is sent on the next one.
+        if (at < this.tick) at = this.tick;
+        int slot = (int) (at & (WHEEL_SIZE - 1));
+        this.due[id] = at;
+        this.previous[id] = -1;
+        this.next[id] = this.heads[slot];
+        if (this.heads[slot] != -1) this.previous[this.heads[slot]] = id;
+        this.heads[slot] = id;
+        this.linked[id] = true;
+        this.linkedCount++;
+    }
+
+    private void unlink(int id) {
+        int slot = (int) (this.due[id] & (WHEEL_SIZE - 1));
+        if (this.previous[id] != -1) this.next[this.previous[id]] = this.next[id];
+        else this.heads[slot] = this.next[id];
+        if (this.next[id] != -1) this.previous[this.next[id]] = this.previous[id];
+        this.linked[id] = false;
+        this.linkedCount--;
+    }
+}
@@ -0,0 +1,72 @@
+package com.airclicker.controllers;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A click run waiting in the {@link JobScheduler}: what to click, how fast, and when.
+ *
+ * @param id The id assigned by the scheduler, {@code 0} until submitted.
+ * @param timing The hold and gap durations of every click.
+ * @param limit Amount of clicks, {@code 0} for no limit.
+ * @param button The mouse button to click when no targets are given.
+ * @param targets The targets to click in order, empty to click at the current pointer position.
+ * @param startAt The earliest start in milliseconds since the epoch, {@code 0} for as soon as possible.
+ * @param afterJobId The job that has to finish first, {@code 0} for none.
+ *
+ * @author shabman
+ * @version 1.0.0
+ */
+public record ClickJob(long id, ClickTiming timing, long limit, MouseButton button,
+                       List<ClickTarget> targets, long startAt, long afterJobId) {
+    public ClickJob {
+        if (limit < 0) throw new IllegalArgumentException("Limit must not be negative: " + limit);
+        if (afterJobId < 0) throw new IllegalArgumentException("Invalid job id: " + afterJobId);
+        targets = List.copyOf(targets);
+    }
+    /**
+     * A job that starts as soon as the engine is free.
+     *
+     * @param timing The hold and gap durations of every click.
+     * @param limit Amount of clicks, {@code 0} for no limit.
+     * @param button The mouse button to click when no targets are given.
+     * @param targets The targets to click in order, may be empty.
+     * @return {@code ClickJob} the job.
+     */
+    public static ClickJob of(ClickTiming timing, long limit, MouseButton button, List<ClickTarget> targets) {
+        return new ClickJob(0, timing, limit, button, targets, 0, 0);
+    }
+    /**
+     * A copy of this job that does not start before the given time.
+     *
+     * @param epochMillis The earliest start in milliseconds since the epoch.
+     * @return {@code ClickJob} the delayed job.
+     */
+    public ClickJob startingAt(long epochMillis) {
+        return new ClickJob(this.id, this.timing, this.limit, this.button, this.targets, epochMillis, this.afterJobId);
+    }
+    /**
+     * A copy of this job that waits for another job to finish.
+     *
+     * @param jobId The job that has to finish first.
+     * @return {@code ClickJob} the chained job.
+     */
+    public ClickJob chainedTo(long jobId) {
+        return new ClickJob(this.id, this.timing, this.limit, this.button, this.targets, this.startAt, jobId);
+    }
+
+    ClickJob withId(long jobId) {
+        return new ClickJob(jobId, this.timing, this.limit, this.button, this.targets, this.startAt, this.afterJobId);
+    }
+    /**
+     * Hands this job to the engine.
+     *
+     * @param engine The engine to run on.
+     * @return {@code CompletableFuture} completed with the statistics once the job ends.
+     */
+    CompletableFuture<ClickStats> startOn(ClickerEngine engine) {
+        return this.targets.isEmpty()
+                ? engine.start(this.timing, this.limit, this.button)
+                : engine.start(this.timing, this.limit, TargetSequence.compile(this.targets));
+    }
+}
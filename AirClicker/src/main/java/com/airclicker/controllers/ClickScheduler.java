@@ -0,0 +1,373 @@
+package com.airclicker.controllers;
+
+import com.airclicker.events.ClickEvent;
+import com.airclicker.events.FlightRecording;
+import com.airclicker.events.OvershootEvent;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The {@code ClickScheduler} class paces clicks against absolute {@code System.nanoTime()}
+ * deadlines. The n-th deadline is always {@code origin + n * period}, starting at zero, so the time spent
+ * pressing buttons or oversleeping never accumulates into the achieved rate.
+ * Waiting is done by parking the thread until the deadline is close and then spinning
+ * the remaining few microseconds, which avoids the millisecond overshoot of
+ * {@code Robot.delay} and {@code Thread.sleep}.
+ *
+ * <p>With a {@link Humanizer} every deadline is instead the previous one plus a randomised
+ * period, which keeps the configured rate on average without a fixed interval.</p>
+ *
+ * <p>Instances are owned by the clicking thread. The only methods that may be called from
+ * other threads are {@link #retime(ClickTiming)} and {@link #wake()}, both interrupt a pending
+ * wait immediately instead of letting it run until the old deadline.</p>
+ *
+ * <p>Every {@link FlightRecording#CLICK_SAMPLE}-th deadline records a {@link ClickEvent} and every
+ * deadline reached later than {@link FlightRecording#OVERSHOOT_NANOS} an {@link OvershootEvent}.</p>
+ *
+ * @author shabman
+ * @version 1.4.2
+ */
+public final class ClickScheduler {
+    /**
+     * Below this remaining time the scheduler stops parking and spins until the deadline.
+     */
+    public static final long DEFAULT_SPIN_NANOS = 200_000L;
+    /**
+     * The time between two deadlines in nanoseconds.
+     */
+    private long periodNanos;
+    /**
+     * The time a button is held after each deadline in nanoseconds.
+     */
+    private long holdNanos;
+    /**
+     * The remaining time under which the scheduler spins instead of parking.
+     */
+    private final long spinNanos;
+    /**
+     * The lateness of every click compared to its deadline.
+     */
+    private final JitterHistogram jitter;
+    /**
+     * The time of the first deadline.
+     */
+    private long start;
+    /**
+     * The deadline the current timing is anchored to, moves on every {@link #retime(ClickTiming)}.
+     */
+    private long origin;
+    /**
+     * The amount of deadlines handed out since {@link #origin}.
+     */
+    private long ticks;
+    /**
+     * The amount of deadlines reached since {@link #start()}.
+     */
+    private long total;
+    /**
+     * The time the last deadline was reached.
+     */
+    private long last;
+    /**
+     * The last deadline handed out by {@link #awaitNext()}.
+     */
+    private long deadline;
+    /**
+     * A timing requested by another thread, taken atomically and applied before the next deadline.
+     */
+    private final AtomicReference<ClickTiming> pending = new AtomicReference<>();
+    /**
+     * Set by {@link #wake()} to end the current wait early.
+     */
+    private volatile boolean woken;
+    /**
+     * The thread waiting on deadlines, unparked by {@link #retime(ClickTiming)} and {@link #wake()}.
+     */
+    private volatile Thread owner;
+    /**
+     * The source of randomised periods, {@code null} for a fixed interval.
+     */
+    private Humanizer humanizer;
+    /**
+     * The randomised deadline of the pending wait, {@link Long#MIN_VALUE} until it is drawn.
+     */
+    private long planned = Long.MIN_VALUE;
+    /**
+     * The deadlines left until the next sampled {@link ClickEvent}.
+     */
+    private int untilSample = 1;
+
+    /**
+     * Creates a scheduler with the default spin threshold.
+     *
+     * @param periodNanos The time between two clicks in nanoseconds.
+     */
+    public ClickScheduler(long periodNanos) {
+        this(periodNanos, DEFAULT_SPIN_NANOS);
+    }
+    /**
+     * Creates a scheduler that presses on every deadline and releases after the hold time.
+     *
+     * @param timing The hold and gap durations of every click.
+     */
+    public ClickScheduler(ClickTiming timing) {
+        this(timing, new JitterHistogram());
+    }
+    /**
+     * Creates a scheduler that records click lateness into a shared histogram, so it can be
+     * read live while the session runs.
+     *
+     * @param timing The hold and gap durations of every click.
+     * @param jitter The histogram to record into, reset by {@link #start()}.
+     */
+    public ClickScheduler(ClickTiming timing, JitterHistogram jitter) {
+        this(timing.periodNanos(), timing.holdNanos(), DEFAULT_SPIN_NANOS, jitter);
+    }
+    /**
+     * Creates a scheduler.
+     *
+     * @param periodNanos The time between two clicks in nanoseconds.
+     * @param spinNanos The remaining time under which the thread spins instead of parking.
+     */
+    public ClickScheduler(long periodNanos, long spinNanos) {
+        this(periodNanos, 0L, spinNanos);
+    }
+    /**
+     * Creates a scheduler.
+     *
+     * @param periodNanos The time between two presses in nanoseconds.
+     * @param holdNanos The time between a press and its release in nanoseconds.
+     * @param spinNanos The remaining time under which the thread spins instead of parking.
+     */
+    public ClickScheduler(long periodNanos, long holdNanos, long spinNanos) {
+        this(periodNanos, holdNanos, spinNanos, new JitterHistogram());
+    }
+
+    private ClickScheduler(long periodNanos, long holdNanos, long spinNanos, JitterHistogram jitter) {
+        validate(periodNanos, holdNanos);
+        this.periodNanos = periodNanos;
+        this.holdNanos = holdNanos;
+        this.spinNanos = Math.max(0L, spinNanos);
+        this.jitter = jitter;
+    }
+    /**
+     * Marks the current time as the first deadline and clears previous statistics.
+     */
+    public void start() {
+        this.owner = Thread.currentThread();
+        this.start = System.nanoTime();
+        this.origin = this.start;
+        this.last = this.start;
+        this.ticks = 0;
+        this.total = 0;
+        this.jitter.reset();
+    }
+    /**
+     * Blocks until the next deadline and records how late it was reached. The first call
+     * returns immediately as the first deadline is the time {@link #start()} was called.
+     *
+     * @return {@code boolean} true once the deadline is reached, false if {@link #wake()} ended the wait.
+     */
+    public boolean awaitNext() {
+        for (;;) {
+            this.applyPending();
+            if (this.woken) {
+                this.woken = false;
+                return false;
+            }
+            long deadline = this.humanizer == null ? this.origin + this.ticks * this.periodNanos : this.plan();
+            if (!this.await(deadline)) continue;
+            this.planned = Long.MIN_VALUE;
+            this.ticks++;
+            this.total++;
+            this.deadline = deadline;
+            long now = System.nanoTime();
+            long late = now - deadline;
+            this.jitter.record(late);
+            this.last = now;
+            if (late > FlightRecording.OVERSHOOT_NANOS && FlightRecording.isInitialized())
+                OvershootEvent.emit(this.total, late, this.periodNanos);
+            if (--this.untilSample == 0) {
+                this.untilSample = FlightRecording.CLICK_SAMPLE;
+                if (FlightRecording.isInitialized()) ClickEvent.emit(this.total, late, this.periodNanos);
+            }
+            return true;
+        }
+    }
+    /**
+     * Blocks until an absolute deadline outside the regular pacing, e.g. the next event of a
+     * replayed macro. Unlike {@link #waitUntil(long, long)} the wait ends early on {@link #wake()}.
+     *
+     * @param deadline The absolute deadline in {@code System.nanoTime()} units.
+     * @return {@code boolean} true once the deadline is reached, false if {@link #wake()} ended the wait.
+     */
+    public boolean awaitDeadline(long deadline) {
+        for (;;) {
+            this.applyPending();
+            if (this.woken) {
+                this.woken = false;
+                return false;
+            }
+            if (this.await(deadline)) return true;
+        }
+    }
+    /**
+     * Blocks until the hold time after the last deadline has passed. Returns immediately if
+     * the scheduler has no hold time, and early after {@link #wake()}. A retime arriving during
+     * the hold is applied and the wait continues with its hold time.
+     */
+    public void awaitRelease() {
+        while (this.holdNanos > 0 && !this.await(this.deadline + this.holdNanos)) {
+            if (this.woken) return;
+            this.applyPending();
+        }
+    }
+    /**
+     * Changes the timing of a running session. The next press happens one new period after
+     * the last one, so a faster rate takes effect immediately and a slower one without waiting
+     * for the old deadline. May be called from any thread.
+     *
+     * @param timing The new hold and gap durations.
+     */
+    public void retime(ClickTiming timing) {
+        validate(timing.periodNanos(), timing.holdNanos());
+        this.pending.set(timing);
+        Thread owner = this.owner;
+        if (owner != null) LockSupport.unpark(owner);
+    }
+    /**
+     * Ends the current wait early, making {@link #awaitNext()} return false. Used to make stop
+     * requests take effect without waiting for the next deadline. May be called from any thread.
+     */
+    public void wake() {
+        this.woken = true;
+        Thread owner = this.owner;
+        if (owner != null) LockSupport.unpark(owner);
+    }
+
+    /**
+     * Delays the next deadline to a time if it is due earlier, and anchors the following ones
+     * to it. Used after the clicking thread was busy past a deadline, e.g. moving the pointer,
+     * so the missed deadlines are dropped instead of caught up in a burst. Must be called by
+     * the clicking thread.
+     *
+     * @param time The earliest time of the next deadline in {@code System.nanoTime()} units.
+     */
+    public void notBefore(long time) {
+        long next = this.humanizer == null ? this.origin + this.ticks * this.periodNanos : this.plan();
+        if (next - time >= 0) return;
+        this.origin = time;
+        this.ticks = 0;
+        this.planned = Long.MIN_VALUE;
+    }
+    /**
+     * Randomises the period of every following click. Must be called by the clicking thread.
+     *
+     * @param humanizer The source of randomised periods, {@code null} for a fixed interval.
+     */
+    public void setHumanizer(Humanizer humanizer) {
+        this.humanizer = humanizer;
+        this.planned = Long.MIN_VALUE;
+    }
+    /**
+     * The source of randomised periods, whose offsets belong to the last deadline.
+     * @return {@code Humanizer} the humanizer, or {@code null} for a fixed interval.
+     */
+    public Humanizer getHumanizer() {
+        return this.humanizer;
+    }
+
+    /**
+     * Draws the randomised deadline once per click, a retried wait keeps the same deadline.
+     */
+    private long plan() {
+        if (this.planned == Long.MIN_VALUE) {
+            this.planned = this.ticks == 0 ? this.origin
+                    : this.deadline + this.humanizer.nextPeriod(this.periodNanos, this.holdNanos);
+        }
+        return this.planned;
+    }
+    /**
+     * Applies a timing requested by {@link #retime(ClickTiming)}, if any. Taking it with one
+     * {@code getAndSet} means a retime arriving concurrently is either applied now or stays
+     * pending for the next call, never lost.
+     */
+    private void applyPending() {
+        if (this.pending.get() == null) return;
+        ClickTiming update = this.pending.getAndSet(null);
+        if (update != null) this.apply(update);
+    }
+    /**
+     * Anchors the new timing to the last deadline. If one new period after it has already
+     * passed, the next click happens right away rather than catching up in a burst.
+     */
+    private void apply(ClickTiming timing) {
+        if (this.total > 0) {
+            long now = System.nanoTime();
+            if (this.deadline + timing.periodNanos() - now > 0) {
+                this.origin = this.deadline;
+                this.ticks = 1;
+            } else {
+                this.origin = now;
+                this.ticks = 0;
+            }
+        }
+        this.periodNanos = timing.periodNanos();
+        this.holdNanos = timing.holdNanos();
+        this.planned = Long.MIN_VALUE;
+    }
+    /**
+     * Waits for a deadline unless a retime or wake request arrives first.
+     *
+     * @return {@code boolean} true if the deadline was reached.
+     */
+    private boolean await(long deadline) {
+        for (;;) {
+            if (this.pending.get() != null || this.woken) return false;
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) return true;
+            if (remaining > this.spinNanos) LockSupport.parkNanos(this, remaining - this.spinNanos);
+            else Thread.onSpinWait();
+        }
+    }
+
+    private static void validate(long periodNanos, long holdNanos) {
+        if (periodNanos < 0) throw new IllegalArgumentException("Period must not be negative: " + periodNanos);
+        if (holdNanos < 0 || holdNanos > periodNanos)
+            throw new IllegalArgumentException("Hold must be between 0 and the period: " + holdNanos);
+    }
+    /**
+     * Summarises the deadlines reached since {@link #start()}.
+     *
+     * @return {@code ClickStats} the achieved rate and jitter.
+     */
+    public ClickStats stats() {
+        long elapsed = this.last - this.start;
+        double cps = elapsed > 0 ? (this.total - 1) * 1e9 / elapsed : 0.0;
+        return new ClickStats(this.total, elapsed, cps,
+                this.jitter.percentile(50), this.jitter.percentile(99),
+                this.jitter.percentile(99.9), this.jitter.getMax());
+    }
+    /**
+     * The time between two deadlines.
+     * @return {@code long} the period in nanoseconds.
+     */
+    public long getPeriodNanos() {
+        return this.periodNanos;
+    }
+    /**
+     * Waits until {@code System.nanoTime()} reaches the deadline using a park and spin strategy.
+     *
+     * @param deadline The absolute deadline in {@code System.nanoTime()} units.
+     * @param spinNanos The remaining time under which the thread spins instead of parking.
+     */
+    public static void waitUntil(long deadline, long spinNanos) {
+        for (;;) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) return;
+            if (remaining > spinNanos) LockSupport.parkNanos(remaining - spinNanos);
+            else Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.airclicker.controllers;
+
+/**
+ * An immutable summary of a finished or running click session.
+ *
+ * @param clicks The amount of clicks issued.
+ * @param elapsedNanos The time between the first deadline and the last click.
+ * @param achievedCps The achieved clicks per second.
+ * @param p50Nanos The median lateness of a click compared to its deadline.
+ * @param p99Nanos The 99th percentile lateness.
+ * @param p999Nanos The 99.9th percentile lateness.
+ * @param maxNanos The worst lateness seen.
+ *
+ * @author shabman
+ * @version 1.0.0
+ */
+public record ClickStats(long clicks, long elapsedNanos, double achievedCps,
+                         long p50Nanos, long p99Nanos, long p999Nanos, long maxNanos) {
+    /**
+     * An empty summary used before any session has been run.
+     */
+    public static final ClickStats EMPTY = new ClickStats(0, 0, 0.0, 0, 0, 0, 0);
+
+    @Override
+    public String toString() {
+        return String.format("%d clicks in %.3f s (%.2f cps), jitter p50=%.1fus p99=%.1fus p99.9=%.1fus max=%.1fus",
+                clicks, elapsedNanos / 1e9, achievedCps,
+                p50Nanos / 1e3, p99Nanos / 1e3, p999Nanos / 1e3, maxNanos / 1e3);
+    }
+}
@@ -0,0 +1,18 @@
+package com.airclicker.controllers;
+
+/**
+ * A point on the screen that should be clicked a number of times before moving on.
+ *
+ * @param x The x coordinate on the virtual desktop.
+ * @param y The y coordinate on the virtual desktop.
+ * @param button The {@code InputEvent} button mask to click with.
+ * @param repeat The amount of clicks at this point, at least {@code 1}.
+ *
+ * @author shabman
+ * @version 1.0.0
+ */
+public record ClickTarget(int x, int y, int button, int repeat) {
+    public ClickTarget {
+        if (repeat < 1) throw new IllegalArgumentException("Repeat must be at least 1: " + repeat);
+    }
+}
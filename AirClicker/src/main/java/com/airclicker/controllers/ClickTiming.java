@@ -0,0 +1,102 @@
+package com.airclicker.controllers;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The shape of a single click: how long the button is held down and how long it stays
+ * released before the next press. Both durations are kept in nanoseconds, so rates above
+ * 1000 clicks per second can be expressed.
+ *
+ * @param holdNanos The time between a press and its release.
+ * @param gapNanos The time between a release and the next press.
+ *
+ * @author shabman
+ * @version 1.0.1
+ */
+public record ClickTiming(long holdNanos, long gapNanos) {
+    /**
+     * Parses specs such as {@code 10}, {@code 10ms}, {@code 250us} or {@code 500cps@30%}.
+     */
+    private static final Pattern SPEC = Pattern.compile(
+            "(\\d+(?:\\.\\d+)?)\\s*(ms|us|cps)?\\s*(?:@\\s*(\\d+(?:\\.\\d+)?)\\s*%)?");
+
+    public ClickTiming {
+        if (holdNanos < 0 || gapNanos < 0)
+            throw new IllegalArgumentException("Hold and gap must not be negative");
+    }
+    /**
+     * A click every {@code millis} milliseconds with the button held down for the whole period
+     * and pressed again right after the release, which is how the speed field has always been
+     * interpreted.
+     *
+     * @param millis The time between two presses in milliseconds.
+     * @return {@code ClickTiming} the timing.
+     */
+    public static ClickTiming ofMillis(long millis) {
+        return new ClickTiming(TimeUnit.MILLISECONDS.toNanos(millis), 0);
+    }
+    /**
+     * A click with independent hold and gap durations.
+     *
+     * @param holdMicros The time between a press and its release in microseconds.
+     * @param gapMicros The time between a release and the next press in microseconds.
+     * @return {@code ClickTiming} the timing.
+     */
+    public static ClickTiming ofMicros(long holdMicros, long gapMicros) {
+        return new ClickTiming(TimeUnit.MICROSECONDS.toNanos(holdMicros), TimeUnit.MICROSECONDS.toNanos(gapMicros));
+    }
+    /**
+     * A target rate where the button is held down for a fraction of every period.
+     *
+     * @param cps The clicks per second.
+     * @param duty The fraction of the period the button is held, between {@code 0.0} and {@code 1.0}.
+     * @return {@code ClickTiming} the timing.
+     */
+    public static ClickTiming ofCps(double cps, double duty) {
+        if (!(cps > 0)) throw new IllegalArgumentException("Rate must be positive: " + cps);
+        if (duty < 0 || duty > 1) throw new IllegalArgumentException("Duty cycle must be between 0 and 1: " + duty);
+        long period = Math.round(1e9 / cps);
+        long hold = Math.round(period * duty);
+        return new ClickTiming(hold, period - hold);
+    }
+    /**
+     * Parses a timing spec. A plain number is a period in milliseconds, {@code us} and
+     * {@code ms} suffixes give the period in that unit, {@code cps} gives a rate. Any of them
+     * may be followed by {@code @n%} to hold the button for that part of the period.
+     *
+     * @param spec The spec, e.g. {@code 0.25ms}, {@code 250us} or {@code 2000cps@40%}.
+     * @return {@code ClickTiming} the timing.
+     * @throws IllegalArgumentException if the spec is malformed.
+     */
+    public static ClickTiming parse(String spec) {
+        Matcher m = SPEC.matcher(spec.trim().toLowerCase(Locale.ROOT));
+        if (!m.matches()) throw new IllegalArgumentException("Invalid timing: " + spec);
+        double value = Double.parseDouble(m.group(1));
+        double duty = m.group(3) == null ? 0.0 : Double.parseDouble(m.group(3)) / 100.0;
+        String unit = m.group(2) == null ? "ms" : m.group(2);
+        double cps = switch (unit) {
+            case "cps" -> value;
+            case "us" -> 1e6 / value;
+            default -> 1e3 / value;
+        };
+        return ofCps(cps, duty);
+    }
+    /**
+     * The time between two presses.
+     * @return {@code long} the period in nanoseconds.
+     */
+    public long periodNanos() {
+        return this.holdNanos + this.gapNanos;
+    }
+    /**
+     * The rate this timing produces.
+     * @return {@code double} the clicks per second.
+     */
+    public double cps() {
+        long period = this.periodNanos();
+        return period == 0 ? Double.POSITIVE_INFINITY : 1e9 / period;
+    }
+}
@@ -1,97 +1,579 @@
 package com.airclicker.controllers;
 
+import com.airclicker.events.FlightRecording;
+import com.airclicker.events.JobStartEvent;
+import com.airclicker.events.JobStopEvent;
+import com.airclicker.events.TracedInputBackend;
+import com.airclicker.macros.MacroPlayer;
+import com.airclicker.managers.BackendManager;
+import com.airclicker.templates.ClickerPlugin;
+import com.airclicker.templates.FrameSource;
+import com.airclicker.templates.InputBackend;
+import com.airclicker.vision.Match;
+import com.airclicker.vision.TemplateMatcher;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.awt.AWTException;
-import java.awt.MouseInfo;
 import java.awt.Point;
-import java.awt.PointerInfo;
-import java.awt.Robot;
-import java.awt.event.InputEvent;
+import java.awt.Rectangle;
+import java.io.IOException;
 
 /**
  * The {@code Clicker} class is responsible for controlling the Device Mouse.
  *
+ * Clicks are paced by a {@link ClickScheduler} so the configured {@link ClickTiming} is kept
+ * regardless of how long the backend calls take. Every event goes
+ * through an {@link InputBackend}, which is created once per {@code Clicker}.
+ *
+ * The timing and targets of a running session can be changed from other threads through
+ * {@link #setTiming(ClickTiming)} and {@link #setTargets(TargetSequence)}.
+ *
+ * A {@link ClickerPlugin} set through {@link #setPlugin(ClickerPlugin)} is called around
+ * every mouse click; without one the loops only pay a {@code null} check.
+ *
+ * With a {@link HumanTiming} set through {@link #setHumanTiming(HumanTiming)} every session
+ * draws its periods, and over targets its click positions, from a {@link Humanizer} that is
+ * kept until the settings change.
+ *
+ * With a {@link MouseMotion} set through {@link #setMotion(MouseMotion)} the pointer glides
+ * between targets along a {@link MousePath} instead of jumping. The path is planned before
+ * the move starts, so following it only sends positions.
+ *
+ * Every session records a {@link JobStartEvent} and a {@link JobStopEvent}, and the loops
+ * call the backend through a {@link TracedInputBackend}, for Flight Recorder.
+ *
  * @author shabman
- * @version 1.0.0
+ * @version 1.8.1
  */
 public class Clicker {
     /**
-     * Determines if the robot should run
+     * Determines if the robot should run. Written by the controlling thread and read by the
+     * clicking thread on every iteration, hence {@code volatile}.
      */
-    public boolean shouldRun = true;
+    private volatile boolean shouldRun = true;
     /**
      * The logger tracker to log information to the console.
      *
      * @apiNote There is no java doc available for {@code Logger} and {@code LoggerFactory}
      */
     private static final Logger logger = LoggerFactory.getLogger(Clicker.class);
+    /**
+     * The backend every mouse event is sent to.
+     */
+    private final InputBackend backend;
+    /**
+     * The backend as seen by the click loops, recording slow calls to Flight Recorder.
+     */
+    private final InputBackend traced;
+    /**
+     * The live counters of this clicker.
+     */
+    private final ClickerMetrics metrics = new ClickerMetrics();
+    /**
+     * The statistics of the last finished click session.
+     */
+    private volatile ClickStats lastStats = ClickStats.EMPTY;
+    /**
+     * The scheduler of the running session, {@code null} while idle.
+     */
+    private volatile ClickScheduler active;
+    /**
+     * Targets handed over by another thread, picked up before the next target is clicked.
+     */
+    private volatile TargetSequence pendingTargets;
+    /**
+     * The plugin called around every click, {@code null} for none. Read once per session.
+     */
+    private volatile ClickerPlugin plugin;
+    /**
+     * The randomisation of every session, {@code null} for a fixed interval. Read once per session.
+     */
+    private volatile HumanTiming humanTiming;
+    /**
+     * The humanizer of {@link #humanTiming}, kept across sessions. Only used by the clicking thread.
+     */
+    private Humanizer humanizer;
+    /**
+     * How the pointer moves between targets, {@code null} to jump. Read once per session.
+     */
+    private volatile MouseMotion motion;
+    /**
+     * The buffers of the planned pointer path, reused by every move. Only used by the clicking thread.
+     */
+    private final MousePath path = new MousePath();
     /**
      * Prevents the class from being instantiated
+     *
+     * @param backend The backend every mouse event is sent to.
+     */
+    private Clicker(InputBackend backend) {
+        this.backend = backend;
+        this.traced = new TracedInputBackend(backend);
+    }
+    /**
+     * Creates a clicker using the backend selected by {@link BackendManager#load()}.
+     *
+     * @return {@code Clicker} the clicker.
      */
-    private Clicker() { }
-
     public static Clicker build() {
-        return new Clicker();
+        return new Clicker(BackendManager.load());
+    }
+    /**
+     * Creates a clicker using the given backend.
+     *
+     * @param backend The backend every mouse event is sent to.
+     * @return {@code Clicker} the clicker.
+     */
+    public static Clicker build(InputBackend backend) {
+        return new Clicker(backend);
     }
 
     /**
-     * Begins the auto clicker using the {@code Robot} class.
+     * Begins the auto clicker.
      *
-     * @param speed The speed of the clicker in milliseconds.
+     * @param speed The time between two clicks in milliseconds.
      */
     public void begin(int speed, String side) {
-        int btn = 0;
-        if (side.equalsIgnoreCase("default") || side.equalsIgnoreCase("left"))
-            btn = 1024;
-        else if (side.equalsIgnoreCase("right"))
-            btn = 2048;
+        this.begin(ClickTiming.ofMillis(speed), MouseButton.parse(side));
+    }
+    /**
+     * Begins the auto clicker. The loop only touches primitives and objects created before
+     * the first click, so it does not allocate once running.
+     *
+     * @param timing The hold and gap durations of every click.
+     * @param button The mouse button to click.
+     */
+    public void begin(ClickTiming timing, MouseButton button) {
+        final InputBackend backend = this.traced;
+        final ClickerMetrics metrics = this.metrics;
+        final ClickerPlugin plugin = this.plugin;
+        final int btn = button.mask();
+        long index = 0;
+        ClickScheduler scheduler = this.newScheduler(timing);
         try {
-            Robot robot = new Robot();
             while (shouldRun) {
-                robot.mousePress(btn);
-                robot.delay(speed);
-                robot.mouseRelease(btn);
-                if (!shouldRun) break;
+                if (!scheduler.awaitNext() || !shouldRun) continue;
+                if (plugin != null) plugin.beforeClick(index, btn);
+                backend.mousePress(btn);
+                scheduler.awaitRelease();
+                backend.mouseRelease(btn);
+                metrics.click();
+                if (plugin != null) plugin.afterClick(index, btn);
+                index++;
             }
-        } catch (AWTException e) {
-            logger.error(e.getMessage());
+        } finally {
+            this.finish(scheduler);
         }
     }
     /**
-     * Begins the auto clicker using the {@code Robot} class.
+     * Begins the auto clicker.
      *
-     * @param speed The speed of the clicker in milliseconds.
+     * @param speed The time between two clicks in milliseconds.
      * @param times Amount of times the clicker should be triggered.
      */
     public void begin(int speed, int times, String side) {
-        int btn = 0;
-        if (side.equalsIgnoreCase("default") || side.equalsIgnoreCase("left"))
-            btn = 1024;
-        else if (side.equalsIgnoreCase("right"))
-            btn = 2048;
-        int index = 0;
+        this.begin(ClickTiming.ofMillis(speed), times, MouseButton.parse(side));
+    }
+    /**
+     * Begins the auto clicker. The loop only touches primitives and objects created before
+     * the first click, so it does not allocate once running.
+     *
+     * @param timing The hold and gap durations of every click.
+     * @param times Amount of times the clicker should be triggered.
+     * @param button The mouse button to click.
+     */
+    public void begin(ClickTiming timing, long times, MouseButton button) {
+        final InputBackend backend = this.traced;
+        final ClickerMetrics metrics = this.metrics;
+        final ClickerPlugin plugin = this.plugin;
+        final int btn = button.mask();
+        long index = 0;
+        ClickScheduler scheduler = this.newScheduler(timing);
         try {
-            Robot robot = new Robot();
-            PointerInfo info = MouseInfo.getPointerInfo();
-            Point point = info.getLocation();
-
-            int x = (int) point.getX();
-            int y = (int) point.getY();
-
-            robot.mouseMove(x - 100, y);
-
             while (index < times && shouldRun) {
-                robot.mousePress(btn);
-                robot.delay(speed);
-                robot.mouseRelease(btn);
+                if (!scheduler.awaitNext() || !shouldRun) continue;
+                if (plugin != null) plugin.beforeClick(index, btn);
+                backend.mousePress(btn);
+                scheduler.awaitRelease();
+                backend.mouseRelease(btn);
+                metrics.click();
+                if (plugin != null) plugin.afterClick(index, btn);
+                index++;
+            }
+        } finally {
+            this.finish(scheduler);
+        }
+    }
+    /**
+     * Begins the auto clicker over a sequence of targets. The pointer is moved once per target,
+     * gliding if a {@link MouseMotion} is set, and every target is clicked its repeat count before moving on. The sequence restarts
+     * from the first target until the limit is reached or the clicker is stopped.
+     *
+     * @param timing The hold and gap durations of every click.
+     * @param times Amount of times the clicker should be triggered, {@code 0} for no limit.
+     * @param targets The compiled targets.
+     */
+    public void begin(ClickTiming timing, long times, TargetSequence targets) {
+        final InputBackend backend = this.traced;
+        final ClickerMetrics metrics = this.metrics;
+        final ClickerPlugin plugin = this.plugin;
+        final MouseMotion motion = this.motion;
+        int[] xs = targets.xs, ys = targets.ys, buttons = targets.buttons, repeats = targets.repeats;
+        int n = xs.length;
+        int t = 0;
+        long index = 0;
+        this.pendingTargets = null;
+        ClickScheduler scheduler = this.newScheduler(timing);
+        try {
+            final Humanizer jitter = scheduler.getHumanizer() != null && scheduler.getHumanizer().hasJitter()
+                    ? scheduler.getHumanizer() : null;
+            int x = 0, y = 0;
+            if (motion != null) {
+                Point pointer = backend.getPointerLocation();
+                x = pointer.x;
+                y = pointer.y;
+            }
+            run:
+            while (shouldRun) {
+                TargetSequence update = this.pendingTargets;
+                if (update != null) {
+                    this.pendingTargets = null;
+                    xs = update.xs;
+                    ys = update.ys;
+                    buttons = update.buttons;
+                    repeats = update.repeats;
+                    n = xs.length;
+                    t = 0;
+                }
+                if (motion != null) {
+                    if (!this.glide(motion, x, y, xs[t], ys[t])) break;
+                    x = xs[t];
+                    y = ys[t];
+                    scheduler.notBefore(System.nanoTime());
+                } else if (jitter == null) backend.mouseMove(xs[t], ys[t]);
+                int btn = buttons[t];
+                for (int r = repeats[t]; r > 0; r--) {
+                    if (!scheduler.awaitNext()) continue run;
+                    if (!shouldRun) break run;
+                    if (jitter != null) backend.mouseMove(xs[t] + jitter.dx(), ys[t] + jitter.dy());
+                    if (plugin != null) plugin.beforeClick(index, btn);
+                    backend.mousePress(btn);
+                    scheduler.awaitRelease();
+                    backend.mouseRelease(btn);
+                    metrics.click();
+                    if (plugin != null) plugin.afterClick(index, btn);
+                    if (++index == times) break run;
+                }
+                if (++t == n) t = 0;
+            }
+        } finally {
+            this.finish(scheduler);
+        }
+    }
+    /**
+     * Clicks whenever a watched screen region starts showing a colour. The region is polled
+     * once per scheduler deadline and only the change from not matching to matching clicks,
+     * so a region that keeps the colour is clicked once. The time from the start of the
+     * capture until the press is recorded in {@link PixelTrigger#getLatency()}.
+     *
+     * @param timing The poll period and the hold duration of every click.
+     * @param times Amount of triggered clicks, {@code 0} for no limit.
+     * @param trigger The watched region.
+     * @param button The mouse button to click.
+     */
+    public void begin(ClickTiming timing, long times, PixelTrigger trigger, MouseButton button) {
+        final InputBackend backend = this.traced;
+        final ClickerMetrics metrics = this.metrics;
+        final JitterHistogram latency = trigger.getLatency();
+        final ClickerPlugin plugin = this.plugin;
+        final int btn = button.mask();
+        boolean armed = true;
+        long index = 0;
+        latency.reset();
+        ClickScheduler scheduler = this.newScheduler(timing);
+        try {
+            while ((times == 0 || index < times) && shouldRun) {
+                if (!scheduler.awaitNext() || !shouldRun) continue;
+                long start = System.nanoTime();
+                if (!trigger.poll()) {
+                    armed = true;
+                    continue;
+                }
+                if (!armed) continue;
+                armed = false;
+                if (plugin != null) plugin.beforeClick(index, btn);
+                backend.mousePress(btn);
+                latency.record(System.nanoTime() - start);
+                scheduler.awaitRelease();
+                backend.mouseRelease(btn);
+                metrics.click();
+                if (plugin != null) plugin.afterClick(index, btn);
+                index++;
+            }
+        } finally {
+            this.finish(scheduler);
+        }
+    }
+    /**
+     * Searches the screen for an image once per scheduler deadline and clicks the centre of
+     * every match. Deadlines without a match are skipped.
+     *
+     * @param timing The search period and the hold duration of every click.
+     * @param times Amount of clicks, {@code 0} for no limit.
+     * @param matcher The image to look for.
+     * @param source The screen to capture.
+     * @param area The part of the virtual desktop to search.
+     * @param button The mouse button to click.
+     */
+    public void begin(ClickTiming timing, long times, TemplateMatcher matcher, FrameSource source, Rectangle area, MouseButton button) {
+        final InputBackend backend = this.traced;
+        final ClickerMetrics metrics = this.metrics;
+        final int btn = button.mask();
+        final int[] rgb = new int[area.width * area.height];
+        final ClickerPlugin plugin = this.plugin;
+        long index = 0;
+        ClickScheduler scheduler = this.newScheduler(timing);
+        try {
+            while ((times == 0 || index < times) && shouldRun) {
+                if (!scheduler.awaitNext() || !shouldRun) continue;
+                source.capture(area.x, area.y, area.width, area.height, rgb);
+                Match match = matcher.find(rgb, area.width, area.height);
+                if (match == null) continue;
+                backend.mouseMove(area.x + match.centerX(), area.y + match.centerY());
+                if (plugin != null) plugin.beforeClick(index, btn);
+                backend.mousePress(btn);
+                scheduler.awaitRelease();
+                backend.mouseRelease(btn);
+                metrics.click();
+                if (plugin != null) plugin.afterClick(index, btn);
                 index++;
-                System.out.println(index);
-                if (index == times || !shouldRun) break;
             }
-        } catch (AWTException e) {
+        } finally {
+            this.finish(scheduler);
+        }
+    }
+    /**
+     * Types a key sequence, one keystroke per scheduler deadline, restarting from the first
+     * keystroke until the limit is reached or the typer is stopped. Modifiers are only pressed
+     * or released when they differ from the previous keystroke and are always released when
+     * the loop ends. The loop does not allocate once running.
+     *
+     * @param timing The hold and gap durations of every keystroke.
+     * @param times Amount of keystrokes, {@code 0} for no limit.
+     * @param sequence The compiled keystrokes.
+     */
+    public void begin(ClickTiming timing, long times, KeySequence sequence) {
+        final InputBackend backend = this.traced;
+        final ClickerMetrics metrics = this.metrics;
+        final int[] keys = sequence.keys, modifiers = sequence.modifiers;
+        final int n = keys.length;
+        int down = 0;
+        int k = 0;
+        long index = 0;
+        ClickScheduler scheduler = this.newScheduler(timing);
+        try {
+            while ((times == 0 || index < times) && shouldRun) {
+                if (!scheduler.awaitNext() || !shouldRun) continue;
+                if (modifiers[k] != down) down = KeySequence.holdModifiers(backend, down, modifiers[k]);
+                backend.keyPress(keys[k]);
+                scheduler.awaitRelease();
+                backend.keyRelease(keys[k]);
+                metrics.click();
+                index++;
+                if (++k == n) k = 0;
+            }
+        } finally {
+            KeySequence.holdModifiers(backend, down, 0);
+            this.finish(scheduler);
+        }
+    }
+    /**
+     * Replays a recorded macro through the backend.
+     *
+     * @param macro The macro to replay.
+     * @param speed The speed multiplier, {@code 2.0} replays twice as fast.
+     */
+    public void play(MacroPlayer macro, double speed) {
+        ClickScheduler scheduler = new ClickScheduler(0L);
+        scheduler.start();
+        this.active = scheduler;
+        if (!this.shouldRun) scheduler.wake();
+        this.metrics.sessionStarted();
+        try {
+            this.lastStats = macro.play(this.traced, speed, scheduler, this::isRunning);
+            logger.info(this.lastStats.toString());
+        } catch (IOException e) {
             logger.error(e.getMessage());
+        } finally {
+            this.active = null;
+            this.metrics.sessionFinished();
+        }
+    }
+    /**
+     * Requests the running click loop to stop. A pending wait for the next click is ended
+     * right away, a button that is held down is released first.
+     */
+    public void stop() {
+        this.shouldRun = false;
+        ClickScheduler scheduler = this.active;
+        if (scheduler != null) scheduler.wake();
+    }
+    /**
+     * Changes the timing of the running session, the next click follows one new period after
+     * the last one. Does nothing while idle.
+     *
+     * @param timing The new hold and gap durations.
+     * @return {@code boolean} true if a running session was retimed.
+     */
+    public boolean setTiming(ClickTiming timing) {
+        ClickScheduler scheduler = this.active;
+        if (scheduler == null) return false;
+        scheduler.retime(timing);
+        return true;
+    }
+    /**
+     * Replaces the targets of a running target session, starting from the first new target
+     * once the current one has been clicked its repeat count.
+     *
+     * @param targets The compiled targets.
+     */
+    public void setTargets(TargetSequence targets) {
+        this.pendingTargets = targets;
+    }
+    /**
+     * Sets the plugin called around every click, taking effect with the next session.
+     *
+     * @param plugin The plugin, {@code null} for none.
+     */
+    public void setPlugin(ClickerPlugin plugin) {
+        this.plugin = plugin;
+    }
+    /**
+     * Sets the randomisation of the periods and target positions, taking effect with the next
+     * session.
+     *
+     * @param humanTiming The randomisation, {@code null} for a fixed interval.
+     */
+    public void setHumanTiming(HumanTiming humanTiming) {
+        this.humanTiming = humanTiming;
+    }
+    /**
+     * Sets how the pointer moves between targets, taking effect with the next session.
+     *
+     * @param motion The motion, {@code null} to jump straight to every target.
+     */
+    public void setMotion(MouseMotion motion) {
+        this.motion = motion;
+    }
+    /**
+     * Allows the next click loop to run. Called before a job is handed to the clicking thread,
+     * so a {@link #stop()} issued in between is never lost.
+     */
+    void arm() {
+        this.shouldRun = true;
+    }
+    /**
+     * Determines if the clicker is allowed to run.
+     * @return {@code boolean} false once {@link #stop()} has been called.
+     */
+    public boolean isRunning() {
+        return this.shouldRun;
+    }
+    /**
+     * Creates and starts the scheduler of a new session, recording into the live metrics.
+     *
+     * @param timing The hold and gap durations of every click.
+     * @return {@code ClickScheduler} the started scheduler.
+     */
+    private ClickScheduler newScheduler(ClickTiming timing) {
+        ClickerPlugin plugin = this.plugin;
+        if (plugin != null) plugin.onStart(timing.periodNanos());
+        ClickScheduler scheduler = new ClickScheduler(timing, this.metrics.latency());
+        HumanTiming humanTiming = this.humanTiming;
+        if (this.humanizer != null && this.humanizer.getSettings() != humanTiming) {
+            this.humanizer.close();
+            this.humanizer = null;
         }
+        if (humanTiming != null && this.humanizer == null) this.humanizer = Humanizer.start(humanTiming, System.nanoTime());
+        scheduler.setHumanizer(this.humanizer);
+        if (FlightRecording.isInitialized()) {
+            JobStartEvent event = new JobStartEvent();
+            if (event.isEnabled()) {
+                event.period = timing.periodNanos();
+                event.hold = timing.holdNanos();
+                event.humanized = this.humanizer != null;
+                event.commit();
+            }
+        }
+        scheduler.start();
+        this.active = scheduler;
+        if (!this.shouldRun) scheduler.wake();
+        this.metrics.sessionStarted();
+        return scheduler;
+    }
+    /**
+     * Moves the pointer along a planned path, sending every position at its due time.
+     *
+     * @return {@code boolean} true once the end point is reached, false if the clicker was stopped.
+     */
+    private boolean glide(MouseMotion motion, int fromX, int fromY, int toX, int toY) {
+        final InputBackend backend = this.traced;
+        final MousePath path = this.path.plan(motion, fromX, fromY, toX, toY);
+        final int[] xs = path.xs, ys = path.ys;
+        final int n = path.length;
+        final long start = System.nanoTime(), sample = path.sampleNanos;
+        for (int i = 1; i < n; i++) {
+            ClickScheduler.waitUntil(start + i * sample, ClickScheduler.DEFAULT_SPIN_NANOS);
+            if (!this.shouldRun) return false;
+            backend.mouseMove(xs[i], ys[i]);
+        }
+        return true;
+    }
+    /**
+     * Stores and logs the statistics of a finished session.
+     *
+     * @param scheduler The scheduler that paced the session.
+     */
+    private void finish(ClickScheduler scheduler) {
+        this.active = null;
+        this.metrics.sessionFinished();
+        this.lastStats = scheduler.stats();
+        logger.info(this.lastStats.toString());
+        if (FlightRecording.isInitialized()) {
+            JobStopEvent event = new JobStopEvent();
+            if (event.isEnabled()) {
+                event.clicks = this.lastStats.clicks();
+                event.elapsed = this.lastStats.elapsedNanos();
+                event.cps = this.lastStats.achievedCps();
+                event.p50 = this.lastStats.p50Nanos();
+                event.p99 = this.lastStats.p99Nanos();
+                event.max = this.lastStats.maxNanos();
+                event.commit();
+            }
+        }
+        ClickerPlugin plugin = this.plugin;
+        if (plugin != null) plugin.onStop(this.lastStats.clicks());
+    }
+    /**
+     * The achieved rate and jitter of the last finished click session.
+     * @return {@code ClickStats} the statistics, or {@link ClickStats#EMPTY} if nothing ran yet.
+     */
+    public ClickStats getLastStats() {
+        return this.lastStats;
+    }
+    /**
+     * The live counters of this clicker.
+     * @return {@code ClickerMetrics} the metrics.
+     */
+    public ClickerMetrics getMetrics() {
+        return this.metrics;
+    }
+    /**
+     * The backend every mouse event is sent to.
+     * @return {@code InputBackend} the backend.
+     */
+    public InputBackend getBackend() {
+        return this.backend;
     }
 }
@@ -0,0 +1,243 @@
+package com.airclicker.controllers;
+
+import com.airclicker.macros.MacroPlayer;
+import com.airclicker.templates.FrameSource;
+import com.airclicker.vision.TemplateMatcher;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.Rectangle;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The {@code ClickerEngine} class runs {@link Clicker} jobs on a dedicated thread so the
+ * Swing Event Dispatch Thread is never blocked by a click loop. Only one job runs at a time,
+ * {@link #stop()} can be called from any thread and is observed by the click loop on its
+ * next iteration.
+ *
+ * @author shabman
+ * @version 1.0.0
+ */
+public final class ClickerEngine {
+    /**
+     * The logger tracker to log information to the console.
+     *
+     * @apiNote There is no java doc available for {@code Logger} and {@code LoggerFactory}
+     */
+    private static final Logger logger = LoggerFactory.getLogger(ClickerEngine.class);
+    /**
+     * The clicker driven by this engine.
+     */
+    private final Clicker clicker;
+    /**
+     * The single thread every job is executed on.
+     */
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "air-clicker-engine");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MAX_PRIORITY);
+        return thread;
+    });
+    /**
+     * The current or last submitted job.
+     */
+    private volatile CompletableFuture<ClickStats> job = CompletableFuture.completedFuture(ClickStats.EMPTY);
+
+    /**
+     * Prevents the class from being instantiated outside {@link #build(Clicker)}.
+     *
+     * @param clicker The clicker driven by this engine.
+     */
+    private ClickerEngine(Clicker clicker) {
+        this.clicker = clicker;
+    }
+
+    public static ClickerEngine build(Clicker clicker) {
+        return new ClickerEngine(clicker);
+    }
+    /**
+     * Starts a click job on the engine thread. If a job is still running it is left untouched
+     * and returned instead.
+     *
+     * @param speed The time between two clicks in milliseconds.
+     * @param times Amount of times the clicker should be triggered, {@code 0} for no limit.
+     * @param side The mouse button to click.
+     * @return {@code CompletableFuture<ClickStats>} completes with the session statistics.
+     */
+    public CompletableFuture<ClickStats> start(int speed, int times, String side) {
+        return this.start(ClickTiming.ofMillis(speed), times, MouseButton.parse(side));
+    }
+    /**
+     * Starts a click job on the engine thread. If a job is still running it is left untouched
+     * and returned instead.
+     *
+     * @param timing The hold and gap durations of every click.
+     * @param times Amount of times the clicker should be triggered, {@code 0} for no limit.
+     * @param button The mouse button to click.
+     * @return {@code CompletableFuture<ClickStats>} completes with the session statistics.
+     */
+    public CompletableFuture<ClickStats> start(ClickTiming timing, long times, MouseButton button) {
+        return this.submit(() -> {
+            if (times > 0) this.clicker.begin(timing, times, button);
+            else this.clicker.begin(timing, button);
+        });
+    }
+    /**
+     * Starts clicking a sequence of targets on the engine thread. If a job is still running it
+     * is left untouched and returned instead.
+     *
+     * @param timing The hold and gap durations of every click.
+     * @param times Amount of times the clicker should be triggered, {@code 0} for no limit.
+     * @param targets The compiled targets.
+     * @return {@code CompletableFuture<ClickStats>} completes with the session statistics.
+     */
+    public CompletableFuture<ClickStats> start(ClickTiming timing, long times, TargetSequence targets) {
+        return this.submit(() -> this.clicker.begin(timing, times, targets));
+    }
+    /**
+     * Starts watching a screen region on the engine thread, clicking when it shows the
+     * trigger colour. If a job is still running it is left untouched and returned instead.
+     *
+     * @param timing The poll period and the hold duration of every click.
+     * @param times Amount of triggered clicks, {@code 0} for no limit.
+     * @param trigger The watched region.
+     * @param button The mouse button to click.
+     * @return {@code CompletableFuture<ClickStats>} completes with the session statistics.
+     */
+    public CompletableFuture<ClickStats> start(ClickTiming timing, long times, PixelTrigger trigger, MouseButton button) {
+        return this.submit(() -> this.clicker.begin(timing, times, trigger, button));
+    }
+    /**
+     * Starts searching the screen for an image on the engine thread, clicking the centre of
+     * every match. If a job is still running it is left untouched and returned instead.
+     *
+     * @param timing The search period and the hold duration of every click.
+     * @param times Amount of clicks, {@code 0} for no limit.
+     * @param matcher The image to look for.
+     * @param source The screen to capture.
+     * @param area The part of the virtual desktop to search.
+     * @param button The mouse button to click.
+     * @return {@code CompletableFuture<ClickStats>} completes with the session statistics.
+     */
+    public CompletableFuture<ClickStats> start(ClickTiming timing, long times, TemplateMatcher matcher,
+                                               FrameSource source, Rectangle area, MouseButton button) {
+        return this.submit(() -> this.clicker.begin(timing, times, matcher, source, area, button));
+    }
+    /**
+     * Starts typing a key sequence on the engine thread. If a job is still running it is left
+     * untouched and returned instead.
+     *
+     * @param timing The hold and gap durations of every keystroke.
+     * @param times Amount of keystrokes, {@code 0} for no limit.
+     * @param keys The compiled keystrokes.
+     * @return {@code CompletableFuture<ClickStats>} completes with the session statistics.
+     */
+    public CompletableFuture<ClickStats> start(ClickTiming timing, long times, KeySequence keys) {
+        return this.submit(() -> this.clicker.begin(timing, times, keys));
+    }
+    /**
+     * Starts replaying a macro on the engine thread. If a job is still running it is left
+     * untouched and returned instead.
+     *
+     * @param macro The macro to replay.
+     * @param speed The speed multiplier, {@code 2.0} replays twice as fast.
+     * @return {@code CompletableFuture<ClickStats>} completes with the replay statistics.
+     */
+    public CompletableFuture<ClickStats> play(MacroPlayer macro, double speed) {
+        return this.submit(() -> this.clicker.play(macro, speed));
+    }
+    /**
+     * Hands a job over to the engine thread unless one is still running.
+     *
+     * @param task The job, runs on the engine thread.
+     * @return {@code CompletableFuture<ClickStats>} completes with the statistics of the job.
+     */
+    private synchronized CompletableFuture<ClickStats> submit(Runnable task) {
+        if (!this.job.isDone()) {
+            logger.warn("A click job is already running");
+            return this.job;
+        }
+        this.clicker.arm();
+        this.job = CompletableFuture.supplyAsync(() -> {
+            task.run();
+            return this.clicker.getLastStats();
+        }, this.executor);
+        return this.job;
+    }
+    /**
+     * Requests the running job to stop. The job completes once the click loop observes the request.
+     */
+    public void stop() {
+        this.clicker.stop();
+    }
+    /**
+     * Changes the timing of the running job without restarting it.
+     *
+     * @param timing The new hold and gap durations.
+     * @return {@code boolean} true if a running job was retimed.
+     */
+    public boolean setTiming(ClickTiming timing) {
+        return this.clicker.setTiming(timing);
+    }
+    /**
+     * Replaces the targets of the running target job without restarting it.
+     *
+     * @param targets The compiled targets.
+     */
+    public void setTargets(TargetSequence targets) {
+        this.clicker.setTargets(targets);
+    }
+    /**
+     * Blocks until the current job finishes.
+     *
+     * @param timeout The maximum time to wait.
+     * @param unit The unit of {@code timeout}.
+     * @return {@code boolean} true if the job finished within the timeout.
+     * @throws InterruptedException if the calling thread is interrupted while waiting.
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        try {
+            this.job.get(timeout, unit);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            logger.error(e.getMessage());
+            return true;
+        }
+    }
+    /**
+     * Stops the running job and releases the engine thread. The engine cannot be started again.
+     */
+    public void shutdown() {
+        this.stop();
+        this.executor.shutdown();
+    }
+    /**
+     * Determines if a job is currently running.
+     * @return {@code boolean} true while a job has not completed.
+     */
+    public boolean isRunning() {
+        return !this.job.isDone();
+    }
+    /**
+     * The current or last submitted job.
+     * @return {@code CompletableFuture<ClickStats>} the job future.
+     */
+    public CompletableFuture<ClickStats> getJob() {
+        return this.job;
+    }
+    /**
+     * The clicker driven by this engine.
+     * @return {@code Clicker} the clicker.
+     */
+    public Clicker getClicker() {
+        return this.clicker;
+    }
+}
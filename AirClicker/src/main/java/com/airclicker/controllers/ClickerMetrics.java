@@ -0,0 +1,146 @@
+package com.airclicker.controllers;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live counters for a {@link Clicker}. The clicking thread only increments counters and
+ * records into a single writer histogram, every other thread reads them without locking.
+ * Publish the metrics over JMX with {@link #register()}.
+ *
+ * @author shabman
+ * @version 1.0.0
+ */
+public final class ClickerMetrics implements ClickerMetricsMBean {
+    /**
+     * The name the metrics are registered under.
+     */
+    public static final String OBJECT_NAME = "com.airclicker:type=ClickerMetrics";
+    /**
+     * The logger tracker to log information to the console.
+     *
+     * @apiNote There is no java doc available for {@code Logger} and {@code LoggerFactory}
+     */
+    private static final Logger logger = LoggerFactory.getLogger(ClickerMetrics.class);
+    /**
+     * The clicks issued since the application started.
+     */
+    private final LongAdder clicks = new LongAdder();
+    /**
+     * The value of {@link #clicks} when the current session started.
+     */
+    private volatile long sessionBase;
+    /**
+     * The start of the current session in {@code System.nanoTime()} units.
+     */
+    private volatile long sessionStart;
+    /**
+     * The end of the last session, {@code 0} while a session is running.
+     */
+    private volatile long sessionEnd;
+    /**
+     * Determines if a session is running.
+     */
+    private volatile boolean running;
+    /**
+     * The difference between the scheduled and actual time of every click in the session.
+     */
+    private final JitterHistogram latency = new JitterHistogram();
+
+    /**
+     * Marks the start of a session. Called by the clicking thread.
+     */
+    void sessionStarted() {
+        this.sessionBase = this.clicks.sum();
+        this.sessionEnd = 0;
+        this.sessionStart = System.nanoTime();
+        this.running = true;
+    }
+    /**
+     * Marks the end of a session. Called by the clicking thread.
+     */
+    void sessionFinished() {
+        this.sessionEnd = System.nanoTime();
+        this.running = false;
+    }
+    /**
+     * Counts a single click. Called by the clicking thread.
+     */
+    void click() {
+        this.clicks.increment();
+    }
+    /**
+     * The histogram the scheduler records click latency into.
+     * @return {@code JitterHistogram} the latency histogram.
+     */
+    JitterHistogram latency() {
+        return this.latency;
+    }
+    /**
+     * Publishes the metrics on the platform MBean server. Registering twice only logs a warning.
+     */
+    public void register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                logger.warn(OBJECT_NAME + " is already registered");
+                return;
+            }
+            server.registerMBean(this, name);
+        } catch (JMException e) {
+            logger.error(e.getMessage());
+        }
+    }
+
+    @Override
+    public long getClicksIssued() {
+        return this.clicks.sum();
+    }
+
+    @Override
+    public long getSessionClicks() {
+        return this.clicks.sum() - this.sessionBase;
+    }
+
+    @Override
+    public double getAchievedCps() {
+        long start = this.sessionStart;
+        if (start == 0) return 0.0;
+        long end = this.running ? System.nanoTime() : this.sessionEnd;
+        long elapsed = end - start;
+        return elapsed > 0 ? this.getSessionClicks() * 1e9 / elapsed : 0.0;
+    }
+
+    @Override
+    public double getLatencyP50Micros() {
+        return this.latency.percentile(50) / 1e3;
+    }
+
+    @Override
+    public double getLatencyP99Micros() {
+        return this.latency.percentile(99) / 1e3;
+    }
+
+    @Override
+    public double getLatencyP999Micros() {
+        return this.latency.percentile(99.9) / 1e3;
+    }
+
+    @Override
+    public double getLatencyMaxMicros() {
+        return this.latency.getMax() / 1e3;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return this.running;
+    }
+}
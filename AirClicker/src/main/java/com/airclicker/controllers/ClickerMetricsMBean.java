@@ -0,0 +1,48 @@
+package com.airclicker.controllers;
+
+/**
+ * The management interface of {@link ClickerMetrics}, published over JMX as
+ * {@code com.airclicker:type=ClickerMetrics}.
+ */
+public interface ClickerMetricsMBean {
+    /**
+     * The amount of clicks issued since the application started.
+     * @return {@code long} the click count.
+     */
+    long getClicksIssued();
+    /**
+     * The amount of clicks issued by the current or last session.
+     * @return {@code long} the click count.
+     */
+    long getSessionClicks();
+    /**
+     * The average rate of the current or last session.
+     * @return {@code double} the clicks per second.
+     */
+    double getAchievedCps();
+    /**
+     * The median difference between the scheduled and actual time of a click.
+     * @return {@code double} the latency in microseconds.
+     */
+    double getLatencyP50Micros();
+    /**
+     * The 99th percentile difference between the scheduled and actual time of a click.
+     * @return {@code double} the latency in microseconds.
+     */
+    double getLatencyP99Micros();
+    /**
+     * The 99.9th percentile difference between the scheduled and actual time of a click.
+     * @return {@code double} the latency in microseconds.
+     */
+    double getLatencyP999Micros();
+    /**
+     * The largest difference between the scheduled and actual time of a click.
+     * @return {@code double} the latency in microseconds.
+     */
+    double getLatencyMaxMicros();
+    /**
+     * Determines if a session is running.
+     * @return {@code boolean} true while clicking.
+     */
+    boolean isRunning();
+}
@@ -0,0 +1,83 @@
+package com.airclicker.controllers;
+
+import java.util.Locale;
+
+/**
+ * How much the time between clicks and the click position vary around the configured
+ * {@link ClickTiming}. Every period is the configured period multiplied by a random ratio
+ * with a mean of {@code 1.0}, clamped to {@code [min, max]}.
+ *
+ * @param distribution The distribution the ratios are drawn from.
+ * @param sigma The standard deviation of the ratio, e.g. {@code 0.1} for 10% of the period.
+ * @param min The smallest ratio, at least {@code 0.0}.
+ * @param max The largest ratio, at most {@value #MAX_RATIO}.
+ * @param jitterPixels The largest distance a click lands from its target on either axis.
+ *
+ * @author shabman
+ * @version 1.0.0
+ */
+public record HumanTiming(Distribution distribution, double sigma, double min, double max, int jitterPixels) {
+    /**
+     * The largest accepted ratio, which keeps the fixed point period arithmetic in range.
+     */
+    public static final double MAX_RATIO = 4.0;
+
+    public HumanTiming {
+        if (distribution == null) throw new IllegalArgumentException("A distribution is required");
+        if (!(sigma >= 0 && sigma <= 1)) throw new IllegalArgumentException("Sigma must be between 0 and 1: " + sigma);
+        if (!(min >= 0 && min <= 1 && max >= 1 && max <= MAX_RATIO))
+            throw new IllegalArgumentException("The ratio must be clamped to a range around 1 within [0, " + MAX_RATIO + "]: " + min + "-" + max);
+        if (jitterPixels < 0 || jitterPixels > Short.MAX_VALUE)
+            throw new IllegalArgumentException("Position jitter must not be negative: " + jitterPixels);
+    }
+    /**
+     * The shape of the period distribution.
+     */
+    public enum Distribution {
+        /**
+         * Symmetric jitter around the period.
+         */
+        GAUSSIAN,
+        /**
+         * Mostly short periods with occasional long pauses, the way bursts of manual clicks look.
+         */
+        LOG_NORMAL
+    }
+    /**
+     * Parses a spec such as {@code gauss:0.1}, {@code lognormal:0.3,max=3} or
+     * {@code gauss:0.15,min=0.5,max=1.5,jitter=3}. The clamps default to {@code 0.5} and
+     * {@code 2.0}, the position jitter to none.
+     *
+     * @param spec The spec.
+     * @return {@code HumanTiming} the parsed settings.
+     * @throws IllegalArgumentException if the spec is malformed.
+     */
+    public static HumanTiming parse(String spec) {
+        String[] parts = spec.trim().toLowerCase(Locale.ROOT).split(",");
+        String[] head = parts[0].split(":");
+        if (head.length != 2) throw new IllegalArgumentException("Invalid humanize spec, expected e.g. gauss:0.1: " + spec);
+        Distribution distribution = switch (head[0]) {
+            case "gauss", "gaussian", "normal" -> Distribution.GAUSSIAN;
+            case "lognormal", "log-normal" -> Distribution.LOG_NORMAL;
+            default -> throw new IllegalArgumentException("Unknown distribution: " + head[0]);
+        };
+        double min = 0.5, max = 2.0;
+        int jitter = 0;
+        try {
+            double sigma = Double.parseDouble(head[1]);
+            for (int i = 1; i < parts.length; i++) {
+                String[] option = parts[i].split("=");
+                if (option.length != 2) throw new IllegalArgumentException("Invalid humanize option: " + parts[i]);
+                switch (option[0].trim()) {
+                    case "min" -> min = Double.parseDouble(option[1]);
+                    case "max" -> max = Double.parseDouble(option[1]);
+                    case "jitter" -> jitter = Integer.parseInt(option[1].trim().replace("px", ""));
+                    default -> throw new IllegalArgumentException("Unknown humanize option: " + option[0]);
+                }
+            }
+            return new HumanTiming(distribution, sigma, min, max, jitter);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number in humanize spec: " + spec);
+        }
+    }
+}
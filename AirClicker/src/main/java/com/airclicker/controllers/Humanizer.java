@@ -0,0 +1,253 @@
+package com.airclicker.controllers;
+
+import java.io.Closeable;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The {@code Humanizer} class draws the random periods and position offsets of a
+ * {@link HumanTiming} ahead of time, so the click thread only reads primitives from arrays.
+ *
+ * A producer thread fills a single producer, single consumer ring of {@code long} period
+ * ratios and {@code int} offsets in batches of {@value #BATCH} from a {@link SplittableRandom}.
+ * The click thread is the only consumer: it reads one slot per click without locks or
+ * allocation and wakes the producer once per batch it has used up. The ring is filled before
+ * the first click, and if the producer ever falls behind the click thread uses the plain
+ * period rather than waiting.
+ *
+ * Ratios are fixed point numbers where {@link #ONE} is the configured period.
+ *
+ * @author shabman
+ * @version 1.0.1
+ */
+public final class Humanizer implements Closeable {
+    /**
+     * The fixed point value of a ratio of {@code 1.0}.
+     */
+    public static final long ONE = 1L << 20;
+    /**
+     * The amount of slots in the ring, a power of two.
+     */
+    public static final int CAPACITY = 4096;
+    /**
+     * The amount of slots the producer fills at once.
+     */
+    public static final int BATCH = 256;
+    /**
+     * The slot index bits of a sequence number.
+     */
+    private static final int MASK = CAPACITY - 1;
+    /**
+     * The period ratio of every slot.
+     */
+    private final long[] ratios = new long[CAPACITY];
+    /**
+     * The horizontal offset of every slot.
+     */
+    private final int[] dx = new int[CAPACITY];
+    /**
+     * The vertical offset of every slot.
+     */
+    private final int[] dy = new int[CAPACITY];
+    /**
+     * The settings the samples are drawn from.
+     */
+    private final HumanTiming settings;
+    /**
+     * The random source, only used by the producer.
+     */
+    private final SplittableRandom random;
+    /**
+     * The amount of slots written, published after the slots themselves.
+     */
+    private final AtomicLong head = new AtomicLong();
+    /**
+     * The amount of slots read.
+     */
+    private final AtomicLong tail = new AtomicLong();
+    /**
+     * The producer thread.
+     */
+    private final Thread producer;
+    /**
+     * Determines if the producer should keep running.
+     */
+    private volatile boolean running = true;
+    /**
+     * The horizontal offset of the slot read by the last {@link #nextRatio()}, only used by the consumer.
+     */
+    private int lastDx;
+    /**
+     * The vertical offset of the slot read by the last {@link #nextRatio()}, only used by the consumer.
+     */
+    private int lastDy;
+    /**
+     * The amount of reads that found the ring empty, only written by the consumer.
+     */
+    private long underruns;
+    /**
+     * A second normal sample left over from the polar method, only used by the producer.
+     */
+    private double spare = Double.NaN;
+
+    /**
+     * Prevents the class from being instantiated outside the factory.
+     */
+    private Humanizer(HumanTiming settings, long seed) {
+        this.settings = settings;
+        this.random = new SplittableRandom(seed);
+        this.producer = new Thread(this::produce, "air-clicker-humanizer");
+        this.producer.setDaemon(true);
+    }
+    /**
+     * Fills the ring and starts the producer.
+     *
+     * @param settings The settings the samples are drawn from.
+     * @param seed The seed of the random source, equal seeds give equal samples.
+     * @return {@code Humanizer} the running humanizer.
+     */
+    public static Humanizer start(HumanTiming settings, long seed) {
+        Humanizer humanizer = new Humanizer(settings, seed);
+        humanizer.fill(CAPACITY);
+        humanizer.producer.start();
+        return humanizer;
+    }
+    /**
+     * Moves to the next slot and scales a period by its ratio. Called once per click by the
+     * click thread only.
+     *
+     * @param periodNanos The configured period.
+     * @param minNanos The shortest period returned, e.g. the hold time.
+     * @return {@code long} the humanized period in nanoseconds.
+     */
+    public long nextPeriod(long periodNanos, long minNanos) {
+        long ratio = this.nextRatio();
+        long scaled = periodNanos < (1L << 40) ? (periodNanos * ratio) >> 20 : (long) (periodNanos * ((double) ratio / ONE));
+        return Math.max(scaled, minNanos);
+    }
+    /**
+     * Moves to the next slot. Called by the click thread only.
+     *
+     * @return {@code long} the period ratio of the slot, {@link #ONE} if the ring was empty.
+     */
+    public long nextRatio() {
+        long read = this.tail.get();
+        if (read == this.head.get()) {
+            // The producer was already woken when the last batch was used up.
+            this.underruns++;
+            this.lastDx = 0;
+            this.lastDy = 0;
+            return ONE;
+        }
+        int slot = (int) read & MASK;
+        // Copy the slot out before handing it back, the producer may overwrite it right after.
+        long ratio = this.ratios[slot];
+        this.lastDx = this.dx[slot];
+        this.lastDy = this.dy[slot];
+        this.tail.lazySet(read + 1);
+        if ((read & (BATCH - 1)) == BATCH - 1) LockSupport.unpark(this.producer);
+        return ratio;
+    }
+    /**
+     * The horizontal offset of the slot read by the last {@link #nextRatio()}.
+     * @return {@code int} the offset in pixels.
+     */
+    public int dx() {
+        return this.lastDx;
+    }
+    /**
+     * The vertical offset of the slot read by the last {@link #nextRatio()}.
+     * @return {@code int} the offset in pixels.
+     */
+    public int dy() {
+        return this.lastDy;
+    }
+    /**
+     * Determines if clicks should be moved away from their targets.
+     * @return {@code boolean} true if the settings have a position jitter.
+     */
+    public boolean hasJitter() {
+        return this.settings.jitterPixels() > 0;
+    }
+    /**
+     * The amount of clicks that found the ring empty and used the plain period.
+     * @return {@code long} the underruns.
+     */
+    public long getUnderruns() {
+        return this.underruns;
+    }
+    /**
+     * The settings the samples are drawn from.
+     * @return {@code HumanTiming} the settings.
+     */
+    public HumanTiming getSettings() {
+        return this.settings;
+    }
+    /**
+     * Stops the producer.
+     */
+    @Override
+    public void close() {
+        this.running = false;
+        LockSupport.unpark(this.producer);
+    }
+
+    private void produce() {
+        while (this.running) {
+            if (CAPACITY - (this.head.get() - this.tail.get()) >= BATCH) this.fill(BATCH);
+            else LockSupport.park(this);
+        }
+    }
+
+    /**
+     * Writes samples into free slots and publishes them. Only called by one thread at a time.
+     */
+    private void fill(int count) {
+        final HumanTiming settings = this.settings;
+        final boolean logNormal = settings.distribution() == HumanTiming.Distribution.LOG_NORMAL;
+        // Mu is chosen so the log-normal ratio has a mean of 1.
+        final double s = logNormal ? Math.sqrt(Math.log(1 + settings.sigma() * settings.sigma())) : settings.sigma();
+        final double mu = -s * s / 2;
+        final int jitter = settings.jitterPixels();
+        long write = this.head.get();
+        for (int i = 0; i < count; i++) {
+            int slot = (int) (write + i) & MASK;
+            double ratio = logNormal ? Math.exp(mu + s * this.gaussian()) : 1 + s * this.gaussian();
+            ratio = Math.min(settings.max(), Math.max(settings.min(), ratio));
+            this.ratios[slot] = Math.round(ratio * ONE);
+            if (jitter > 0) {
+                this.dx[slot] = offset(this.gaussian(), jitter);
+                this.dy[slot] = offset(this.gaussian(), jitter);
+            }
+        }
+        this.head.lazySet(write + count);
+    }
+
+    /**
+     * A position offset with a standard deviation of half the jitter, clamped to the jitter.
+     */
+    private static int offset(double normal, int jitter) {
+        return (int) Math.max(-jitter, Math.min(jitter, Math.round(normal * jitter / 2)));
+    }
+
+    /**
+     * A standard normal sample from the Marsaglia polar method, which yields two at a time.
+     */
+    private double gaussian() {
+        double spare = this.spare;
+        if (!Double.isNaN(spare)) {
+            this.spare = Double.NaN;
+            return spare;
+        }
+        double u, v, q;
+        do {
+            u = 2 * this.random.nextDouble() - 1;
+            v = 2 * this.random.nextDouble() - 1;
+            q = u * u + v * v;
+        } while (q >= 1 || q == 0);
+        double factor = Math.sqrt(-2 * Math.log(q) / q);
+        this.spare = v * factor;
+        return u * factor;
+    }
+}
@@ -0,0 +1,108 @@
+package com.airclicker.controllers;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed size log-linear histogram used to track how late each click was compared to
+ * its scheduled deadline. Values are bucketed by their highest set bit and split into
+ * {@value #SUB_BUCKETS} linear sub-buckets, giving roughly 6% precision across the whole
+ * {@code long} range without allocating while recording.
+ *
+ * <p>The histogram has a single writer, the clicking thread, and any number of readers.
+ * Writes use ordered stores instead of atomic increments, so recording stays as cheap as a
+ * plain array update while readers such as the metrics panel still see consistent values.</p>
+ *
+ * @author shabman
+ * @version 1.1.0
+ */
+public final class JitterHistogram {
+    /**
+     * The amount of bits used for the linear sub-buckets of each power of two.
+     */
+    private static final int SUB_BITS = 4;
+    /**
+     * The amount of linear sub-buckets inside each power of two.
+     */
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    /**
+     * The recorded counts per bucket.
+     */
+    private final AtomicLongArray buckets = new AtomicLongArray(64 * SUB_BUCKETS);
+    /**
+     * The amount of values recorded.
+     */
+    private final AtomicLong count = new AtomicLong();
+    /**
+     * The largest value recorded.
+     */
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a single value, negative values are treated as zero. Must only be called by
+     * the owning thread.
+     *
+     * @param value The value in nanoseconds.
+     */
+    public void record(long value) {
+        if (value < 0) value = 0;
+        int index = indexOf(value);
+        this.buckets.lazySet(index, this.buckets.get(index) + 1);
+        this.count.lazySet(this.count.get() + 1);
+        if (value > this.max.get()) this.max.lazySet(value);
+    }
+    /**
+     * Clears every recorded value. Must only be called by the owning thread.
+     */
+    public void reset() {
+        for (int i = 0; i < this.buckets.length(); i++) this.buckets.lazySet(i, 0L);
+        this.count.lazySet(0);
+        this.max.lazySet(0);
+    }
+    /**
+     * Estimates the value at the given percentile.
+     *
+     * @param percentile The percentile between {@code 0.0} and {@code 100.0}.
+     * @return {@code long} the lower bound of the bucket holding the percentile.
+     */
+    public long percentile(double percentile) {
+        long total = this.count.get();
+        if (total == 0) return 0;
+        long target = (long) Math.ceil(total * Math.min(100.0, Math.max(0.0, percentile)) / 100.0);
+        if (target < 1) target = 1;
+        long max = this.max.get();
+        long seen = 0;
+        for (int i = 0; i < this.buckets.length(); i++) {
+            seen += this.buckets.get(i);
+            if (seen >= target) return Math.min(valueOf(i), max);
+        }
+        return max;
+    }
+    /**
+     * The amount of values recorded.
+     * @return {@code long} the count.
+     */
+    public long getCount() {
+        return this.count.get();
+    }
+    /**
+     * The largest value recorded.
+     * @return {@code long} the maximum.
+     */
+    public long getMax() {
+        return this.max.get();
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - SUB_BITS;
+        int sub = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return ((shift + 1) << SUB_BITS) + sub;
+    }
+
+    static long valueOf(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int shift = (index >>> SUB_BITS) - 1;
+        return (long) (SUB_BUCKETS + (index & (SUB_BUCKETS - 1))) << shift;
+    }
+}
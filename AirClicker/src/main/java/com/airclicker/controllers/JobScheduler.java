@@ -0,0 +1,362 @@
+package com.airclicker.controllers;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The {@code JobScheduler} class runs queued {@link ClickJob}s on a {@link ClickerEngine}.
+ *
+ * A single thread waits on a priority queue ordered by start time. Jobs chained to another
+ * job are parked until their predecessor ends and queued afterwards, so no thread is spent on
+ * waiting jobs. Every change to the queue is written to a file through a temporary file and
+ * an atomic move, so scheduled jobs survive a restart. The running job stays in the file
+ * until it ends.
+ *
+ * @author shabman
+ * @version 1.0.2
+ */
+public final class JobScheduler implements Closeable {
+    /**
+     * The first line of a job file, followed by the format version.
+     */
+    private static final String HEADER = "AIRJOBS";
+    /**
+     * The version of the job file format.
+     */
+    private static final int VERSION = 1;
+    /**
+     * Orders jobs by start time, jobs due at the same time run in submission order.
+     */
+    private static final Comparator<ClickJob> ORDER =
+            Comparator.comparingLong(ClickJob::startAt).thenComparingLong(ClickJob::id);
+    /**
+     * The logger tracker to log information to the console.
+     *
+     * @apiNote There is no java doc available for {@code Logger} and {@code LoggerFactory}
+     */
+    private static final Logger logger = LoggerFactory.getLogger(JobScheduler.class);
+    /**
+     * The engine jobs are run on.
+     */
+    private final ClickerEngine engine;
+    /**
+     * The file the queue is persisted to.
+     */
+    private final Path file;
+    /**
+     * The jobs waiting for their start time.
+     */
+    private final PriorityQueue<ClickJob> queue = new PriorityQueue<>(ORDER);
+    /**
+     * The jobs waiting for another job to end, keyed by that job's id.
+     */
+    private final Map<Long, List<ClickJob>> chained = new HashMap<>();
+    /**
+     * The scheduler thread.
+     */
+    private final Thread thread;
+    /**
+     * The job handed to the engine, {@code null} while none runs.
+     */
+    private ClickJob current;
+    /**
+     * The engine job started elsewhere that the scheduler is waiting on, so its completion is
+     * only subscribed to once.
+     */
+    private CompletableFuture<ClickStats> observed;
+    /**
+     * The id given to the next submitted job.
+     */
+    private long nextId = 1;
+    /**
+     * Determines if the scheduler thread should keep running.
+     */
+    private boolean running = true;
+
+    /**
+     * Prevents the class from being instantiated
+     */
+    private JobScheduler(ClickerEngine engine, Path file) {
+        this.engine = engine;
+        this.file = file;
+        this.thread = new Thread(this::loop, "air-clicker-jobs");
+        this.thread.setDaemon(true);
+    }
+    /**
+     * Loads the jobs persisted in a file. Nothing runs until {@link #start()} is called, so a
+     * job can be added to the file without running the queue.
+     *
+     * @param engine The engine jobs are run on.
+     * @param file The file the queue is persisted to, created on the first change.
+     * @return {@code JobScheduler} the scheduler.
+     * @throws IOException if the file exists but cannot be read or is malformed.
+     */
+    public static JobScheduler load(ClickerEngine engine, Path file) throws IOException {
+        JobScheduler scheduler = new JobScheduler(engine, file);
+        if (Files.exists(file)) {
+            List<ClickJob> jobs = read(file);
+            // A job is only ever chained to an older one, so queueing by id parks every chained job.
+            jobs.sort(Comparator.comparingLong(ClickJob::id));
+            synchronized (scheduler) {
+                for (ClickJob job : jobs) scheduler.nextId = Math.max(scheduler.nextId, job.id() + 1);
+                for (ClickJob job : jobs) scheduler.enqueue(job);
+            }
+            logger.info("Loaded " + jobs.size() + " jobs from " + file);
+        }
+        return scheduler;
+    }
+    /**
+     * Starts running the queue. Jobs whose start time passed while the application was not
+     * running are started right away.
+     */
+    public void start() {
+        this.thread.start();
+    }
+    /**
+     * Adds a job to the queue.
+     *
+     * @param job The job, its id is ignored.
+     * @return {@code long} the id given to the job.
+     * @throws IOException if the queue cannot be persisted, the job is not queued in that case.
+     */
+    public synchronized long submit(ClickJob job) throws IOException {
+        ClickJob queued = job.withId(this.nextId);
+        this.enqueue(queued);
+        try {
+            this.persist();
+        } catch (IOException e) {
+            this.remove(queued.id());
+            throw e;
+        }
+        this.nextId++;
+        this.notifyAll();
+        return queued.id();
+    }
+    /**
+     * Removes a waiting job together with every job chained to it, or stops it if it runs.
+     * Jobs chained to a running job start once it has stopped.
+     *
+     * @param id The id of the job.
+     * @return {@code boolean} true if the job was found.
+     * @throws IOException if the queue cannot be persisted.
+     */
+    public synchronized boolean cancel(long id) throws IOException {
+        if (this.current != null && this.current.id() == id) {
+            this.engine.stop();
+            return true;
+        }
+        if (!this.remove(id)) return false;
+        this.persist();
+        this.notifyAll();
+        return true;
+    }
+    /**
+     * The running and waiting jobs.
+     * @return {@code List} the jobs, the running one first, then by start time.
+     */
+    public synchronized List<ClickJob> getJobs() {
+        List<ClickJob> jobs = new ArrayList<>(this.queue.size() + this.chained.size() + 1);
+        if (this.current != null) jobs.add(this.current);
+        List<ClickJob> waiting = new ArrayList<>(this.queue);
+        this.chained.values().forEach(waiting::addAll);
+        waiting.sort(ORDER);
+        jobs.addAll(waiting);
+        return jobs;
+    }
+    /**
+     * Stops scheduling new jobs. A running job keeps running and the file keeps every waiting job.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            this.running = false;
+            this.notifyAll();
+        }
+        try {
+            this.thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private synchronized void loop() {
+        try {
+            while (this.running) {
+                if (this.current != null) {
+                    this.wait();
+                    continue;
+                }
+                CompletableFuture<ClickStats> busy = this.engine.getJob();
+                if (!busy.isDone()) {
+                    if (busy != this.observed) {
+                        this.observed = busy;
+                        busy.whenComplete((stats, error) -> this.wakeUp());
+                    }
+                    // The callback needs this monitor, so it cannot notify before the wait releases it.
+                    if (!busy.isDone()) this.wait();
+                    continue;
+                }
+                ClickJob head = this.queue.peek();
+                if (head == null) {
+                    this.wait();
+                    continue;
+                }
+                long delay = head.startAt() - System.currentTimeMillis();
+                if (delay > 0) {
+                    this.wait(delay);
+                    continue;
+                }
+                this.queue.poll();
+                this.current = head;
+                CompletableFuture<ClickStats> previous = this.engine.getJob();
+                CompletableFuture<ClickStats> job = head.startOn(this.engine);
+                if (job == previous) {
+                    this.current = null;
+                    this.queue.add(head);
+                    continue;
+                }
+                logger.info("Started job " + head.id());
+                job.whenComplete((stats, error) -> this.finished(head));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private synchronized void wakeUp() {
+        this.notifyAll();
+    }
+
+    private synchronized void finished(ClickJob job) {
+        logger.info("Finished job " + job.id());
+        this.current = null;
+        List<ClickJob> next = this.chained.remove(job.id());
+        if (next != null) this.queue.addAll(next);
+        try {
+            this.persist();
+        } catch (IOException e) {
+            logger.error(e.getMessage());
+        }
+        this.notifyAll();
+    }
+
+    /**
+     * Queues a job, or parks it if the job it is chained to has not ended yet.
+     */
+    private void enqueue(ClickJob job) {
+        if (job.afterJobId() != 0 && this.isPending(job.afterJobId())) {
+            this.chained.computeIfAbsent(job.afterJobId(), id -> new ArrayList<>()).add(job);
+        } else {
+            this.queue.add(job);
+        }
+    }
+
+    private boolean isPending(long id) {
+        if (this.current != null && this.current.id() == id) return true;
+        for (ClickJob job : this.queue) if (job.id() == id) return true;
+        for (List<ClickJob> jobs : this.chained.values())
+            for (ClickJob job : jobs) if (job.id() == id) return true;
+        return false;
+    }
+
+    /**
+     * Removes a waiting job and, recursively, the jobs chained to it.
+     */
+    private boolean remove(long id) {
+        boolean found = this.queue.removeIf(job -> job.id() == id);
+        for (List<ClickJob> jobs : this.chained.values()) found |= jobs.removeIf(job -> job.id() == id);
+        this.chained.values().removeIf(List::isEmpty);
+        List<ClickJob> dependents = this.chained.remove(id);
+        if (dependents != null) for (ClickJob job : dependents) this.remove(job.id());
+        return found;
+    }
+
+    private void persist() throws IOException {
+        List<ClickJob> jobs = this.getJobs();
+        List<String> lines = new ArrayList<>(jobs.size() + 1);
+        lines.add(HEADER + " " + VERSION);
+        for (ClickJob job : jobs) lines.add(format(job));
+        TargetFiles.write(this.file, lines);
+    }
+
+    /**
+     * Writes a job as {@code id startAt after holdNanos gapNanos limit BUTTON targets}, where
+     * targets are written by {@link TargetFiles#format}.
+     */
+    private static String format(ClickJob job) {
+        StringBuilder line = new StringBuilder(64);
+        line.append(job.id()).append(' ').append(job.startAt()).append(' ').append(job.afterJobId()).append(' ')
+                .append(job.timing().holdNanos()).append(' ').append(job.timing().gapNanos()).append(' ')
+                .append(job.limit()).append(' ').append(job.button().name()).append(' ');
+        return TargetFiles.format(line, job.targets()).toString();
+    }
+
+    private static List<ClickJob> read(Path file) throws IOException {
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        if (lines.isEmpty() || !lines.get(0).equals(HEADER + " " + VERSION))
+            throw new IOException("Unsupported job file: " + file);
+        List<ClickJob> jobs = new ArrayList<>(lines.size() - 1);
+        try {
+            for (String line : lines.subList(1, lines.size())) {
+                if (line.isBlank()) continue;
+                String[] fields = line.trim().split(" ");
+                if (fields.length != 8) throw new IOException("Malformed job: " + line);
+                jobs.add(new ClickJob(Long.parseLong(fields[0]),
+                        new ClickTiming(Long.parseLong(fields[3]), Long.parseLong(fields[4])),
+                        Long.parseLong(fields[5]), MouseButton.valueOf(fields[6]), TargetFiles.parse(fields[7]),
+                        Long.parseLong(fields[1]), Long.parseLong(fields[2])));
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Malformed job file " + file + ": " + e.getMessage(), e);
+        }
+        return jobs;
+    }
+    /**
+     * Parses a start time, either {@code now}, a delay such as {@code +30s}, {@code +5m} or
+     * {@code +2h}, or a local date and time such as {@code 2024-05-01T08:30}.
+     *
+     * @param spec The start time.
+     * @return {@code long} the start in milliseconds since the epoch.
+     * @throws IllegalArgumentException if the spec is malformed.
+     */
+    public static long parseTime(String spec) {
+        String value = spec.trim().toLowerCase(Locale.ROOT);
+        long now = System.currentTimeMillis();
+        if (value.equals("now")) return now;
+        if (value.startsWith("+") && value.length() > 2) {
+            long unit = switch (value.charAt(value.length() - 1)) {
+                case 's' -> 1000L;
+                case 'm' -> 60_000L;
+                case 'h' -> 3_600_000L;
+                default -> throw new IllegalArgumentException("Invalid delay: " + spec);
+            };
+            try {
+                return now + Long.parseLong(value.substring(1, value.length() - 1)) * unit;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid delay: " + spec);
+            }
+        }
+        try {
+            return LocalDateTime.parse(spec.trim()).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid start time: " + spec);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.airclicker.controllers;
+
+import com.airclicker.templates.InputBackend;
+
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * A list of keystrokes compiled into parallel {@code int} arrays, so the key loop only indexes
+ * into arrays and never maps a character while typing. Every keystroke is a {@code KeyEvent}
+ * key code and the {@code InputEvent} modifier mask that has to be held while it is pressed.
+ *
+ * Text is mapped using the US keyboard layout, so shifted symbols such as {@code !} or
+ * {@code ?} are typed as their unshifted key with shift held.
+ *
+ * @author shabman
+ * @version 1.0.0
+ */
+public final class KeySequence {
+    /**
+     * The modifier masks a keystroke can hold, in the order they are pressed.
+     */
+    private static final int[] MODIFIER_MASKS = {
+            InputEvent.CTRL_DOWN_MASK, InputEvent.ALT_DOWN_MASK, InputEvent.ALT_GRAPH_DOWN_MASK,
+            InputEvent.META_DOWN_MASK, InputEvent.SHIFT_DOWN_MASK };
+    /**
+     * The key codes of {@link #MODIFIER_MASKS}.
+     */
+    private static final int[] MODIFIER_KEYS = {
+            KeyEvent.VK_CONTROL, KeyEvent.VK_ALT, KeyEvent.VK_ALT_GRAPH, KeyEvent.VK_META, KeyEvent.VK_SHIFT };
+    /**
+     * The characters typed with shift on a US layout, matched by position with {@link #UNSHIFTED}.
+     */
+    private static final String SHIFTED = "~!@#$%^&*()_+{}|:\"<>?";
+    /**
+     * The keys of {@link #SHIFTED} without shift.
+     */
+    private static final String UNSHIFTED = "`1234567890-=[]\\;',./";
+
+    /**
+     * The key code of every keystroke.
+     */
+    final int[] keys;
+    /**
+     * The modifier mask held during every keystroke.
+     */
+    final int[] modifiers;
+
+    /**
+     * Prevents the class from being instantiated outside the factories.
+     */
+    private KeySequence(int[] keys, int[] modifiers) {
+        if (keys.length == 0) throw new IllegalArgumentException("A key sequence needs at least one key");
+        this.keys = keys;
+        this.modifiers = modifiers;
+    }
+    /**
+     * Compiles text into the keystrokes that type it. Line breaks are typed as enter.
+     *
+     * @param text The text to type.
+     * @return {@code KeySequence} the compiled keystrokes.
+     * @throws IllegalArgumentException if the text contains a character without a key.
+     */
+    public static KeySequence ofText(String text) {
+        int[] keys = new int[text.length()];
+        int[] modifiers = new int[text.length()];
+        int n = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\r') continue;
+            long stroke = strokeOf(c);
+            keys[n] = (int) stroke;
+            modifiers[n++] = (int) (stroke >>> 32);
+        }
+        return new KeySequence(Arrays.copyOf(keys, n), Arrays.copyOf(modifiers, n));
+    }
+    /**
+     * Compiles chords separated by spaces, e.g. {@code ctrl+a ctrl+c f5 shift+tab}. A key is
+     * either a single character or the name of a {@code KeyEvent.VK_} constant without prefix.
+     *
+     * @param chords The chords.
+     * @return {@code KeySequence} the compiled keystrokes.
+     * @throws IllegalArgumentException if a modifier or key is unknown.
+     */
+    public static KeySequence parse(String chords) {
+        String[] tokens = chords.trim().split("\\s+");
+        int[] keys = new int[tokens.length];
+        int[] modifiers = new int[tokens.length];
+        for (int i = 0; i < tokens.length; i++) {
+            String token = tokens[i];
+            // The key itself may be '+', so the last separator is searched before the last character.
+            int split = token.lastIndexOf('+', token.length() - 2);
+            int mask = 0;
+            if (split > 0) for (String modifier : token.substring(0, split).split("\\+")) mask |= modifierOf(modifier);
+            long stroke = keyOf(token.substring(split + 1));
+            keys[i] = (int) stroke;
+            modifiers[i] = mask | (int) (stroke >>> 32);
+        }
+        return new KeySequence(keys, modifiers);
+    }
+    /**
+     * The amount of keystrokes.
+     * @return {@code int} the length of the sequence.
+     */
+    public int size() {
+        return this.keys.length;
+    }
+    /**
+     * The key code of a keystroke.
+     *
+     * @param index The index of the keystroke.
+     * @return {@code int} the {@code KeyEvent} key code.
+     */
+    public int getKey(int index) {
+        return this.keys[index];
+    }
+    /**
+     * The modifiers held during a keystroke.
+     *
+     * @param index The index of the keystroke.
+     * @return {@code int} the {@code InputEvent} modifier mask.
+     */
+    public int getModifiers(int index) {
+        return this.modifiers[index];
+    }
+    /**
+     * Presses and releases modifier keys so that exactly the wanted modifiers are held.
+     * Modifiers already held stay down, so consecutive capitals do not toggle shift.
+     *
+     * @param backend The backend to send the key events to.
+     * @param down The modifiers currently held.
+     * @param want The modifiers that should be held.
+     * @return {@code int} the modifiers now held, {@code want}.
+     */
+    static int holdModifiers(InputBackend backend, int down, int want) {
+        for (int i = MODIFIER_MASKS.length - 1; i >= 0; i--)
+            if ((down & ~want & MODIFIER_MASKS[i]) != 0) backend.keyRelease(MODIFIER_KEYS[i]);
+        for (int i = 0; i < MODIFIER_MASKS.length; i++)
+            if ((want & ~down & MODIFIER_MASKS[i]) != 0) backend.keyPress(MODIFIER_KEYS[i]);
+        return want;
+    }
+
+    /**
+     * Maps a character to its key code in the low and its modifier mask in the high 32 bits.
+     */
+    private static long strokeOf(char c) {
+        int key, mask = 0;
+        if (c == '\n') key = KeyEvent.VK_ENTER;
+        else if (c == '\t') key = KeyEvent.VK_TAB;
+        else if (c >= 'a' && c <= 'z') key = KeyEvent.VK_A + (c - 'a');
+        else if (c >= 'A' && c <= 'Z') {
+            key = KeyEvent.VK_A + (c - 'A');
+            mask = InputEvent.SHIFT_DOWN_MASK;
+        } else if (c >= '0' && c <= '9') key = KeyEvent.VK_0 + (c - '0');
+        else {
+            int shifted = SHIFTED.indexOf(c);
+            if (shifted >= 0) {
+                c = UNSHIFTED.charAt(shifted);
+                mask = InputEvent.SHIFT_DOWN_MASK;
+            }
+            key = KeyEvent.getExtendedKeyCodeForChar(c);
+        }
+        if (key == KeyEvent.VK_UNDEFINED) throw new IllegalArgumentException("No key types '" + c + "'");
+        return (long) mask << 32 | key;
+    }
+
+    private static long keyOf(String name) {
+        if (name.length() == 1) return strokeOf(name.charAt(0));
+        String constant = switch (name.toLowerCase(Locale.ROOT)) {
+            case "esc" -> "ESCAPE";
+            case "return" -> "ENTER";
+            case "del" -> "DELETE";
+            case "ins" -> "INSERT";
+            case "pgup" -> "PAGE_UP";
+            case "pgdn" -> "PAGE_DOWN";
+            default -> name.toUpperCase(Locale.ROOT);
+        };
+        try {
+            return KeyEvent.class.getField("VK_" + constant).getInt(null);
+        } catch (NoSuchFieldException | IllegalAccessException e) {
+            throw new IllegalArgumentException("Unknown key: " + name);
+        }
+    }
+
+    private static int modifierOf(String name) {
+        return switch (name.toLowerCase(Locale.ROOT)) {
+            case "ctrl", "control" -> InputEvent.CTRL_DOWN_MASK;
+            case "shift" -> InputEvent.SHIFT_DOWN_MASK;
+            case "alt" -> InputEvent.ALT_DOWN_MASK;
+            case "altgr" -> InputEvent.ALT_GRAPH_DOWN_MASK;
+            case "meta", "cmd", "win", "super" -> InputEvent.META_DOWN_MASK;
+            default -> throw new IllegalArgumentException("Unknown modifier: " + name);
+        };
+    }
+}
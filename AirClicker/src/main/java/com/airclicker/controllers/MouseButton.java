@@ -0,0 +1,69 @@
+package com.airclicker.controllers;
+
+import java.awt.event.InputEvent;
+import java.util.Locale;
+
+/**
+ * The mouse buttons the clicker can press, each with its {@code InputEvent} mask and the
+ * label shown in the UI. Resolve a button once before clicking and pass the enum around,
+ * so the click loop never has to compare strings.
+ *
+ * @author shabman
+ * @version 1.0.0
+ */
+public enum MouseButton {
+    DEFAULT(InputEvent.BUTTON1_DOWN_MASK, "Default"),
+    LEFT(InputEvent.BUTTON1_DOWN_MASK, "Mouse Button Left"),
+    RIGHT(InputEvent.BUTTON3_DOWN_MASK, "Mouse Button Right"),
+    MIDDLE(InputEvent.BUTTON2_DOWN_MASK, "Mouse Button Middle");
+
+    /**
+     * A shared copy of {@link #values()}, which clones its array on every call.
+     */
+    private static final MouseButton[] VALUES = values();
+    /**
+     * The {@code InputEvent} button mask.
+     */
+    private final int mask;
+    /**
+     * The label shown in the UI.
+     */
+    private final String label;
+
+    MouseButton(int mask, String label) {
+        this.mask = mask;
+        this.label = label;
+    }
+    /**
+     * Resolves a button from its name or its UI label, ignoring case.
+     *
+     * @param side e.g. {@code left}, {@code RIGHT} or {@code Mouse Button Left}.
+     * @return {@code MouseButton} the button.
+     * @throws IllegalArgumentException if the side is unknown.
+     */
+    public static MouseButton parse(String side) {
+        String value = side.trim();
+        for (MouseButton button : VALUES)
+            if (button.name().equalsIgnoreCase(value) || button.label.equalsIgnoreCase(value)) return button;
+        throw new IllegalArgumentException("Unknown mouse button: " + side.toLowerCase(Locale.ROOT));
+    }
+    /**
+     * The {@code InputEvent} button mask.
+     * @return {@code int} the mask.
+     */
+    public int mask() {
+        return this.mask;
+    }
+    /**
+     * The label shown in the UI.
+     * @return {@code String} the label.
+     */
+    public String label() {
+        return this.label;
+    }
+
+    @Override
+    public String toString() {
+        return this.label;
+    }
+}
@@ -0,0 +1,95 @@
+package com.airclicker.controllers;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How the pointer travels between two points: the shape of the path, the rate at which
+ * positions are sent and how long a move takes. The duration grows linearly with the
+ * distance, {@code minNanos + distance * nanosPerPixel}, up to {@code maxNanos}.
+ *
+ * @param curve The shape of the path.
+ * @param sampleNanos The time between two positions.
+ * @param minNanos The duration of a move of zero pixels.
+ * @param nanosPerPixel The additional duration per pixel of distance.
+ * @param maxNanos The longest duration of a move.
+ * @param bend How far a {@link Curve#BEZIER} path bows away from the straight line, as a fraction of the distance.
+ *
+ * @author shabman
+ * @version 1.0.0
+ */
+public record MouseMotion(Curve curve, long sampleNanos, long minNanos, long nanosPerPixel, long maxNanos, double bend) {
+    /**
+     * The sample rate used when a spec does not name one.
+     */
+    public static final int DEFAULT_HZ = 120;
+    /**
+     * The highest accepted sample rate.
+     */
+    public static final int MAX_HZ = 1000;
+
+    public MouseMotion {
+        if (curve == null) throw new IllegalArgumentException("A curve is required");
+        if (sampleNanos < TimeUnit.SECONDS.toNanos(1) / MAX_HZ)
+            throw new IllegalArgumentException("The sample rate must be at most " + MAX_HZ + " Hz");
+        if (minNanos < 0 || nanosPerPixel < 0 || maxNanos < minNanos)
+            throw new IllegalArgumentException("Invalid move duration: " + minNanos + " + " + nanosPerPixel + "/px up to " + maxNanos);
+        if (!(Math.abs(bend) <= 1)) throw new IllegalArgumentException("Bend must be between -1 and 1: " + bend);
+    }
+    /**
+     * The shape of a path.
+     */
+    public enum Curve {
+        /**
+         * A straight line with the minimum jerk speed profile, starting and ending at rest.
+         */
+        MINIMUM_JERK,
+        /**
+         * A cubic Bezier curve bowing to one side, travelled with the minimum jerk speed profile.
+         */
+        BEZIER
+    }
+    /**
+     * A motion with human-like durations: 80 ms plus 0.3 ms per pixel, at most 600 ms.
+     *
+     * @param curve The shape of the path.
+     * @param hz The positions sent per second.
+     * @return {@code MouseMotion} the motion.
+     */
+    public static MouseMotion of(Curve curve, int hz) {
+        if (hz <= 0) throw new IllegalArgumentException("The sample rate must be positive: " + hz);
+        return new MouseMotion(curve, TimeUnit.SECONDS.toNanos(1) / hz, TimeUnit.MILLISECONDS.toNanos(80),
+                TimeUnit.MICROSECONDS.toNanos(300), TimeUnit.MILLISECONDS.toNanos(600), curve == Curve.BEZIER ? 0.2 : 0.0);
+    }
+    /**
+     * Parses a spec such as {@code bezier}, {@code minjerk} or {@code bezier@240hz}.
+     *
+     * @param spec The spec.
+     * @return {@code MouseMotion} the motion.
+     * @throws IllegalArgumentException if the spec is malformed.
+     */
+    public static MouseMotion parse(String spec) {
+        String[] parts = spec.trim().toLowerCase(Locale.ROOT).split("@");
+        if (parts.length > 2) throw new IllegalArgumentException("Invalid motion: " + spec);
+        Curve curve = switch (parts[0].trim()) {
+            case "bezier" -> Curve.BEZIER;
+            case "minjerk", "min-jerk", "line" -> Curve.MINIMUM_JERK;
+            default -> throw new IllegalArgumentException("Unknown curve, expected bezier or minjerk: " + parts[0]);
+        };
+        if (parts.length == 1) return of(curve, DEFAULT_HZ);
+        try {
+            return of(curve, Integer.parseInt(parts[1].trim().replace("hz", "")));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid sample rate: " + parts[1]);
+        }
+    }
+    /**
+     * The duration of a move.
+     *
+     * @param distance The straight distance in pixels.
+     * @return {@code long} the duration in nanoseconds.
+     */
+    public long durationNanos(double distance) {
+        return Math.min(this.maxNanos, this.minNanos + Math.round(distance * this.nanosPerPixel));
+    }
+}
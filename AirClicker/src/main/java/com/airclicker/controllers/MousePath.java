@@ -0,0 +1,109 @@
+package com.airclicker.controllers;
+
+/**
+ * A pointer path computed ahead of time into reusable {@code int} buffers, so following it
+ * only sends positions. The buffers grow to the longest path planned and are kept, so
+ * planning does not allocate once they are large enough.
+ *
+ * Both curves move with the minimum jerk speed profile {@code 10t^3 - 15t^4 + 6t^5}, which
+ * starts and ends at rest like a hand does. Position {@code i} is due {@code i} sample
+ * periods after the move started; the first position is the start point and the last one is
+ * exactly the end point.
+ *
+ * @author shabman
+ * @version 1.0.0
+ */
+public final class MousePath {
+    /**
+     * The x coordinate of every position.
+     */
+    int[] xs = new int[64];
+    /**
+     * The y coordinate of every position.
+     */
+    int[] ys = new int[64];
+    /**
+     * The amount of positions.
+     */
+    int length;
+    /**
+     * The time between two positions.
+     */
+    long sampleNanos;
+
+    /**
+     * Computes the path of a move, replacing the previous one.
+     *
+     * @param motion The shape and timing of the move.
+     * @param fromX The x coordinate of the start point.
+     * @param fromY The y coordinate of the start point.
+     * @param toX The x coordinate of the end point.
+     * @param toY The y coordinate of the end point.
+     * @return {@code MousePath} this path.
+     */
+    public MousePath plan(MouseMotion motion, int fromX, int fromY, int toX, int toY) {
+        double dx = toX - fromX, dy = toY - fromY;
+        double distance = Math.sqrt(dx * dx + dy * dy);
+        long sample = motion.sampleNanos();
+        int n = (int) Math.min(Integer.MAX_VALUE - 1, Math.max(1, (motion.durationNanos(distance) + sample / 2) / sample)) + 1;
+        if (this.xs.length < n) {
+            this.xs = new int[n];
+            this.ys = new int[n];
+        }
+        final int[] xs = this.xs, ys = this.ys;
+        // Control points a third and two thirds along the line, moved sideways by the bend.
+        double side = motion.curve() == MouseMotion.Curve.BEZIER ? motion.bend() : 0.0;
+        double c1x = fromX + dx / 3 - dy * side, c1y = fromY + dy / 3 + dx * side;
+        double c2x = fromX + 2 * dx / 3 - dy * side, c2y = fromY + 2 * dy / 3 + dx * side;
+        for (int i = 0; i < n; i++) {
+            double t = (double) i / (n - 1);
+            double s = t * t * t * (10 - 15 * t + 6 * t * t);
+            double u = 1 - s;
+            double b0 = u * u * u, b1 = 3 * u * u * s, b2 = 3 * u * s * s, b3 = s * s * s;
+            xs[i] = (int) Math.round(b0 * fromX + b1 * c1x + b2 * c2x + b3 * toX);
+            ys[i] = (int) Math.round(b0 * fromY + b1 * c1y + b2 * c2y + b3 * toY);
+        }
+        this.length = n;
+        this.sampleNanos = sample;
+        return this;
+    }
+    /**
+     * The amount of positions, including the start and end point.
+     * @return {@code int} the length of the path.
+     */
+    public int getLength() {
+        return this.length;
+    }
+    /**
+     * The x coordinate of a position.
+     *
+     * @param index The index of the position.
+     * @return {@code int} the x coordinate.
+     */
+    public int getX(int index) {
+        return this.xs[index];
+    }
+    /**
+     * The y coordinate of a position.
+     *
+     * @param index The index of the position.
+     * @return {@code int} the y coordinate.
+     */
+    public int getY(int index) {
+        return this.ys[index];
+    }
+    /**
+     * The time between two positions.
+     * @return {@code long} the sample period in nanoseconds.
+     */
+    public long getSampleNanos() {
+        return this.sampleNanos;
+    }
+    /**
+     * The time from the start point until the end point is reached.
+     * @return {@code long} the duration in nanoseconds.
+     */
+    public long getDurationNanos() {
+        return (this.length - 1) * this.sampleNanos;
+    }
+}
@@ -0,0 +1,132 @@
+package com.airclicker.controllers;
+
+import com.airclicker.templates.FrameSource;
+
+/**
+ * The {@code PixelTrigger} class watches a screen rectangle and reports when it shows a colour.
+ *
+ * Every poll captures only the watched rectangle into a buffer that is reused for the lifetime
+ * of the trigger, then compares the raw {@code 0xRRGGBB} values channel by channel against the
+ * target colour. The comparison stops as soon as the outcome is known, so a single matching
+ * pixel ends an {@code any} search and a single failing pixel ends an {@code all} search.
+ *
+ * @author shabman
+ * @version 1.0.0
+ */
+public final class PixelTrigger {
+    /**
+     * The screen the rectangle is captured from.
+     */
+    private final FrameSource source;
+    /**
+     * The watched rectangle on the virtual desktop.
+     */
+    private final int x, y, width, height;
+    /**
+     * The red, green and blue value of the target colour.
+     */
+    private final int red, green, blue;
+    /**
+     * The largest difference per channel that still counts as the target colour.
+     */
+    private final int tolerance;
+    /**
+     * The amount of pixels that have to match.
+     */
+    private final int required;
+    /**
+     * The pixels of the last capture.
+     */
+    private final int[] pixels;
+    /**
+     * The time from the start of a capture until the click was pressed, recorded by the click loop.
+     */
+    private final JitterHistogram latency = new JitterHistogram();
+
+    /**
+     * Prevents the class from being instantiated outside the factories.
+     */
+    private PixelTrigger(FrameSource source, int x, int y, int width, int height, int rgb, int tolerance, int required) {
+        if (width <= 0 || height <= 0) throw new IllegalArgumentException("The watched region must not be empty");
+        if (tolerance < 0 || tolerance > 255) throw new IllegalArgumentException("Tolerance must be between 0 and 255: " + tolerance);
+        this.source = source;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.red = (rgb >> 16) & 0xFF;
+        this.green = (rgb >> 8) & 0xFF;
+        this.blue = rgb & 0xFF;
+        this.tolerance = tolerance;
+        this.required = required;
+        this.pixels = new int[width * height];
+    }
+    /**
+     * Fires when at least one pixel of the region shows the colour.
+     *
+     * @param source The screen the rectangle is captured from.
+     * @param x The left edge on the virtual desktop.
+     * @param y The top edge on the virtual desktop.
+     * @param width The width of the region.
+     * @param height The height of the region.
+     * @param rgb The target colour as {@code 0xRRGGBB}.
+     * @param tolerance The largest difference per channel that still matches.
+     * @return {@code PixelTrigger} the trigger.
+     */
+    public static PixelTrigger any(FrameSource source, int x, int y, int width, int height, int rgb, int tolerance) {
+        return new PixelTrigger(source, x, y, width, height, rgb, tolerance, 1);
+    }
+    /**
+     * Fires when every pixel of the region shows the colour.
+     *
+     * @param source The screen the rectangle is captured from.
+     * @param x The left edge on the virtual desktop.
+     * @param y The top edge on the virtual desktop.
+     * @param width The width of the region.
+     * @param height The height of the region.
+     * @param rgb The target colour as {@code 0xRRGGBB}.
+     * @param tolerance The largest difference per channel that still matches.
+     * @return {@code PixelTrigger} the trigger.
+     */
+    public static PixelTrigger all(FrameSource source, int x, int y, int width, int height, int rgb, int tolerance) {
+        return new PixelTrigger(source, x, y, width, height, rgb, tolerance, width * height);
+    }
+    /**
+     * Captures the region and compares it with the target colour.
+     *
+     * @return {@code boolean} true if enough pixels match.
+     */
+    public boolean poll() {
+        this.source.capture(this.x, this.y, this.width, this.height, this.pixels);
+        return this.matches(this.pixels);
+    }
+    /**
+     * Compares captured pixels with the target colour.
+     *
+     * @param pixels The pixels of the region, row by row.
+     * @return {@code boolean} true if enough pixels match.
+     */
+    public boolean matches(int[] pixels) {
+        final int r = this.red, g = this.green, b = this.blue, tolerance = this.tolerance, required = this.required;
+        final int n = this.width * this.height;
+        int matched = 0;
+        for (int i = 0; i < n; i++) {
+            int p = pixels[i];
+            if (Math.abs(((p >> 16) & 0xFF) - r) <= tolerance
+                    && Math.abs(((p >> 8) & 0xFF) - g) <= tolerance
+                    && Math.abs((p & 0xFF) - b) <= tolerance) {
+                if (++matched >= required) return true;
+            } else if (n - i - 1 < required - matched) {
+                return false;
+            }
+        }
+        return false;
+    }
+    /**
+     * The time from the start of a capture until the triggered click was pressed.
+     * @return {@code JitterHistogram} the latency histogram.
+     */
+    public JitterHistogram getLatency() {
+        return this.latency;
+    }
+}
@@ -0,0 +1,91 @@
+package com.airclicker.controllers;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@code TargetFiles} class holds what the job and profile files have in common: they are
+ * replaced through a temporary file and an atomic move, and both write their {@link ClickTarget}s
+ * as {@code x,y,mask,repeat} separated by {@code ;}, or {@value #NONE} if there are none.
+ *
+ * @author shabman
+ * @version 1.0.0
+ */
+public final class TargetFiles {
+    /**
+     * Written in place of an empty target list.
+     */
+    public static final String NONE = "-";
+
+    /**
+     * Prevents the class from being instantiated.
+     */
+    private TargetFiles() { }
+    /**
+     * Replaces a file with the given lines. The lines are written to a temporary file beside it
+     * which is then moved over the file, atomically where the file system supports it.
+     *
+     * @param file The file to replace.
+     * @param lines The lines of the new file.
+     * @throws IOException if the file could not be written.
+     */
+    public static void write(Path file, List<String> lines) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            for (String line : lines) {
+                out.write(line);
+                out.newLine();
+            }
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+    /**
+     * Appends targets as {@code x,y,mask,repeat} separated by {@code ;}, or {@value #NONE}.
+     *
+     * @param line The line to append to.
+     * @param targets The targets.
+     * @return {@code StringBuilder} the line.
+     */
+    public static StringBuilder format(StringBuilder line, List<ClickTarget> targets) {
+        if (targets.isEmpty()) return line.append(NONE);
+        for (int i = 0; i < targets.size(); i++) {
+            ClickTarget target = targets.get(i);
+            if (i > 0) line.append(';');
+            line.append(target.x()).append(',').append(target.y()).append(',')
+                    .append(target.button()).append(',').append(target.repeat());
+        }
+        return line;
+    }
+    /**
+     * Reads targets written by {@link #format(StringBuilder, List)}.
+     *
+     * @param field The targets field.
+     * @return {@code List<ClickTarget>} the targets, empty for {@value #NONE}.
+     * @throws IOException if a target does not have four values.
+     * @throws IllegalArgumentException if a value is not a number or a repeat is below {@code 1}.
+     */
+    public static List<ClickTarget> parse(String field) throws IOException {
+        List<ClickTarget> targets = new ArrayList<>();
+        if (field.equals(NONE)) return targets;
+        for (String target : field.split(";")) {
+            String[] values = target.split(",");
+            if (values.length != 4) throw new IOException("Malformed target: " + target);
+            targets.add(new ClickTarget(Integer.parseInt(values[0]), Integer.parseInt(values[1]),
+                    Integer.parseInt(values[2]), Integer.parseInt(values[3])));
+        }
+        return targets;
+    }
+}
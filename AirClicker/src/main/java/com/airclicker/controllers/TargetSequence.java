@@ -0,0 +1,74 @@
+package com.airclicker.controllers;
+
+import java.util.List;
+
+/**
+ * A list of {@link ClickTarget}s compiled into flat parallel arrays. The click loop walks the
+ * arrays by index, so moving between targets costs one backend move and no lookups.
+ * Instances are immutable and can be shared between jobs.
+ *
+ * @author shabman
+ * @version 1.0.0
+ */
+public final class TargetSequence {
+    final int[] xs;
+    final int[] ys;
+    final int[] buttons;
+    final int[] repeats;
+    /**
+     * The amount of clicks in one pass over every target.
+     */
+    private final long clicksPerCycle;
+
+    private TargetSequence(int[] xs, int[] ys, int[] buttons, int[] repeats) {
+        this.xs = xs;
+        this.ys = ys;
+        this.buttons = buttons;
+        this.repeats = repeats;
+        long clicks = 0;
+        for (int repeat : repeats) clicks += repeat;
+        this.clicksPerCycle = clicks;
+    }
+    /**
+     * Compiles a list of targets.
+     *
+     * @param targets The targets in click order.
+     * @return {@code TargetSequence} the compiled sequence.
+     * @throws IllegalArgumentException if the list is empty.
+     */
+    public static TargetSequence compile(List<ClickTarget> targets) {
+        if (targets.isEmpty()) throw new IllegalArgumentException("A target sequence needs at least one target");
+        int n = targets.size();
+        int[] xs = new int[n], ys = new int[n], buttons = new int[n], repeats = new int[n];
+        for (int i = 0; i < n; i++) {
+            ClickTarget target = targets.get(i);
+            xs[i] = target.x();
+            ys[i] = target.y();
+            buttons[i] = target.button();
+            repeats[i] = target.repeat();
+        }
+        return new TargetSequence(xs, ys, buttons, repeats);
+    }
+    /**
+     * The amount of targets.
+     * @return {@code int} the target count.
+     */
+    public int size() {
+        return this.xs.length;
+    }
+    /**
+     * The amount of clicks in one pass over every target.
+     * @return {@code long} the sum of every repeat count.
+     */
+    public long getClicksPerCycle() {
+        return this.clicksPerCycle;
+    }
+    /**
+     * Rebuilds the target at an index.
+     * @param index The target index.
+     * @return {@code ClickTarget} the target.
+     */
+    public ClickTarget get(int index) {
+        return new ClickTarget(this.xs[index], this.ys[index], this.buttons[index], this.repeats[index]);
+    }
+}
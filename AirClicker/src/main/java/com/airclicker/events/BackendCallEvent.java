@@ -0,0 +1,35 @@
+package com.airclicker.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Recorded for an input backend call that took longer than its threshold, by default
+ * {@value FlightRecording#DEFAULT_BACKEND_MICROS} microseconds. The duration of the event is
+ * the duration of the call.
+ *
+ * @author shabman
+ * @version 1.0.0
+ */
+@Name("com.airclicker.BackendCall")
+@Label("Backend Call")
+@Category("Air Clicker")
+@Description("A slow call into the input backend")
+@StackTrace(false)
+@Threshold(FlightRecording.DEFAULT_BACKEND_MICROS + " us")
+public final class BackendCallEvent extends jdk.jfr.Event {
+    /**
+     * The call, e.g. {@code mousePress}.
+     */
+    @Label("Operation")
+    public String operation;
+    /**
+     * The button mask, key code or x coordinate passed to the call.
+     */
+    @Label("Argument")
+    public int argument;
+}
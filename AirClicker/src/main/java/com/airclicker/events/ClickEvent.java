@@ -0,0 +1,57 @@
+package com.airclicker.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Recorded for every n-th reached click deadline, see {@link FlightRecording#CLICK_SAMPLE_PROPERTY}.
+ * Sampling keeps the event usable at thousands of clicks per second, the late ones are
+ * recorded in full by {@link OvershootEvent}.
+ *
+ * @author shabman
+ * @version 1.0.0
+ */
+@Name("com.airclicker.Click")
+@Label("Click")
+@Category("Air Clicker")
+@Description("A sampled click deadline and how late it was reached")
+@StackTrace(false)
+public final class ClickEvent extends jdk.jfr.Event {
+    /**
+     * The number of the click within its session, starting at one.
+     */
+    @Label("Index")
+    public long index;
+    /**
+     * The time between the deadline and the thread waking up for it.
+     */
+    @Label("Lateness")
+    @Timespan
+    public long lateness;
+    /**
+     * The time between two clicks.
+     */
+    @Label("Period")
+    @Timespan
+    public long period;
+
+    /**
+     * Records the event if it is enabled in a running recording.
+     *
+     * @param index The number of the click within its session.
+     * @param lateness The time between the deadline and the thread waking up for it.
+     * @param period The time between two clicks.
+     */
+    public static void emit(long index, long lateness, long period) {
+        ClickEvent event = new ClickEvent();
+        if (!event.isEnabled()) return;
+        event.index = index;
+        event.lateness = lateness;
+        event.period = period;
+        event.commit();
+    }
+}
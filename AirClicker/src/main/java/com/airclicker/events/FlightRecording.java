@@ -0,0 +1,169 @@
+package com.airclicker.events;
+
+import com.airclicker.templates.constants.AirClickerConstants;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A Java Flight Recorder recording of the JVM together with the Air Clicker events, so GC
+ * pauses and safepoints can be lined up with late clicks. Started from the command line with
+ * {@code --jfr} or from the Record button, and dumped to a {@code .jfr} file for JDK Mission
+ * Control or {@code jfr print}.
+ *
+ * The recording uses the JDK {@code default} settings and keeps the last
+ * {@link #MAX_AGE} in a disk repository. While no recording runs every event costs a
+ * static check, no event is created until Flight Recorder is initialized, so the first call
+ * does not pay for bootstrapping it. The click loop only emits {@link ClickEvent} for every
+ * {@link #CLICK_SAMPLE}-th click and {@link OvershootEvent} past a threshold.
+ *
+ * @author shabman
+ * @version 1.0.1
+ */
+public final class FlightRecording implements Closeable {
+    /**
+     * The system property holding the lateness in microseconds above which a click records an {@link OvershootEvent}.
+     */
+    public static final String OVERSHOOT_PROPERTY = "airclicker.jfr.overshoot";
+    /**
+     * The system property holding how many clicks share one {@link ClickEvent}.
+     */
+    public static final String CLICK_SAMPLE_PROPERTY = "airclicker.jfr.clicks";
+    /**
+     * The system property holding the duration in microseconds above which a backend call records a {@link BackendCallEvent}.
+     */
+    public static final String BACKEND_PROPERTY = "airclicker.jfr.backend";
+    /**
+     * The overshoot threshold used when {@value #OVERSHOOT_PROPERTY} is not set.
+     */
+    public static final int DEFAULT_OVERSHOOT_MICROS = 1000;
+    /**
+     * The click sampling used when {@value #CLICK_SAMPLE_PROPERTY} is not set.
+     */
+    public static final int DEFAULT_CLICK_SAMPLE = 100;
+    /**
+     * The backend call threshold used when {@value #BACKEND_PROPERTY} is not set.
+     */
+    public static final int DEFAULT_BACKEND_MICROS = 100;
+    /**
+     * The lateness above which a click records an {@link OvershootEvent}.
+     */
+    public static final long OVERSHOOT_NANOS = TimeUnit.MICROSECONDS.toNanos(
+            Math.max(0, Integer.getInteger(OVERSHOOT_PROPERTY, DEFAULT_OVERSHOOT_MICROS)));
+    /**
+     * How many clicks share one {@link ClickEvent}.
+     */
+    public static final int CLICK_SAMPLE = Math.max(1, Integer.getInteger(CLICK_SAMPLE_PROPERTY, DEFAULT_CLICK_SAMPLE));
+    /**
+     * The span of events kept by a running recording.
+     */
+    public static final Duration MAX_AGE = Duration.ofMinutes(15);
+    /**
+     * The logger tracker to log information to the console.
+     *
+     * @apiNote There is no java doc available for {@code Logger} and {@code LoggerFactory}
+     */
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecording.class);
+    /**
+     * The running recording.
+     */
+    private final Recording recording;
+
+    /**
+     * Prevents the class from being instantiated outside the factory.
+     */
+    private FlightRecording(Recording recording) {
+        this.recording = recording;
+    }
+    /**
+     * Starts a recording with the JDK default settings and every Air Clicker event enabled.
+     *
+     * @param destination The file written when the recording is closed or the JVM exits, {@code null} to only {@link #dump(Path)}.
+     * @return {@code FlightRecording} the running recording.
+     * @throws IOException if the default settings cannot be read or the destination cannot be used.
+     * @throws IllegalStateException if Flight Recorder is not available in this JVM.
+     */
+    public static FlightRecording start(Path destination) throws IOException {
+        Recording recording;
+        try {
+            recording = new Recording(Configuration.getConfiguration("default"));
+        } catch (ParseException e) {
+            throw new IOException("Invalid JFR default settings", e);
+        }
+        recording.setName("air-clicker");
+        recording.setToDisk(true);
+        recording.setMaxAge(MAX_AGE);
+        if (destination != null) {
+            Path parent = destination.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+            recording.setDestination(destination);
+            recording.setDumpOnExit(true);
+        }
+        recording.enable(JobStartEvent.class);
+        recording.enable(JobStopEvent.class);
+        recording.enable(ClickEvent.class);
+        recording.enable(OvershootEvent.class);
+        recording.enable(BackendCallEvent.class).withThreshold(Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(
+                Math.max(0, Integer.getInteger(BACKEND_PROPERTY, DEFAULT_BACKEND_MICROS)))));
+        recording.start();
+        logger.info("Flight recording started");
+        return new FlightRecording(recording);
+    }
+    /**
+     * Determines if Flight Recorder has been started in this JVM, by {@link #start(Path)},
+     * {@code jcmd} or {@code -XX:StartFlightRecording}. Emitters skip their events until then.
+     *
+     * @return {@code boolean} true once Flight Recorder is initialized.
+     */
+    public static boolean isInitialized() {
+        return FlightRecorder.isInitialized();
+    }
+    /**
+     * Writes the events recorded so far to a file, the recording keeps running.
+     *
+     * @param file The {@code .jfr} file, its directory is created if needed.
+     * @return {@code Path} the file.
+     * @throws IOException if the file cannot be written.
+     */
+    public Path dump(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        this.recording.dump(file);
+        logger.info("Flight recording dumped to {}", file);
+        return file;
+    }
+    /**
+     * A new file for a dump, named after the current time, in the recordings directory.
+     * @return {@code Path} the file.
+     */
+    public static Path newFile() {
+        String name = "air-clicker-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".jfr";
+        return Path.of(System.getProperty("user.home"), AirClickerConstants.DATA_DIRECTORY, "recordings", name);
+    }
+    /**
+     * Stops the recording, writing it to its destination if it has one, and releases its events.
+     */
+    @Override
+    public void close() {
+        try {
+            this.recording.stop();
+        } catch (IllegalStateException ignored) {
+            // Already stopped, e.g. by the JVM exiting.
+        }
+        this.recording.close();
+    }
+}
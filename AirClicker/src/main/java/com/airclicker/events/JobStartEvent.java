@@ -0,0 +1,39 @@
+package com.airclicker.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Recorded when the clicking thread starts a session, i.e. a job handed to the engine.
+ *
+ * @author shabman
+ * @version 1.0.0
+ */
+@Name("com.airclicker.JobStart")
+@Label("Job Start")
+@Category("Air Clicker")
+@Description("A click session started on the clicking thread")
+@StackTrace(false)
+public final class JobStartEvent extends jdk.jfr.Event {
+    /**
+     * The time between two clicks.
+     */
+    @Label("Period")
+    @Timespan
+    public long period;
+    /**
+     * The time a button is held on every click.
+     */
+    @Label("Hold")
+    @Timespan
+    public long hold;
+    /**
+     * Determines if the periods are randomised.
+     */
+    @Label("Humanized")
+    public boolean humanized;
+}
@@ -0,0 +1,56 @@
+package com.airclicker.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Recorded when a session ends, with the achieved rate and how late its clicks were.
+ *
+ * @author shabman
+ * @version 1.0.0
+ */
+@Name("com.airclicker.JobStop")
+@Label("Job Stop")
+@Category("Air Clicker")
+@Description("A click session ended, with its achieved rate and lateness")
+@StackTrace(false)
+public final class JobStopEvent extends jdk.jfr.Event {
+    /**
+     * The clicks of the session.
+     */
+    @Label("Clicks")
+    public long clicks;
+    /**
+     * The time from the first to the last click.
+     */
+    @Label("Elapsed")
+    @Timespan
+    public long elapsed;
+    /**
+     * The achieved clicks per second.
+     */
+    @Label("Rate")
+    public double cps;
+    /**
+     * The median lateness of a click.
+     */
+    @Label("Lateness p50")
+    @Timespan
+    public long p50;
+    /**
+     * The 99th percentile lateness of a click.
+     */
+    @Label("Lateness p99")
+    @Timespan
+    public long p99;
+    /**
+     * The largest lateness of a click.
+     */
+    @Label("Lateness Max")
+    @Timespan
+    public long max;
+}
@@ -0,0 +1,57 @@
+package com.airclicker.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Recorded whenever a click deadline is reached later than
+ * {@link FlightRecording#OVERSHOOT_PROPERTY}, so a missed deadline can be lined up with the
+ * GC pauses and safepoints of the same recording.
+ *
+ * @author shabman
+ * @version 1.0.0
+ */
+@Name("com.airclicker.Overshoot")
+@Label("Scheduler Overshoot")
+@Category("Air Clicker")
+@Description("A click deadline reached later than the overshoot threshold")
+@StackTrace(false)
+public final class OvershootEvent extends jdk.jfr.Event {
+    /**
+     * The number of the click within its session, starting at one.
+     */
+    @Label("Index")
+    public long index;
+    /**
+     * The time between the deadline and the thread waking up for it.
+     */
+    @Label("Lateness")
+    @Timespan
+    public long lateness;
+    /**
+     * The time between two clicks.
+     */
+    @Label("Period")
+    @Timespan
+    public long period;
+
+    /**
+     * Records the event if it is enabled in a running recording.
+     *
+     * @param index The number of the click within its session.
+     * @param lateness The time between the deadline and the thread waking up for it.
+     * @param period The time between two clicks.
+     */
+    public static void emit(long index, long lateness, long period) {
+        OvershootEvent event = new OvershootEvent();
+        if (!event.isEnabled()) return;
+        event.index = index;
+        event.lateness = lateness;
+        event.period = period;
+        event.commit();
+    }
+}
@@ -0,0 +1,119 @@
+package com.airclicker.events;
+
+import com.airclicker.templates.InputBackend;
+
+import java.awt.Point;
+
+/**
+ * An {@link InputBackend} that forwards every call and records the slow ones as a
+ * {@link BackendCallEvent}. Until Flight Recorder is initialized the calls cost one extra
+ * dispatch and a static check.
+ *
+ * @author shabman
+ * @version 1.0.1
+ */
+public final class TracedInputBackend implements InputBackend {
+    /**
+     * The backend every call is forwarded to.
+     */
+    private final InputBackend backend;
+
+    /**
+     * Wraps a backend.
+     *
+     * @param backend The backend every call is forwarded to.
+     */
+    public TracedInputBackend(InputBackend backend) {
+        this.backend = backend;
+    }
+
+    @Override
+    public void mousePress(int buttons) {
+        if (!FlightRecording.isInitialized()) {
+            this.backend.mousePress(buttons);
+            return;
+        }
+        BackendCallEvent event = new BackendCallEvent();
+        event.begin();
+        this.backend.mousePress(buttons);
+        commit(event, "mousePress", buttons);
+    }
+
+    @Override
+    public void mouseRelease(int buttons) {
+        if (!FlightRecording.isInitialized()) {
+            this.backend.mouseRelease(buttons);
+            return;
+        }
+        BackendCallEvent event = new BackendCallEvent();
+        event.begin();
+        this.backend.mouseRelease(buttons);
+        commit(event, "mouseRelease", buttons);
+    }
+
+    @Override
+    public void mouseBatch(int release, int press, int click) {
+        if (!FlightRecording.isInitialized()) {
+            this.backend.mouseBatch(release, press, click);
+            return;
+        }
+        BackendCallEvent event = new BackendCallEvent();
+        event.begin();
+        this.backend.mouseBatch(release, press, click);
+        commit(event, "mouseBatch", release | press | click);
+    }
+
+    @Override
+    public void mouseMove(int x, int y) {
+        if (!FlightRecording.isInitialized()) {
+            this.backend.mouseMove(x, y);
+            return;
+        }
+        BackendCallEvent event = new BackendCallEvent();
+        event.begin();
+        this.backend.mouseMove(x, y);
+        commit(event, "mouseMove", x);
+    }
+
+    @Override
+    public void keyPress(int keycode) {
+        if (!FlightRecording.isInitialized()) {
+            this.backend.keyPress(keycode);
+            return;
+        }
+        BackendCallEvent event = new BackendCallEvent();
+        event.begin();
+        this.backend.keyPress(keycode);
+        commit(event, "keyPress", keycode);
+    }
+
+    @Override
+    public void keyRelease(int keycode) {
+        if (!FlightRecording.isInitialized()) {
+            this.backend.keyRelease(keycode);
+            return;
+        }
+        BackendCallEvent event = new BackendCallEvent();
+        event.begin();
+        this.backend.keyRelease(keycode);
+        commit(event, "keyRelease", keycode);
+    }
+
+    @Override
+    public Point getPointerLocation() {
+        return this.backend.getPointerLocation();
+    }
+
+    @Override
+    public void close() {
+        this.backend.close();
+    }
+
+    private static void commit(BackendCallEvent event, String operation, int argument) {
+        event.end();
+        if (!event.shouldCommit()) return;
+        event.operation = operation;
+        event.argument = argument;
+        event.commit();
+    }
+}
@@ -0,0 +1,75 @@
+package com.airclicker.macros;
+
+import java.awt.event.InputEvent;
+import java.nio.ByteOrder;
+
+/**
+ * The layout of a recorded macro file. A file starts with a {@value #HEADER_SIZE} byte header
+ * followed by fixed width {@value #RECORD_SIZE} byte records, so the n-th event can be read at
+ * {@code HEADER_SIZE + n * RECORD_SIZE} without parsing anything before it.
+ *
+ * <pre>
+ * header: int magic, short version, short recordSize, long eventCount
+ * record: long deltaNanos, int x, int y, short button, short action
+ * </pre>
+ *
+ * All values are little endian.
+ *
+ * @author shabman
+ * @version 1.0.0
+ */
+public final class MacroFormat {
+    /**
+     * The magic number at the start of every macro file, {@code AIRM} in ASCII.
+     */
+    public static final int MAGIC = 0x4149524D;
+    /**
+     * The current format version.
+     */
+    public static final short VERSION = 1;
+    public static final int HEADER_SIZE = 16;
+    public static final int RECORD_SIZE = 20;
+    public static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+    /**
+     * The pointer moved to {@code (x, y)}.
+     */
+    public static final short MOVE = 0;
+    /**
+     * The button was pressed at {@code (x, y)}.
+     */
+    public static final short PRESS = 1;
+    /**
+     * The button was released at {@code (x, y)}.
+     */
+    public static final short RELEASE = 2;
+    /**
+     * The highest button number that can be stored.
+     */
+    public static final int MAX_BUTTON = 20;
+
+    /**
+     * Prevents the class from being instantiated
+     */
+    private MacroFormat() { }
+    /**
+     * Converts a button mask into the button number stored in a record.
+     *
+     * @param mask The {@code InputEvent} button mask.
+     * @return {@code short} the lowest button number in the mask, {@code 0} for none.
+     */
+    public static short buttonOf(int mask) {
+        for (int button = 1; button <= MAX_BUTTON; button++)
+            if ((mask & InputEvent.getMaskForButton(button)) != 0) return (short) button;
+        return 0;
+    }
+    /**
+     * Builds the table used during replay to turn a stored button number back into a mask.
+     *
+     * @return {@code int[]} the masks indexed by button number, index {@code 0} is no button.
+     */
+    public static int[] maskTable() {
+        int[] masks = new int[MAX_BUTTON + 1];
+        for (int button = 1; button <= MAX_BUTTON; button++) masks[button] = InputEvent.getMaskForButton(button);
+        return masks;
+    }
+}
@@ -0,0 +1,143 @@
+package com.airclicker.macros;
+
+import com.airclicker.controllers.ClickScheduler;
+import com.airclicker.controllers.ClickStats;
+import com.airclicker.controllers.JitterHistogram;
+import com.airclicker.templates.InputBackend;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.BooleanSupplier;
+
+/**
+ * The {@code MacroPlayer} class replays a file written by {@link MacroRecorder}. The file is
+ * memory mapped and read record by record, so replay does not allocate per event and the
+ * size of a macro is only limited by the address space. Events are replayed against absolute
+ * deadlines computed from the summed deltas, so timing errors never accumulate.
+ *
+ * The waits go through a {@link ClickScheduler}, so {@link ClickScheduler#wake()} stops a
+ * replay right away even when the next event is minutes ahead. Buttons the macro still holds
+ * when replay ends are released.
+ *
+ * @author shabman
+ * @version 1.1.0
+ */
+public final class MacroPlayer implements AutoCloseable {
+    /**
+     * The amount of records mapped at once, kept below the 2GB limit of a single mapping.
+     */
+    private static final long WINDOW_RECORDS = (Integer.MAX_VALUE - MacroFormat.HEADER_SIZE) / MacroFormat.RECORD_SIZE;
+    /**
+     * The channel of the macro file.
+     */
+    private final FileChannel channel;
+    /**
+     * The amount of events in the file.
+     */
+    private final long count;
+    /**
+     * The button masks indexed by button number.
+     */
+    private final int[] masks = MacroFormat.maskTable();
+
+    /**
+     * Opens a macro file and validates its header.
+     *
+     * @param file The macro file.
+     * @throws IOException if the file cannot be read or is not a macro file.
+     */
+    public MacroPlayer(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            MappedByteBuffer header = this.channel.map(FileChannel.MapMode.READ_ONLY, 0, MacroFormat.HEADER_SIZE);
+            header.order(MacroFormat.ORDER);
+            if (header.getInt(0) != MacroFormat.MAGIC) throw new IOException("Not a macro file: " + file);
+            if (header.getShort(4) != MacroFormat.VERSION) throw new IOException("Unsupported macro version: " + header.getShort(4));
+            if (header.getShort(6) != MacroFormat.RECORD_SIZE) throw new IOException("Unsupported record size: " + header.getShort(6));
+            this.count = header.getLong(8);
+            if (MacroFormat.HEADER_SIZE + this.count * MacroFormat.RECORD_SIZE > this.channel.size())
+                throw new IOException("Truncated macro file: " + file);
+        } catch (IOException e) {
+            this.channel.close();
+            throw e;
+        }
+    }
+    /**
+     * Replays every event through the backend.
+     *
+     * @param backend The backend events are sent to.
+     * @param speed The speed multiplier, {@code 2.0} replays twice as fast.
+     * @param scheduler The started scheduler whose {@link ClickScheduler#wake()} ends the wait for the next event.
+     * @param running Checked before every event, replay stops once it returns false.
+     * @return {@code ClickStats} the amount of events replayed and how late they were.
+     * @throws IOException if the file cannot be mapped or holds an invalid button.
+     */
+    public ClickStats play(InputBackend backend, double speed, ClickScheduler scheduler, BooleanSupplier running) throws IOException {
+        if (!(speed > 0)) throw new IllegalArgumentException("Speed must be positive: " + speed);
+        JitterHistogram jitter = new JitterHistogram();
+        long origin = System.nanoTime();
+        long elapsed = 0;
+        long played = 0;
+        long last = origin;
+        int held = 0;
+        try {
+            replay:
+            for (long base = 0; base < this.count && running.getAsBoolean(); base += WINDOW_RECORDS) {
+                int records = (int) Math.min(WINDOW_RECORDS, this.count - base);
+                MappedByteBuffer window = this.channel.map(FileChannel.MapMode.READ_ONLY,
+                        MacroFormat.HEADER_SIZE + base * MacroFormat.RECORD_SIZE, (long) records * MacroFormat.RECORD_SIZE);
+                window.order(MacroFormat.ORDER);
+                for (int i = 0, offset = 0; i < records; i++, offset += MacroFormat.RECORD_SIZE) {
+                    if (!running.getAsBoolean()) break replay;
+                    elapsed += window.getLong(offset);
+                    long deadline = origin + (long) (elapsed / speed);
+                    if (!scheduler.awaitDeadline(deadline) || !running.getAsBoolean()) break replay;
+                    int x = window.getInt(offset + 8);
+                    int y = window.getInt(offset + 12);
+                    int button = window.getShort(offset + 16);
+                    short action = window.getShort(offset + 18);
+                    if ((action == MacroFormat.PRESS || action == MacroFormat.RELEASE) && (button < 1 || button > MacroFormat.MAX_BUTTON))
+                        throw new IOException("Invalid button " + button + " in event " + (base + i));
+                    switch (action) {
+                        case MacroFormat.MOVE -> backend.mouseMove(x, y);
+                        case MacroFormat.PRESS -> {
+                            backend.mouseMove(x, y);
+                            backend.mousePress(this.masks[button]);
+                            held |= this.masks[button];
+                        }
+                        case MacroFormat.RELEASE -> {
+                            backend.mouseMove(x, y);
+                            backend.mouseRelease(this.masks[button]);
+                            held &= ~this.masks[button];
+                        }
+                        default -> { }
+                    }
+                    last = System.nanoTime();
+                    jitter.record(last - deadline);
+                    played++;
+                }
+            }
+        } finally {
+            // Never leave a button down when the replay is stopped or fails halfway.
+            if (held != 0) backend.mouseRelease(held);
+        }
+        long total = last - origin;
+        return new ClickStats(played, total, total > 0 ? played * 1e9 / total : 0.0,
+                jitter.percentile(50), jitter.percentile(99), jitter.percentile(99.9), jitter.getMax());
+    }
+    /**
+     * The amount of events in the macro.
+     * @return {@code long} the event count.
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+}
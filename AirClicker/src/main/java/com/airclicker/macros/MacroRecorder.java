@@ -0,0 +1,207 @@
+package com.airclicker.macros;
+
+import com.airclicker.templates.InputBackend;
+
+import java.awt.AWTEvent;
+import java.awt.Point;
+import java.awt.event.AWTEventListener;
+import java.awt.event.MouseEvent;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * The {@code MacroRecorder} class captures a sequence of mouse moves, presses and releases as
+ * {@code (deltaNanos, x, y, button, action)} tuples held in primitive arrays, and saves them in
+ * the {@link MacroFormat} layout.
+ *
+ * <p>Events can be fed in three ways: by calling {@link #record(short, int, int, int)}, by using
+ * the recorder as an {@link InputBackend} that forwards to another backend, or by registering it
+ * as an {@code AWTEventListener} to capture mouse events delivered to Air Clicker's own windows.
+ * Java has no portable global mouse hook, so events outside the application have to come from a
+ * backend that can observe them.</p>
+ *
+ * <p>Instances are not thread safe, events must come from a single thread.</p>
+ *
+ * @author shabman
+ * @version 1.0.0
+ */
+public final class MacroRecorder implements InputBackend, AWTEventListener {
+    /**
+     * The backend events are forwarded to when used as an {@code InputBackend}, may be {@code null}.
+     */
+    private final InputBackend delegate;
+    private long[] deltas;
+    private int[] xs;
+    private int[] ys;
+    private short[] buttons;
+    private short[] actions;
+    /**
+     * The amount of events recorded.
+     */
+    private int size;
+    /**
+     * The time of the previous event, {@code 0} before the first event.
+     */
+    private long previous;
+    /**
+     * The last known pointer position.
+     */
+    private int x, y;
+
+    /**
+     * Creates a recorder that does not forward events.
+     */
+    public MacroRecorder() {
+        this(null, 4096);
+    }
+    /**
+     * Creates a recorder.
+     *
+     * @param delegate The backend events are forwarded to, may be {@code null}.
+     * @param capacity The amount of events that can be recorded before the arrays grow.
+     */
+    public MacroRecorder(InputBackend delegate, int capacity) {
+        this.delegate = delegate;
+        capacity = Math.max(16, capacity);
+        this.deltas = new long[capacity];
+        this.xs = new int[capacity];
+        this.ys = new int[capacity];
+        this.buttons = new short[capacity];
+        this.actions = new short[capacity];
+    }
+    /**
+     * Records a single event at the current time.
+     *
+     * @param action {@link MacroFormat#MOVE}, {@link MacroFormat#PRESS} or {@link MacroFormat#RELEASE}.
+     * @param x The x coordinate of the pointer.
+     * @param y The y coordinate of the pointer.
+     * @param button The button number, {@code 0} for moves.
+     */
+    public void record(short action, int x, int y, int button) {
+        long now = System.nanoTime();
+        int i = this.size;
+        if (i == this.deltas.length) this.grow();
+        this.deltas[i] = this.previous == 0 ? 0 : now - this.previous;
+        this.xs[i] = x;
+        this.ys[i] = y;
+        this.buttons[i] = (short) button;
+        this.actions[i] = action;
+        this.previous = now;
+        this.x = x;
+        this.y = y;
+        this.size = i + 1;
+    }
+
+    @Override
+    public void mousePress(int buttons) {
+        this.record(MacroFormat.PRESS, this.x, this.y, MacroFormat.buttonOf(buttons));
+        if (this.delegate != null) this.delegate.mousePress(buttons);
+    }
+
+    @Override
+    public void mouseRelease(int buttons) {
+        this.record(MacroFormat.RELEASE, this.x, this.y, MacroFormat.buttonOf(buttons));
+        if (this.delegate != null) this.delegate.mouseRelease(buttons);
+    }
+
+    @Override
+    public void mouseMove(int x, int y) {
+        this.record(MacroFormat.MOVE, x, y, 0);
+        if (this.delegate != null) this.delegate.mouseMove(x, y);
+    }
+
+    @Override
+    public void keyPress(int keycode) {
+        if (this.delegate != null) this.delegate.keyPress(keycode);
+    }
+
+    @Override
+    public void keyRelease(int keycode) {
+        if (this.delegate != null) this.delegate.keyRelease(keycode);
+    }
+
+    @Override
+    public Point getPointerLocation() {
+        return this.delegate != null ? this.delegate.getPointerLocation() : new Point(this.x, this.y);
+    }
+    /**
+     * Records mouse events delivered to the application's windows. Register with
+     * {@code Toolkit.getDefaultToolkit().addAWTEventListener(recorder, AWTEvent.MOUSE_EVENT_MASK
+     * | AWTEvent.MOUSE_MOTION_EVENT_MASK)}.
+     *
+     * @param event The AWT event.
+     */
+    @Override
+    public void eventDispatched(AWTEvent event) {
+        if (!(event instanceof MouseEvent e)) return;
+        switch (e.getID()) {
+            case MouseEvent.MOUSE_MOVED, MouseEvent.MOUSE_DRAGGED ->
+                    this.record(MacroFormat.MOVE, e.getXOnScreen(), e.getYOnScreen(), 0);
+            case MouseEvent.MOUSE_PRESSED ->
+                    this.record(MacroFormat.PRESS, e.getXOnScreen(), e.getYOnScreen(), e.getButton());
+            case MouseEvent.MOUSE_RELEASED ->
+                    this.record(MacroFormat.RELEASE, e.getXOnScreen(), e.getYOnScreen(), e.getButton());
+            default -> { }
+        }
+    }
+    /**
+     * Forgets every recorded event while keeping the allocated capacity.
+     */
+    public void clear() {
+        this.size = 0;
+        this.previous = 0;
+    }
+    /**
+     * The amount of events recorded.
+     * @return {@code int} the event count.
+     */
+    public int size() {
+        return this.size;
+    }
+    /**
+     * Writes the recorded events to a file in the {@link MacroFormat} layout, replacing it if it exists.
+     *
+     * @param file The file to write.
+     * @throws IOException if the file cannot be written.
+     */
+    public void save(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(MacroFormat.RECORD_SIZE * 4096).order(MacroFormat.ORDER);
+            buffer.putInt(MacroFormat.MAGIC)
+                    .putShort(MacroFormat.VERSION)
+                    .putShort((short) MacroFormat.RECORD_SIZE)
+                    .putLong(this.size);
+            for (int i = 0; i < this.size; i++) {
+                if (buffer.remaining() < MacroFormat.RECORD_SIZE) drain(channel, buffer);
+                buffer.putLong(this.deltas[i])
+                        .putInt(this.xs[i])
+                        .putInt(this.ys[i])
+                        .putShort(this.buttons[i])
+                        .putShort(this.actions[i]);
+            }
+            drain(channel, buffer);
+            channel.force(false);
+        }
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+
+    private void grow() {
+        int capacity = this.deltas.length << 1;
+        this.deltas = Arrays.copyOf(this.deltas, capacity);
+        this.xs = Arrays.copyOf(this.xs, capacity);
+        this.ys = Arrays.copyOf(this.ys, capacity);
+        this.buttons = Arrays.copyOf(this.buttons, capacity);
+        this.actions = Arrays.copyOf(this.actions, capacity);
+    }
+}
@@ -0,0 +1,529 @@
+package com.airclicker.main;
+
+import com.airclicker.control.ControlServer;
+import com.airclicker.controllers.ClickChannels;
+import com.airclicker.controllers.ClickJob;
+import com.airclicker.controllers.ClickStats;
+import com.airclicker.controllers.ClickTarget;
+import com.airclicker.controllers.ClickTiming;
+import com.airclicker.controllers.Clicker;
+import com.airclicker.controllers.ClickerEngine;
+import com.airclicker.controllers.HumanTiming;
+import com.airclicker.controllers.JobScheduler;
+import com.airclicker.controllers.KeySequence;
+import com.airclicker.controllers.MouseButton;
+import com.airclicker.controllers.MouseMotion;
+import com.airclicker.controllers.PixelTrigger;
+import com.airclicker.controllers.TargetSequence;
+import com.airclicker.events.FlightRecording;
+import com.airclicker.macros.MacroPlayer;
+import com.airclicker.macros.MacroRecorder;
+import com.airclicker.managers.BackendManager;
+import com.airclicker.managers.ScreenTopology;
+import com.airclicker.templates.FrameSource;
+import com.airclicker.templates.InputBackend;
+import com.airclicker.templates.constants.AirClickerConstants;
+import com.airclicker.vision.TemplateMatcher;
+
+import javax.imageio.ImageIO;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code CommandLineRunner} class drives the click engine from the command line without
+ * touching Swing or FlatLaf, which keeps startup time and memory low for scripted runs.
+ * A summary of the achieved rate and latency is printed when the run ends, including when it
+ * is interrupted with Ctrl+C.
+ *
+ * <pre>
+ * --rate 500cps --limit 10000 --button left --at 100,200 --at 300,200,5
+ * --rate 8cps --humanize lognormal:0.3,max=3,jitter=4 --at 100,200
+ * --rate 4cps --glide bezier@240hz --at 100,200 --at 900,600
+ * --rate 10cps --at 1:2400,300 --at 0:640,360
+ * --play farm.airm --speed 2
+ * --rate 4cps --glide bezier --at 100,200 --at 900,600 --limit 8 --record farm.airm
+ * --control unix:/tmp/air-clicker.sock
+ * --rate 20cps --limit 500 --schedule 2024-05-01T08:30
+ * --run-jobs --control tcp:7777
+ * --channel left:20cps --channel right:3cps:100
+ * --rate 1000cps --limit 5000 --type "Hello, World!\n"
+ * --rate 5cps --keys "ctrl+a ctrl+c"
+ * --rate 1000cps --watch 640,360,4,4 --color ff0000 --tolerance 16
+ * --rate 5cps --limit 20 --find button.png --threshold 0.95
+ * --rate 1000cps --limit 100000 --jfr clicks.jfr
+ * </pre>
+ *
+ * With {@code --control} or {@code --run-jobs} and no {@code --rate} the runner serves the
+ * {@link ControlServer} and the {@link JobScheduler} until it is interrupted, otherwise the
+ * started job can be reconfigured while it runs. {@code --schedule} only adds the job to the
+ * queue file and exits. {@code --channel} clicks several buttons at their own rates on
+ * {@link ClickChannels} until every limited channel is done or the run is interrupted.
+ * A target prefixed with a screen index is in device pixels of that screen, e.g. read off a
+ * screenshot, and is mapped to the virtual desktop through the {@link ScreenTopology}.
+ * {@code --jfr} records the whole run with Flight Recorder, see {@link FlightRecording}.
+ * {@code --record} saves every event sent to the backend as a macro for {@code --play}.
+ *
+ * @author shabman
+ * @version 1.8.0
+ */
+public final class CommandLineRunner {
+    public static final int EXIT_OK = 0;
+    public static final int EXIT_FAILURE = 1;
+    public static final int EXIT_USAGE = 2;
+    /**
+     * The longest a Ctrl+C waits for the stopped job to print its summary.
+     */
+    private static final int SUMMARY_TIMEOUT_SECONDS = 2;
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: air-clicker [options]",
+            "  --rate <spec>       Click timing, e.g. 10 (ms), 250us, 500cps, 20cps@50%",
+            "  --limit <n>         Amount of clicks, 0 for no limit (default 0)",
+            "  --humanize <spec>   Randomise the rate, e.g. gauss:0.1 or lognormal:0.3,min=0.5,max=3,jitter=4",
+            "  --button <name>     left, right, middle or default (default left)",
+            "  --at <[s:]x,y[,n]>  Click target, repeatable, n clicks per visit (default 1), in pixels of screen s if given",
+            "  --glide <curve>     Move between --at targets along bezier or minjerk, e.g. bezier@240hz (default " + MouseMotion.DEFAULT_HZ + "hz)",
+            "  --channel <b:r[:n]> Click button b at rate r, n times, alongside other channels, repeatable",
+            "  --type <text>       Type text instead of clicking, one keystroke per rate tick",
+            "  --keys <chords>     Press chords instead of clicking, e.g. \"ctrl+a ctrl+c f5\"",
+            "  --watch <x,y[,w,h]> Click when this region shows --color, polled at --rate",
+            "  --color <rrggbb>    The colour --watch waits for",
+            "  --tolerance <n>     Largest difference per colour channel that still matches (default 0)",
+            "  --match <any|all>   Whether one or every pixel of the region has to match (default all)",
+            "  --find <image>      Click the centre of this image wherever it shows on screen, searched at --rate",
+            "  --threshold <0..1>  Smallest correlation --find accepts as a match (default " + TemplateMatcher.DEFAULT_THRESHOLD + ")",
+            "  --play <file>       Replay a recorded macro instead of clicking",
+            "  --speed <factor>    Macro replay speed multiplier (default 1)",
+            "  --record <file>     Save the events sent during the run as a macro for --play",
+            "  --backend <name>    Input backend, e.g. robot, null (default: best available)",
+            "  --jfr <file>        Record the run with Flight Recorder into this file, also written on Ctrl+C",
+            "  --control <addr>    Accept commands on unix:<path> or tcp:<port> (loopback only)",
+            "  --schedule <when>   Queue the job instead of running it: now, +30s, +5m, +2h or 2024-05-01T08:30",
+            "  --after <id>        Queue the job to start once job <id> has finished",
+            "  --run-jobs          Run the queued jobs until interrupted",
+            "  --jobs <file>       The job queue file (default ~/" + AirClickerConstants.DATA_DIRECTORY + "/jobs)",
+            "  --help              Show this message");
+
+    private final PrintStream out;
+    private ClickTiming timing;
+    private long limit;
+    private MouseButton button = MouseButton.LEFT;
+    private final List<ClickTarget> targets = new ArrayList<>();
+    private final List<String[]> channels = new ArrayList<>();
+    private KeySequence keys;
+    private HumanTiming humanTiming;
+    private MouseMotion motion;
+    private int[] watch;
+    private int color = -1;
+    private int tolerance;
+    private boolean matchAny;
+    private Path find;
+    private double threshold = TemplateMatcher.DEFAULT_THRESHOLD;
+    private Path macro;
+    private Path record;
+    private MacroRecorder recorder;
+    private double speed = 1.0;
+    private String backend;
+    private InputBackend input;
+    private Path jfr;
+    private String control;
+    private String schedule;
+    private long after;
+    private boolean runJobs;
+    private Path jobs = Path.of(System.getProperty("user.home"), AirClickerConstants.DATA_DIRECTORY, "jobs");
+
+    private CommandLineRunner(PrintStream out) {
+        this.out = out;
+    }
+    /**
+     * Parses the arguments, runs the job and prints its summary.
+     *
+     * @param args The command line arguments.
+     * @return {@code int} the process exit code.
+     */
+    public static int run(String[] args) {
+        CommandLineRunner runner = new CommandLineRunner(System.out);
+        try {
+            if (!runner.parse(args)) {
+                runner.out.println(USAGE);
+                return EXIT_OK;
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            return EXIT_USAGE;
+        }
+        if (runner.jfr == null) return runner.execute();
+        FlightRecording recording;
+        try {
+            recording = FlightRecording.start(runner.jfr);
+        } catch (IOException | IllegalStateException e) {
+            System.err.println("Cannot start flight recording: " + e.getMessage());
+            return EXIT_FAILURE;
+        }
+        try {
+            return runner.execute();
+        } finally {
+            recording.close();
+            runner.out.println("jfr:      " + runner.jfr.toAbsolutePath());
+        }
+    }
+    /**
+     * Reads every option into this runner.
+     *
+     * @return {@code boolean} false if only the usage should be shown.
+     * @throws IllegalArgumentException if an option is unknown or malformed.
+     */
+    private boolean parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--help", "-h" -> {
+                    return false;
+                }
+                case "--rate" -> this.timing = ClickTiming.parse(value(args, ++i, arg));
+                case "--humanize" -> this.humanTiming = HumanTiming.parse(value(args, ++i, arg));
+                case "--glide" -> this.motion = MouseMotion.parse(value(args, ++i, arg));
+                case "--limit" -> this.limit = parseLong(value(args, ++i, arg), arg);
+                case "--button" -> this.button = MouseButton.parse(value(args, ++i, arg));
+                case "--at" -> this.targets.add(parseTarget(value(args, ++i, arg)));
+                case "--channel" -> this.channels.add(parseChannel(value(args, ++i, arg)));
+                case "--type" -> this.keys = KeySequence.ofText(value(args, ++i, arg).replace("\\n", "\n"));
+                case "--keys" -> this.keys = KeySequence.parse(value(args, ++i, arg));
+                case "--watch" -> this.watch = parseRegion(value(args, ++i, arg));
+                case "--color" -> this.color = parseColor(value(args, ++i, arg));
+                case "--tolerance" -> this.tolerance = (int) parseLong(value(args, ++i, arg), arg);
+                case "--match" -> this.matchAny = parseMatch(value(args, ++i, arg));
+                case "--find" -> this.find = Path.of(value(args, ++i, arg));
+                case "--threshold" -> this.threshold = Double.parseDouble(value(args, ++i, arg));
+                case "--play" -> this.macro = Path.of(value(args, ++i, arg));
+                case "--record" -> this.record = Path.of(value(args, ++i, arg));
+                case "--speed" -> this.speed = Double.parseDouble(value(args, ++i, arg));
+                case "--backend" -> this.backend = value(args, ++i, arg);
+                case "--jfr" -> this.jfr = Path.of(value(args, ++i, arg));
+                case "--control" -> this.control = value(args, ++i, arg);
+                case "--schedule" -> this.schedule = value(args, ++i, arg);
+                case "--after" -> this.after = parseLong(value(args, ++i, arg), arg);
+                case "--run-jobs" -> this.runJobs = true;
+                case "--jobs" -> this.jobs = Path.of(value(args, ++i, arg));
+                default -> throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        if (this.after != 0 && this.schedule == null) this.schedule = "now";
+        if (this.schedule != null && (this.timing == null || this.macro != null))
+            throw new IllegalArgumentException("--schedule needs --rate and cannot be used with --play");
+        if (this.record != null && (this.schedule != null || this.watch != null || this.find != null))
+            throw new IllegalArgumentException("--record cannot be used with --schedule, --watch or --find");
+        if (!this.channels.isEmpty()) {
+            this.input = this.recording(BackendManager.load(this.backend));
+            return true;
+        }
+        if (this.watch != null && this.color < 0) throw new IllegalArgumentException("--watch needs --color");
+        if (this.tolerance < 0 || this.tolerance > 255) throw new IllegalArgumentException("--tolerance must be between 0 and 255");
+        if (!(this.threshold > 0 && this.threshold <= 1)) throw new IllegalArgumentException("--threshold must be above 0 and at most 1");
+        if (this.macro == null && this.timing == null && this.control == null && !this.runJobs)
+            throw new IllegalArgumentException("Missing --rate");
+        if (this.record != null && this.macro == null && this.timing == null)
+            throw new IllegalArgumentException("--record needs --rate or --play");
+        if (this.limit < 0) throw new IllegalArgumentException("--limit must not be negative");
+        int mask = this.button.mask();
+        this.targets.replaceAll(target -> new ClickTarget(target.x(), target.y(), mask, target.repeat()));
+        this.input = this.recording(BackendManager.load(this.backend));
+        return true;
+    }
+    /**
+     * Puts a {@link MacroRecorder} in front of the backend when {@code --record} is given.
+     */
+    private InputBackend recording(InputBackend backend) {
+        if (this.record == null) return backend;
+        this.recorder = new MacroRecorder(backend, 4096);
+        return this.recorder;
+    }
+
+    private int execute() {
+        Clicker clicker = Clicker.build(this.input);
+        clicker.setHumanTiming(this.humanTiming);
+        clicker.setMotion(this.motion);
+        if (!this.channels.isEmpty()) return this.runChannels(clicker);
+        ClickerEngine engine = ClickerEngine.build(clicker);
+        JobScheduler scheduler = null;
+        if (this.schedule != null || this.runJobs) {
+            try {
+                scheduler = JobScheduler.load(engine, this.jobs);
+                if (this.schedule != null) return this.enqueue(scheduler);
+            } catch (IOException e) {
+                System.err.println("Cannot use job queue: " + e.getMessage());
+                return EXIT_FAILURE;
+            }
+        }
+        ControlServer server = null;
+        if (this.control != null) {
+            try {
+                server = ControlServer.open(engine, scheduler, this.control);
+            } catch (IOException e) {
+                System.err.println("Cannot open control socket: " + e.getMessage());
+                return EXIT_FAILURE;
+            }
+        }
+        if (this.macro == null && this.timing == null) {
+            if (scheduler != null) scheduler.start();
+            return this.serve(engine, server, scheduler);
+        }
+
+        CompletableFuture<ClickStats> job;
+        MacroPlayer player = null;
+        PixelTrigger trigger = null;
+        try {
+            if (this.macro != null) {
+                player = new MacroPlayer(this.macro);
+                job = engine.play(player, this.speed);
+            } else if (this.watch != null) {
+                if (!(clicker.getBackend() instanceof FrameSource source)) {
+                    System.err.println("The input backend cannot read the screen, use --backend robot");
+                    return EXIT_FAILURE;
+                }
+                trigger = this.matchAny
+                        ? PixelTrigger.any(source, this.watch[0], this.watch[1], this.watch[2], this.watch[3], this.color, this.tolerance)
+                        : PixelTrigger.all(source, this.watch[0], this.watch[1], this.watch[2], this.watch[3], this.color, this.tolerance);
+                job = engine.start(this.timing, this.limit, trigger, this.button);
+            } else if (this.find != null) {
+                if (!(clicker.getBackend() instanceof FrameSource source)) {
+                    System.err.println("The input backend cannot read the screen, use --backend robot");
+                    return EXIT_FAILURE;
+                }
+                BufferedImage image = ImageIO.read(this.find.toFile());
+                if (image == null) {
+                    System.err.println("Cannot read image: " + this.find);
+                    return EXIT_FAILURE;
+                }
+                TemplateMatcher matcher = TemplateMatcher.of(image, this.threshold, ForkJoinPool.commonPool());
+                Rectangle screen = ScreenTopology.shared().getVirtualBounds();
+                job = engine.start(this.timing, this.limit, matcher, source, screen, this.button);
+            } else if (this.keys != null) {
+                job = engine.start(this.timing, this.limit, this.keys);
+            } else if (!this.targets.isEmpty()) {
+                job = engine.start(this.timing, this.limit, TargetSequence.compile(this.targets));
+            } else {
+                job = engine.start(this.timing, this.limit, this.button);
+            }
+        } catch (IOException e) {
+            System.err.println("Cannot open " + (this.macro != null ? "macro: " : "image: ") + e.getMessage());
+            return EXIT_FAILURE;
+        }
+        if (scheduler != null) scheduler.start();
+
+        // On Ctrl+C the hook stops the job and keeps the JVM alive until the summary is printed.
+        CountDownLatch printed = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            engine.stop();
+            awaitQuietly(printed);
+        }, "air-clicker-shutdown"));
+
+        ClickStats stats = job.join();
+        this.printSummary(clicker, stats);
+        if (trigger != null) {
+            this.out.println(String.format("trigger:  capture to click p50 %.1f us, p99 %.1f us, max %.1f us",
+                    trigger.getLatency().percentile(50) / 1e3, trigger.getLatency().percentile(99) / 1e3,
+                    trigger.getLatency().getMax() / 1e3));
+        }
+        boolean saved = this.saveRecording();
+        printed.countDown();
+        if (player != null) {
+            try {
+                player.close();
+            } catch (IOException ignored) { }
+        }
+        if (scheduler != null) scheduler.close();
+        if (server != null) server.close();
+        engine.shutdown();
+        return saved ? EXIT_OK : EXIT_FAILURE;
+    }
+
+    /**
+     * Runs every {@code --channel} on one wheel until the limited ones are done, or until
+     * interrupted if none is limited.
+     */
+    private int runChannels(Clicker clicker) {
+        ClickChannels wheel = ClickChannels.build(clicker.getBackend());
+        int[] ids = new int[this.channels.size()];
+        for (int i = 0; i < ids.length; i++) {
+            String[] channel = this.channels.get(i);
+            ids[i] = wheel.open(MouseButton.parse(channel[0]), ClickTiming.parse(channel[1]),
+                    channel.length > 2 ? parseLong(channel[2], "--channel") : 0);
+        }
+        long start = System.nanoTime();
+        CountDownLatch printed = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            wheel.closeAll();
+            awaitQuietly(printed);
+        }, "air-clicker-shutdown"));
+        try {
+            while (wheel.isActive()) Thread.sleep(50);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        wheel.close();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        this.out.println("backend:  " + clicker.getBackend().getClass().getSimpleName());
+        for (int i = 0; i < ids.length; i++) {
+            String[] channel = this.channels.get(i);
+            this.out.println(String.format("channel:  %s %s, %d clicks", channel[0], channel[1], wheel.getClicks(ids[i])));
+        }
+        this.out.println(String.format("latency:  tick p99 %.1f us, max %.1f us in %.3f s",
+                wheel.getJitter().percentile(99) / 1e3, wheel.getJitter().getMax() / 1e3, seconds));
+        boolean saved = this.saveRecording();
+        printed.countDown();
+        return saved ? EXIT_OK : EXIT_FAILURE;
+    }
+
+    /**
+     * Writes the events recorded with {@code --record}, if any, to the macro file.
+     *
+     * @return {@code boolean} false if the file could not be written.
+     */
+    private boolean saveRecording() {
+        if (this.recorder == null) return true;
+        try {
+            this.recorder.save(this.record);
+        } catch (IOException e) {
+            System.err.println("Cannot write macro: " + e.getMessage());
+            return false;
+        }
+        this.out.println("macro:    " + this.recorder.size() + " events to " + this.record.toAbsolutePath());
+        return true;
+    }
+
+    /**
+     * Lets a shutdown hook wait for the main thread to print its summary, bounded so a stuck
+     * job cannot keep the JVM from exiting.
+     */
+    private static void awaitQuietly(CountDownLatch printed) {
+        try {
+            printed.await(SUMMARY_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Adds the configured job to the queue file without running it.
+     */
+    private int enqueue(JobScheduler scheduler) throws IOException {
+        ClickJob job = ClickJob.of(this.timing, this.limit, this.button, this.targets)
+                .startingAt(JobScheduler.parseTime(this.schedule));
+        if (this.after != 0) job = job.chainedTo(this.after);
+        this.out.println("job:      " + scheduler.submit(job));
+        return EXIT_OK;
+    }
+
+    /**
+     * Serves the control socket and the job queue until the process is interrupted.
+     */
+    private int serve(ClickerEngine engine, ControlServer server, JobScheduler scheduler) {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (scheduler != null) scheduler.close();
+            engine.stop();
+            if (server != null) server.close();
+        }, "air-clicker-shutdown"));
+        try {
+            if (server != null) {
+                this.out.println("control:  " + server.getAddress());
+                server.join();
+            } else {
+                this.out.println("jobs:     " + this.jobs);
+                new CountDownLatch(1).await();
+            }
+        } catch (IOException e) {
+            System.err.println("Control socket closed: " + e.getMessage());
+            return EXIT_FAILURE;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return EXIT_OK;
+    }
+
+    private void printSummary(Clicker clicker, ClickStats stats) {
+        this.out.println("backend:  " + clicker.getBackend().getClass().getSimpleName());
+        this.out.println(String.format("clicks:   %d in %.3f s", stats.clicks(), stats.elapsedNanos() / 1e9));
+        this.out.println(String.format("rate:     %.2f cps%s", stats.achievedCps(),
+                this.timing == null ? "" : String.format(" (target %.2f cps)", this.timing.cps())));
+        this.out.println(String.format("latency:  p50 %.1f us, p99 %.1f us, p99.9 %.1f us, max %.1f us",
+                stats.p50Nanos() / 1e3, stats.p99Nanos() / 1e3, stats.p999Nanos() / 1e3, stats.maxNanos() / 1e3));
+    }
+
+    private static ClickTarget parseTarget(String value) {
+        int colon = value.indexOf(':');
+        String[] parts = value.substring(colon + 1).split(",");
+        if (parts.length < 2 || parts.length > 3) throw new IllegalArgumentException("Invalid target: " + value);
+        int repeat = parts.length == 3 ? (int) parseLong(parts[2], "--at") : 1;
+        int x = (int) parseLong(parts[0], "--at"), y = (int) parseLong(parts[1], "--at");
+        if (colon >= 0) {
+            ScreenTopology screens = ScreenTopology.shared();
+            long device = parseLong(value.substring(0, colon), "--at");
+            if (device < 0 || device >= screens.getDeviceCount())
+                throw new IllegalArgumentException("No screen " + device + ", there are " + screens.getDeviceCount() + ": " + value);
+            x = screens.toVirtualX((int) device, x);
+            y = screens.toVirtualY((int) device, y);
+        }
+        // The button is filled in once every option is read, --button may follow --at.
+        return new ClickTarget(x, y, 0, repeat);
+    }
+
+    private static int[] parseRegion(String value) {
+        String[] parts = value.split(",");
+        if (parts.length != 2 && parts.length != 4) throw new IllegalArgumentException("Invalid region: " + value);
+        int[] region = { 0, 0, 1, 1 };
+        for (int i = 0; i < parts.length; i++) region[i] = (int) parseLong(parts[i], "--watch");
+        return region;
+    }
+
+    private static int parseColor(String value) {
+        String hex = value.startsWith("#") ? value.substring(1) : value;
+        try {
+            if (hex.length() != 6) throw new NumberFormatException();
+            return Integer.parseInt(hex, 16);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid colour, expected rrggbb: " + value);
+        }
+    }
+
+    private static boolean parseMatch(String value) {
+        return switch (value) {
+            case "any" -> true;
+            case "all" -> false;
+            default -> throw new IllegalArgumentException("Invalid --match, expected any or all: " + value);
+        };
+    }
+
+    private static String[] parseChannel(String value) {
+        String[] parts = value.split(":");
+        if (parts.length < 2 || parts.length > 3) throw new IllegalArgumentException("Invalid channel: " + value);
+        MouseButton.parse(parts[0]);
+        if (ClickTiming.parse(parts[1]).periodNanos() <= 0) throw new IllegalArgumentException("Channel rate must be positive: " + value);
+        if (parts.length == 3 && parseLong(parts[2], "--channel") < 0) throw new IllegalArgumentException("Channel limit must not be negative: " + value);
+        return parts;
+    }
+
+    private static String value(String[] args, int index, String option) {
+        if (index >= args.length) throw new IllegalArgumentException("Missing value for " + option);
+        return args[index];
+    }
+
+    private static long parseLong(String value, String option) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number for " + option + ": " + value);
+        }
+    }
+}
@@ -1,7 +1,5 @@
 package com.airclicker.main;
 
-import com.airclicker.ui.SplashScreen;
-
 /**
  * The {@code Main} class is the root of this project.&nbsp;All code
  * is executed here
@@ -11,12 +9,16 @@ import com.airclicker.ui.SplashScreen;
  */
 public class Main {
     /**
-     * The method that Java searches for and executes on the main thread.
+     * The method that Java searches for and executes on the main thread. With arguments the
+     * clicker runs headless through {@link CommandLineRunner} and the UI is never loaded.
+     * Otherwise the main thread waits for the startup pipeline, whose workers do not keep the
+     * JVM alive on their own.
      * @param args {@code args} is for command line arguments
      */
     public static void main(String[] args) {
-        SplashScreen screen = new SplashScreen(420, 320);
-        screen.create();
-        screen.show();
+        if (args.length > 0) {
+            System.exit(CommandLineRunner.run(args));
+        }
+        StartupPipeline.launch().join();
     }
 }
@@ -0,0 +1,144 @@
+package com.airclicker.main;
+
+import com.airclicker.controllers.Clicker;
+import com.airclicker.controllers.ClickerEngine;
+import com.airclicker.managers.ImageCache;
+import com.airclicker.managers.StateManager;
+import com.airclicker.templates.constants.AirClickerConstants;
+import com.airclicker.ui.ClickerScreen;
+import com.airclicker.ui.ClickerServices;
+import com.airclicker.ui.SplashScreen;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.swing.SwingUtilities;
+
+import java.awt.image.BufferedImage;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * The {@code StartupPipeline} class brings the UI up as fast as possible. The Look and Feel,
+ * the logo variants and the click engine are prepared in parallel on worker threads, the splash screen
+ * is shown as soon as the Look and Feel and logo are ready, and it is swapped for the
+ * {@code ClickerScreen} the moment that window has been built. Every phase logs its duration.
+ *
+ * Profile I/O, the control socket and the metrics MBean are opened in the {@code services}
+ * phase on a worker once the engine exists, see {@link ClickerServices}, so the Event Dispatch
+ * Thread only builds components.
+ *
+ * @author shabman
+ * @version 1.1.0
+ */
+public final class StartupPipeline {
+    /**
+     * The logger tracker to log information to the console.
+     *
+     * @apiNote There is no java doc available for {@code Logger} and {@code LoggerFactory}
+     */
+    private static final Logger logger = LoggerFactory.getLogger(StartupPipeline.class);
+    /**
+     * The time the pipeline was started.
+     */
+    private final long origin = System.nanoTime();
+    /**
+     * The threads preparing the independent startup phases.
+     */
+    private final ExecutorService workers = Executors.newFixedThreadPool(3, new StartupThreadFactory());
+    /**
+     * Runs tasks on the Event Dispatch Thread.
+     */
+    private final Executor edt = SwingUtilities::invokeLater;
+
+    /**
+     * Prevents the class from being instantiated outside {@link #launch()}.
+     */
+    private StartupPipeline() { }
+    /**
+     * Starts every startup phase and returns immediately.
+     *
+     * @return {@code CompletableFuture<ClickerScreen>} completes once the main window is visible.
+     */
+    public static CompletableFuture<ClickerScreen> launch() {
+        return new StartupPipeline().run();
+    }
+
+    private CompletableFuture<ClickerScreen> run() {
+        CompletableFuture<Void> laf = this.phase("look-and-feel", () -> {
+            ClickerScreen.installLookAndFeel();
+            return null;
+        }, this.workers);
+        CompletableFuture<BufferedImage> logo = this.phase("logo", () -> {
+            ImageCache.shared().prefetch(AirClickerConstants.LOGO_PATH, 585, 385);
+            return ImageCache.shared().get(AirClickerConstants.LOGO_PATH, 420, 320);
+        }, this.workers);
+        CompletableFuture<ClickerEngine> engine = this.phase("engine", () -> ClickerEngine.build(Clicker.build()), this.workers);
+        CompletableFuture<ClickerServices> services = engine.thenApplyAsync(
+                clicker -> this.timed("services", () -> ClickerServices.open(clicker)), this.workers);
+
+        CompletableFuture<SplashScreen> splash = laf.thenCombineAsync(logo, (ignored, image) -> this.timed("splash", () -> {
+            SplashScreen screen = new SplashScreen(420, 320);
+            screen.create();
+            screen.show();
+            return screen;
+        }), this.edt);
+        CompletableFuture<ClickerScreen> main = splash.thenCombineAsync(services, (ignored, opened) -> this.timed("main-window", () -> {
+            ClickerScreen screen = new ClickerScreen(585, 385, opened);
+            screen.prepare();
+            return screen;
+        }), this.edt);
+
+        return splash.thenCombineAsync(main, (from, to) -> {
+            new StateManager().swapState(from.getWindow(), to.getWindow());
+            logger.info("Startup finished, interactive after " + this.elapsedMillis() + " ms");
+            this.workers.shutdown();
+            return to;
+        }, this.edt).whenComplete((screen, error) -> {
+            if (error != null) {
+                logger.error("Startup failed: " + error.getMessage());
+                this.workers.shutdown();
+            }
+        });
+    }
+    /**
+     * Runs a phase asynchronously and logs its duration.
+     */
+    private <T> CompletableFuture<T> phase(String name, Supplier<T> task, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> this.timed(name, task), executor);
+    }
+    /**
+     * Runs a phase on the current thread and logs its duration.
+     */
+    private <T> T timed(String name, Supplier<T> task) {
+        long start = System.nanoTime();
+        T result = task.get();
+        logger.info(String.format("Startup phase %s took %.1f ms (done at %.1f ms)",
+                name, (System.nanoTime() - start) / 1e6, this.elapsedMillis()));
+        return result;
+    }
+
+    private double elapsedMillis() {
+        return (System.nanoTime() - this.origin) / 1e6;
+    }
+
+    /**
+     * Names the startup workers and keeps them from holding the JVM open.
+     */
+    private static final class StartupThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "air-clicker-startup-" + this.count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
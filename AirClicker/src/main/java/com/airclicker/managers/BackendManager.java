@@ -0,0 +1,77 @@
+package com.airclicker.managers;
+
+import com.airclicker.templates.InputBackend;
+import com.airclicker.templates.InputBackendProvider;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * Discovers {@link InputBackendProvider}s through {@code ServiceLoader} and creates
+ * {@link InputBackend}s. The backend can be forced with the {@value #BACKEND_PROPERTY}
+ * system property, otherwise the available provider with the highest priority is used.
+ *
+ * @author shabman
+ * @version 1.0.0
+ */
+public final class BackendManager {
+    /**
+     * The system property used to select a backend by name.
+     */
+    public static final String BACKEND_PROPERTY = "airclicker.backend";
+    /**
+     * The logger tracker to log information to the console.
+     *
+     * @apiNote There is no java doc available for {@code Logger} and {@code LoggerFactory}
+     */
+    private static final Logger logger = LoggerFactory.getLogger(BackendManager.class);
+
+    /**
+     * Prevents the class from being instantiated
+     */
+    private BackendManager() { }
+    /**
+     * Lists every registered provider.
+     *
+     * @return {@code List<InputBackendProvider>} the providers in discovery order.
+     */
+    public static List<InputBackendProvider> providers() {
+        List<InputBackendProvider> providers = new ArrayList<>();
+        ServiceLoader.load(InputBackendProvider.class, BackendManager.class.getClassLoader()).forEach(providers::add);
+        return providers;
+    }
+    /**
+     * Creates the backend named by the {@value #BACKEND_PROPERTY} system property, or the
+     * best available one if the property is not set.
+     *
+     * @return {@code InputBackend} the backend.
+     */
+    public static InputBackend load() {
+        return load(System.getProperty(BACKEND_PROPERTY));
+    }
+    /**
+     * Creates a backend by name.
+     *
+     * @param name The backend name, {@code null} or blank picks the best available backend.
+     * @return {@code InputBackend} the backend.
+     * @throws IllegalArgumentException if no provider has the given name.
+     */
+    public static InputBackend load(String name) {
+        InputBackendProvider best = null;
+        for (InputBackendProvider provider : providers()) {
+            if (name != null && !name.isBlank()) {
+                if (provider.name().equalsIgnoreCase(name.trim())) return provider.create();
+            } else if (provider.isAvailable() && (best == null || provider.priority() > best.priority())) {
+                best = provider;
+            }
+        }
+        if (name != null && !name.isBlank()) throw new IllegalArgumentException("Unknown input backend: " + name);
+        if (best == null) throw new IllegalStateException("No input backend available");
+        logger.info("Using input backend " + best.name());
+        return best.create();
+    }
+}
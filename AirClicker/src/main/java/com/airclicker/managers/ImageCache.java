@@ -0,0 +1,163 @@
+package com.airclicker.managers;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.ImageIO;
+import javax.swing.ImageIcon;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.SoftReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A shared cache for UI images. Every asset is decoded from the classpath once, and scaled
+ * variants are produced on a background thread and kept per {@code (asset, width, height)}.
+ * Variants live in a bounded least recently used map behind soft references, so the garbage
+ * collector can reclaim them under memory pressure and they are simply rebuilt on next use.
+ *
+ * @author shabman
+ * @version 1.0.0
+ */
+public final class ImageCache {
+    /**
+     * The maximum amount of scaled variants kept at once.
+     */
+    public static final int MAX_VARIANTS = 32;
+    /**
+     * The logger tracker to log information to the console.
+     *
+     * @apiNote There is no java doc available for {@code Logger} and {@code LoggerFactory}
+     */
+    private static final Logger logger = LoggerFactory.getLogger(ImageCache.class);
+    /**
+     * The instance shared by every window.
+     */
+    private static final ImageCache instance = new ImageCache();
+    /**
+     * The decoded assets by classpath location. An asset that failed to load maps to {@code null}.
+     */
+    private final Map<String, CompletableFuture<BufferedImage>> originals = new ConcurrentHashMap<>();
+    /**
+     * The scaled variants in least recently used order.
+     */
+    private final Map<Key, SoftReference<CompletableFuture<BufferedImage>>> variants =
+            new LinkedHashMap<>(MAX_VARIANTS, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, SoftReference<CompletableFuture<BufferedImage>>> eldest) {
+                    return size() > MAX_VARIANTS;
+                }
+            };
+    /**
+     * The thread decoding and scaling images.
+     */
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "air-clicker-images");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Prevents the class from being instantiated
+     */
+    private ImageCache() { }
+    /**
+     * The cache shared by every window.
+     *
+     * @return {@code ImageCache} the shared cache.
+     */
+    public static ImageCache shared() {
+        return instance;
+    }
+    /**
+     * Starts decoding an asset and producing a scaled variant in the background.
+     *
+     * @param asset The classpath location of the asset, e.g. {@code /images/logo.png}.
+     * @param width The width of the variant.
+     * @param height The height of the variant.
+     * @return {@code CompletableFuture<BufferedImage>} completes with the variant, or {@code null} if the asset is missing.
+     */
+    public CompletableFuture<BufferedImage> prefetch(String asset, int width, int height) {
+        Key key = new Key(asset, width, height);
+        synchronized (this.variants) {
+            SoftReference<CompletableFuture<BufferedImage>> ref = this.variants.get(key);
+            CompletableFuture<BufferedImage> variant = ref == null ? null : ref.get();
+            if (variant != null) return variant;
+            variant = this.original(asset).thenApplyAsync(image -> image == null ? null : scale(image, width, height), this.executor);
+            this.variants.put(key, new SoftReference<>(variant));
+            return variant;
+        }
+    }
+    /**
+     * Fetches a scaled variant, waiting for it if it is not ready yet.
+     *
+     * @param asset The classpath location of the asset.
+     * @param width The width of the variant.
+     * @param height The height of the variant.
+     * @return {@code BufferedImage} the variant, or {@code null} if the asset is missing.
+     */
+    public BufferedImage get(String asset, int width, int height) {
+        return this.prefetch(asset, width, height).join();
+    }
+    /**
+     * Fetches a scaled variant as an icon.
+     *
+     * @param asset The classpath location of the asset.
+     * @param width The width of the icon.
+     * @param height The height of the icon.
+     * @return {@code ImageIcon} the icon, or {@code null} if the asset is missing.
+     */
+    public ImageIcon icon(String asset, int width, int height) {
+        BufferedImage image = this.get(asset, width, height);
+        return image == null ? null : new ImageIcon(image);
+    }
+
+    private CompletableFuture<BufferedImage> original(String asset) {
+        return this.originals.computeIfAbsent(asset, name -> CompletableFuture.supplyAsync(() -> decode(name), this.executor));
+    }
+
+    private static BufferedImage decode(String asset) {
+        try (InputStream in = ImageCache.class.getResourceAsStream(asset)) {
+            if (in == null) {
+                logger.error("Missing image asset " + asset);
+                return null;
+            }
+            return ImageIO.read(in);
+        } catch (IOException e) {
+            logger.error(e.getMessage());
+            return null;
+        }
+    }
+    /**
+     * Scales an image with bilinear interpolation, halving it step by step first when shrinking
+     * by more than half so the result stays smooth.
+     */
+    static BufferedImage scale(BufferedImage source, int width, int height) {
+        BufferedImage current = source;
+        int w = source.getWidth(), h = source.getHeight();
+        do {
+            w = w / 2 >= width ? w / 2 : width;
+            h = h / 2 >= height ? h / 2 : height;
+            BufferedImage next = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = next.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(current, 0, 0, w, h, null);
+            g.dispose();
+            current = next;
+        } while (w != width || h != height);
+        return current;
+    }
+
+    private record Key(String asset, int width, int height) { }
+}
@@ -0,0 +1,363 @@
+package com.airclicker.managers;
+
+import com.airclicker.templates.ClickerPlugin;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Discovers {@link ClickerPlugin}s in the jars of a directory and calls them as one plugin.
+ *
+ * Nothing is read until {@link #load()} or {@link #loadAsync()} is called, so the plugin
+ * directory does not slow down startup. Every jar gets its own {@code URLClassLoader} and its
+ * providers are found through {@code ServiceLoader}; providers that are visible through the
+ * parent class loader are skipped, so a plugin is never loaded twice.
+ *
+ * Every click hook is timed. A call that takes longer than the budget counts as an overrun
+ * and is logged the first time, after {@value #MAX_OVERRUNS} overruns the plugin is disabled
+ * unless the manager only warns. A plugin that throws is disabled right away. The hooks are
+ * called on the clicking thread only, the counters are read by other threads without locking
+ * and may be slightly behind.
+ *
+ * @author shabman
+ * @version 1.0.0
+ */
+public final class PluginManager implements ClickerPlugin, Closeable {
+    /**
+     * The system property used to select the plugin directory.
+     */
+    public static final String DIRECTORY_PROPERTY = "airclicker.plugins";
+    /**
+     * The system property holding the time budget of one click hook in microseconds.
+     */
+    public static final String BUDGET_PROPERTY = "airclicker.plugin.budget";
+    /**
+     * The system property that, set to {@code warn}, keeps slow plugins enabled.
+     */
+    public static final String OVERRUN_PROPERTY = "airclicker.plugin.overrun";
+    /**
+     * The plugin directory used when {@value #DIRECTORY_PROPERTY} is not set.
+     */
+    public static final String DEFAULT_DIRECTORY = "plugins";
+    /**
+     * The budget used when {@value #BUDGET_PROPERTY} is not set.
+     */
+    public static final long DEFAULT_BUDGET_MICROS = 100;
+    /**
+     * The amount of overruns after which a plugin is disabled.
+     */
+    public static final int MAX_OVERRUNS = 3;
+    /**
+     * The logger tracker to log information to the console.
+     *
+     * @apiNote There is no java doc available for {@code Logger} and {@code LoggerFactory}
+     */
+    private static final Logger logger = LoggerFactory.getLogger(PluginManager.class);
+    /**
+     * The directory the plugin jars are read from.
+     */
+    private final Path directory;
+    /**
+     * The time budget of one click hook in nanoseconds.
+     */
+    private final long budgetNanos;
+    /**
+     * Determines if plugins exceeding the budget are disabled or only logged.
+     */
+    private final boolean disableOverruns;
+    /**
+     * The class loader of every jar that provided a plugin.
+     */
+    private final List<URLClassLoader> loaders = new ArrayList<>();
+    /**
+     * The loaded plugins, empty until loading has finished. Replaced as a whole, never modified.
+     */
+    private volatile Slot[] slots = new Slot[0];
+    /**
+     * The loading of the plugins, {@code null} until it was requested.
+     */
+    private CompletableFuture<List<Status>> loading;
+
+    /**
+     * Prevents the class from being instantiated outside the factories.
+     */
+    private PluginManager(Path directory, long budgetNanos, boolean disableOverruns) {
+        if (budgetNanos <= 0) throw new IllegalArgumentException("The plugin budget must be positive: " + budgetNanos);
+        this.directory = directory;
+        this.budgetNanos = budgetNanos;
+        this.disableOverruns = disableOverruns;
+    }
+    /**
+     * Creates a manager configured by the {@value #DIRECTORY_PROPERTY}, {@value #BUDGET_PROPERTY}
+     * and {@value #OVERRUN_PROPERTY} system properties.
+     *
+     * @return {@code PluginManager} the manager, nothing is loaded yet.
+     * @throws IllegalArgumentException if the budget is not a positive number.
+     */
+    public static PluginManager build() {
+        long budget;
+        try {
+            budget = Long.parseLong(System.getProperty(BUDGET_PROPERTY, String.valueOf(DEFAULT_BUDGET_MICROS)).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + BUDGET_PROPERTY + ": " + System.getProperty(BUDGET_PROPERTY));
+        }
+        return of(Path.of(System.getProperty(DIRECTORY_PROPERTY, DEFAULT_DIRECTORY)),
+                TimeUnit.MICROSECONDS.toNanos(budget), !"warn".equalsIgnoreCase(System.getProperty(OVERRUN_PROPERTY)));
+    }
+    /**
+     * Creates a manager.
+     *
+     * @param directory The directory the plugin jars are read from.
+     * @param budgetNanos The time budget of one click hook in nanoseconds.
+     * @param disableOverruns Whether plugins exceeding the budget are disabled or only logged.
+     * @return {@code PluginManager} the manager, nothing is loaded yet.
+     */
+    public static PluginManager of(Path directory, long budgetNanos, boolean disableOverruns) {
+        return new PluginManager(directory, budgetNanos, disableOverruns);
+    }
+    /**
+     * Starts loading the plugins on a background thread. Later calls return the same loading.
+     *
+     * @return {@code CompletableFuture<List<Status>>} completes with the loaded plugins.
+     */
+    public synchronized CompletableFuture<List<Status>> loadAsync() {
+        if (this.loading == null) {
+            this.loading = new CompletableFuture<>();
+            Thread thread = new Thread(() -> this.loading.complete(this.scan()), "air-clicker-plugins");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        return this.loading;
+    }
+    /**
+     * Loads the plugins if that has not happened yet and waits for them.
+     *
+     * @return {@code List<Status>} the loaded plugins.
+     */
+    public List<Status> load() {
+        return this.loadAsync().join();
+    }
+    /**
+     * The loaded plugins and their hook timings.
+     * @return {@code List<Status>} the plugins, empty until loading has finished.
+     */
+    public List<Status> getStatus() {
+        List<Status> status = new ArrayList<>();
+        for (Slot slot : this.slots) {
+            status.add(new Status(slot.plugin.name(), slot.jar, slot.enabled, slot.calls, slot.overruns, slot.maxNanos));
+        }
+        return status;
+    }
+    /**
+     * Enables or disables a plugin. Enabling a plugin resets its overruns.
+     *
+     * @param index The position of the plugin in {@link #getStatus()}.
+     * @param enabled Whether the plugin should be called.
+     */
+    public void setEnabled(int index, boolean enabled) {
+        Slot slot = this.slots[index];
+        if (enabled && !slot.enabled) slot.overruns = 0;
+        slot.enabled = enabled;
+    }
+    /**
+     * The time budget of one click hook.
+     * @return {@code long} the budget in nanoseconds.
+     */
+    public long getBudgetNanos() {
+        return this.budgetNanos;
+    }
+    /**
+     * The directory the plugin jars are read from.
+     * @return {@code Path} the plugin directory.
+     */
+    public Path getDirectory() {
+        return this.directory;
+    }
+
+    @Override
+    public String name() {
+        return "plugins";
+    }
+
+    @Override
+    public void onStart(long periodNanos) {
+        for (Slot slot : this.slots) {
+            if (!slot.enabled) continue;
+            try {
+                slot.plugin.onStart(periodNanos);
+            } catch (RuntimeException e) {
+                this.fail(slot, e);
+            }
+        }
+    }
+
+    @Override
+    public void beforeClick(long index, int button) {
+        for (Slot slot : this.slots) {
+            if (!slot.enabled) continue;
+            long start = System.nanoTime();
+            try {
+                slot.plugin.beforeClick(index, button);
+            } catch (RuntimeException e) {
+                this.fail(slot, e);
+            }
+            this.charge(slot, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void afterClick(long index, int button) {
+        for (Slot slot : this.slots) {
+            if (!slot.enabled) continue;
+            long start = System.nanoTime();
+            try {
+                slot.plugin.afterClick(index, button);
+            } catch (RuntimeException e) {
+                this.fail(slot, e);
+            }
+            this.charge(slot, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void onStop(long clicks) {
+        for (Slot slot : this.slots) {
+            if (!slot.enabled) continue;
+            try {
+                slot.plugin.onStop(clicks);
+            } catch (RuntimeException e) {
+                this.fail(slot, e);
+            }
+        }
+    }
+    /**
+     * Drops every plugin and closes their class loaders.
+     */
+    @Override
+    public synchronized void close() {
+        this.slots = new Slot[0];
+        for (URLClassLoader loader : this.loaders) {
+            try {
+                loader.close();
+            } catch (IOException e) {
+                logger.error(e.getMessage());
+            }
+        }
+        this.loaders.clear();
+    }
+
+    /**
+     * Loads every jar of the directory, a jar that fails to load is logged and skipped.
+     */
+    private List<Status> scan() {
+        List<Slot> found = new ArrayList<>();
+        try (DirectoryStream<Path> jars = Files.newDirectoryStream(this.directory, "*.jar")) {
+            for (Path jar : jars) found.addAll(this.open(jar));
+        } catch (NoSuchFileException e) {
+            logger.info("No plugin directory at " + this.directory.toAbsolutePath());
+        } catch (IOException e) {
+            logger.error(e.getMessage());
+        }
+        this.slots = found.toArray(new Slot[0]);
+        if (!found.isEmpty()) logger.info("Loaded " + found.size() + " plugin(s) from " + this.directory);
+        return this.getStatus();
+    }
+
+    private List<Slot> open(Path jar) {
+        List<Slot> found = new ArrayList<>();
+        URLClassLoader loader;
+        try {
+            loader = new URLClassLoader("plugin-" + jar.getFileName(), new URL[] { jar.toUri().toURL() },
+                    PluginManager.class.getClassLoader());
+        } catch (MalformedURLException e) {
+            logger.error(e.getMessage());
+            return found;
+        }
+        try {
+            ServiceLoader.load(ClickerPlugin.class, loader).stream()
+                    .filter(provider -> provider.type().getClassLoader() == loader)
+                    .forEach(provider -> found.add(new Slot(provider.get(), jar.getFileName().toString())));
+        } catch (ServiceConfigurationError | RuntimeException | LinkageError e) {
+            logger.error("Cannot load plugin " + jar.getFileName() + ": " + e.getMessage());
+            found.clear();
+        }
+        if (found.isEmpty()) {
+            try {
+                loader.close();
+            } catch (IOException ignored) { }
+        } else {
+            synchronized (this) {
+                this.loaders.add(loader);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Counts a click hook call against the budget of its plugin.
+     */
+    private void charge(Slot slot, long elapsed) {
+        slot.calls++;
+        if (elapsed > slot.maxNanos) slot.maxNanos = elapsed;
+        if (elapsed <= this.budgetNanos) return;
+        int overruns = ++slot.overruns;
+        if (this.disableOverruns && overruns >= MAX_OVERRUNS) {
+            slot.enabled = false;
+            logger.warn("Disabled plugin " + slot.plugin.name() + " after " + overruns + " hooks over the budget of "
+                    + TimeUnit.NANOSECONDS.toMicros(this.budgetNanos) + " us");
+        } else if (overruns == 1) {
+            logger.warn("Plugin " + slot.plugin.name() + " took " + TimeUnit.NANOSECONDS.toMicros(elapsed)
+                    + " us, the budget is " + TimeUnit.NANOSECONDS.toMicros(this.budgetNanos) + " us");
+        }
+    }
+
+    private void fail(Slot slot, RuntimeException e) {
+        slot.enabled = false;
+        logger.error("Disabled plugin " + slot.plugin.name() + ": " + e);
+    }
+
+    /**
+     * A loaded plugin and its hook timings.
+     *
+     * @param name The plugin name.
+     * @param jar The file name of the jar it was loaded from.
+     * @param enabled Whether the plugin is called.
+     * @param calls The amount of timed click hook calls.
+     * @param overruns The amount of click hook calls over the budget.
+     * @param maxNanos The slowest click hook call in nanoseconds.
+     */
+    public record Status(String name, String jar, boolean enabled, long calls, long overruns, long maxNanos) { }
+
+    /**
+     * A loaded plugin. The counters are only written by the clicking thread.
+     */
+    private static final class Slot {
+        private final ClickerPlugin plugin;
+        private final String jar;
+        private volatile boolean enabled = true;
+        private long calls;
+        private int overruns;
+        private long maxNanos;
+
+        private Slot(ClickerPlugin plugin, String jar) {
+            this.plugin = plugin;
+            this.jar = jar;
+        }
+    }
+}
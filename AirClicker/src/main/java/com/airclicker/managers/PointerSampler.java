@@ -0,0 +1,195 @@
+package com.airclicker.managers;
+
+import com.airclicker.templates.InputBackend;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.Point;
+import java.io.Closeable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Samples the pointer position on its own thread and publishes the latest one through a
+ * single atomic slot, so readers such as a Swing timer never wait for the pointer and never
+ * see {@code x} and {@code y} from different samples.
+ *
+ * The position is packed into one {@code long}, see {@link #x(long)} and {@link #y(long)}.
+ * While the pointer does not move the sampler drops to {@value #IDLE_HZ} Hz and it returns
+ * to the full rate with the first movement, so an idle pointer costs a handful of samples
+ * per second. {@link #pause()} stops sampling entirely, e.g. while the window is minimised.
+ *
+ * @author shabman
+ * @version 1.0.0
+ */
+public final class PointerSampler implements Closeable {
+    /**
+     * The system property holding the sampling rate in Hz.
+     */
+    public static final String RATE_PROPERTY = "airclicker.pointer.hz";
+    /**
+     * The sampling rate used when {@value #RATE_PROPERTY} is not set.
+     */
+    public static final int DEFAULT_HZ = 60;
+    /**
+     * The highest accepted sampling rate.
+     */
+    public static final int MAX_HZ = 240;
+    /**
+     * The sampling rate while the pointer does not move.
+     */
+    public static final int IDLE_HZ = 10;
+    /**
+     * The packed value published before the first sample.
+     */
+    public static final long UNKNOWN = Long.MIN_VALUE;
+    /**
+     * The time without movement after which the sampler drops to {@link #IDLE_HZ}.
+     */
+    private static final long IDLE_AFTER_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+    /**
+     * The logger tracker to log information to the console.
+     *
+     * @apiNote There is no java doc available for {@code Logger} and {@code LoggerFactory}
+     */
+    private static final Logger logger = LoggerFactory.getLogger(PointerSampler.class);
+    /**
+     * The backend the pointer is read from.
+     */
+    private final InputBackend backend;
+    /**
+     * The time between two samples while the pointer moves.
+     */
+    private final long periodNanos;
+    /**
+     * The latest position, packed.
+     */
+    private final AtomicLong position = new AtomicLong(UNKNOWN);
+    /**
+     * The sampling thread.
+     */
+    private final Thread thread;
+    /**
+     * Determines if sampling is paused.
+     */
+    private volatile boolean paused;
+    /**
+     * Determines if the sampling thread should keep running.
+     */
+    private volatile boolean running = true;
+
+    /**
+     * Prevents the class from being instantiated outside the factories.
+     */
+    private PointerSampler(InputBackend backend, int hz) {
+        if (hz <= 0 || hz > MAX_HZ) throw new IllegalArgumentException("Pointer rate must be between 1 and " + MAX_HZ + " Hz: " + hz);
+        this.backend = backend;
+        this.periodNanos = TimeUnit.SECONDS.toNanos(1) / hz;
+        this.thread = new Thread(this::loop, "air-clicker-pointer");
+        this.thread.setDaemon(true);
+    }
+    /**
+     * Starts sampling at the rate in {@value #RATE_PROPERTY}.
+     *
+     * @param backend The backend the pointer is read from.
+     * @return {@code PointerSampler} the running sampler.
+     * @throws IllegalArgumentException if the rate is not a number between 1 and {@value #MAX_HZ}.
+     */
+    public static PointerSampler start(InputBackend backend) {
+        String rate = System.getProperty(RATE_PROPERTY, String.valueOf(DEFAULT_HZ));
+        try {
+            return start(backend, Integer.parseInt(rate.trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + RATE_PROPERTY + ": " + rate);
+        }
+    }
+    /**
+     * Starts sampling.
+     *
+     * @param backend The backend the pointer is read from.
+     * @param hz The samples per second while the pointer moves, at most {@value #MAX_HZ}.
+     * @return {@code PointerSampler} the running sampler.
+     */
+    public static PointerSampler start(InputBackend backend, int hz) {
+        PointerSampler sampler = new PointerSampler(backend, hz);
+        sampler.thread.start();
+        return sampler;
+    }
+    /**
+     * The latest position. Compare the packed values to find out if the pointer moved.
+     * @return {@code long} the packed position, or {@link #UNKNOWN} before the first sample.
+     */
+    public long get() {
+        return this.position.get();
+    }
+    /**
+     * The latest position as a point.
+     * @return {@code Point} the position, or {@code null} before the first sample.
+     */
+    public Point getPosition() {
+        long packed = this.position.get();
+        return packed == UNKNOWN ? null : new Point(x(packed), y(packed));
+    }
+    /**
+     * The x coordinate of a packed position.
+     *
+     * @param packed The packed position.
+     * @return {@code int} the x coordinate.
+     */
+    public static int x(long packed) {
+        return (int) (packed >> 32);
+    }
+    /**
+     * The y coordinate of a packed position.
+     *
+     * @param packed The packed position.
+     * @return {@code int} the y coordinate.
+     */
+    public static int y(long packed) {
+        return (int) packed;
+    }
+    /**
+     * Stops sampling until {@link #resume()}, the last position stays published.
+     */
+    public void pause() {
+        this.paused = true;
+    }
+    /**
+     * Continues sampling at the full rate.
+     */
+    public void resume() {
+        this.paused = false;
+        LockSupport.unpark(this.thread);
+    }
+    /**
+     * Stops the sampling thread.
+     */
+    @Override
+    public void close() {
+        this.running = false;
+        LockSupport.unpark(this.thread);
+    }
+
+    private void loop() {
+        final long idlePeriod = TimeUnit.SECONDS.toNanos(1) / IDLE_HZ;
+        long lastMove = System.nanoTime();
+        while (this.running) {
+            if (this.paused) {
+                LockSupport.park(this);
+                lastMove = System.nanoTime();
+                continue;
+            }
+            long now = System.nanoTime();
+            try {
+                Point point = this.backend.getPointerLocation();
+                long packed = (long) point.x << 32 | (point.y & 0xFFFFFFFFL);
+                if (this.position.getAndSet(packed) != packed) lastMove = now;
+            } catch (RuntimeException e) {
+                logger.error(e.getMessage());
+            }
+            LockSupport.parkNanos(this, now - lastMove > IDLE_AFTER_NANOS ? idlePeriod : this.periodNanos);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.airclicker.managers;
+
+import com.airclicker.controllers.ClickTarget;
+import com.airclicker.controllers.ClickTiming;
+import com.airclicker.controllers.MouseButton;
+
+import java.util.List;
+
+/**
+ * A named clicker setup kept in the {@link ProfileStore}.
+ *
+ * @param name The name the profile is listed under.
+ * @param timing The hold and gap durations of every click.
+ * @param limit Amount of clicks, {@code 0} for no limit.
+ * @param button The mouse button to click when no targets are given.
+ * @param targets The targets to click in order, empty to click at the current pointer position.
+ * @param startKey The key that starts the clicker, in {@code KeyStroke} syntax such as {@code ctrl F6}, or {@code null}.
+ * @param stopKey The key that stops the clicker, in {@code KeyStroke} syntax, or {@code null}.
+ *
+ * @author shabman
+ * @version 1.0.0
+ */
+public record Profile(String name, ClickTiming timing, long limit, MouseButton button,
+                      List<ClickTarget> targets, String startKey, String stopKey) {
+    public Profile {
+        if (name == null || name.isBlank()) throw new IllegalArgumentException("A profile needs a name");
+        if (timing == null) throw new IllegalArgumentException("A profile needs a speed");
+        if (limit < 0) throw new IllegalArgumentException("Limit must not be negative: " + limit);
+        name = name.trim();
+        targets = List.copyOf(targets);
+    }
+}
@@ -0,0 +1,272 @@
+package com.airclicker.managers;
+
+import com.airclicker.controllers.ClickTiming;
+import com.airclicker.controllers.MouseButton;
+import com.airclicker.controllers.TargetFiles;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The {@code ProfileStore} class keeps named {@link Profile}s and remembers which one is active.
+ *
+ * The file is read once when the store is opened. From then on every profile and the active
+ * one are held in an immutable snapshot behind a single reference, so reading a profile never
+ * locks and switching profiles is one reference swap. Changes are written on a background
+ * thread through a temporary file and an atomic move, several changes in a row are written
+ * once.
+ *
+ * @author shabman
+ * @version 1.0.1
+ */
+public final class ProfileStore implements Closeable {
+    /**
+     * The first line of a profile file, followed by the format version.
+     */
+    private static final String HEADER = "AIRPROFILES";
+    /**
+     * The version of the profile file format.
+     */
+    private static final int VERSION = 1;
+    /**
+     * Written in place of a missing value.
+     */
+    private static final String NONE = "-";
+    /**
+     * The logger tracker to log information to the console.
+     *
+     * @apiNote There is no java doc available for {@code Logger} and {@code LoggerFactory}
+     */
+    private static final Logger logger = LoggerFactory.getLogger(ProfileStore.class);
+    /**
+     * The file the profiles are kept in.
+     */
+    private final Path file;
+    /**
+     * The current profiles and the active one.
+     */
+    private final AtomicReference<Snapshot> snapshot;
+    /**
+     * Determines if a write is already waiting on the writer thread.
+     */
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    /**
+     * The thread writing the file.
+     */
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "air-clicker-profiles");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Prevents the class from being instantiated outside the factory.
+     */
+    private ProfileStore(Path file, Snapshot snapshot) {
+        this.file = file;
+        this.snapshot = new AtomicReference<>(snapshot);
+    }
+    /**
+     * Opens a store, reading the profiles from the file if it exists.
+     *
+     * @param file The file the profiles are kept in.
+     * @return {@code ProfileStore} the store.
+     * @throws IOException if the file exists but cannot be read or is malformed.
+     */
+    public static ProfileStore load(Path file) throws IOException {
+        try {
+            return new ProfileStore(file, read(file));
+        } catch (NoSuchFileException e) {
+            return new ProfileStore(file, new Snapshot(Collections.emptySortedMap(), null));
+        }
+    }
+    /**
+     * Every profile, ordered by name.
+     * @return {@code List<Profile>} an immutable list of the profiles.
+     */
+    public List<Profile> getProfiles() {
+        return List.copyOf(this.snapshot.get().profiles().values());
+    }
+    /**
+     * Finds a profile by name.
+     *
+     * @param name The name of the profile.
+     * @return {@code Profile} the profile, or {@code null} if there is none with that name.
+     */
+    public Profile get(String name) {
+        return this.snapshot.get().profiles().get(name.trim());
+    }
+    /**
+     * The profile that was activated or saved last, also across restarts.
+     * @return {@code Profile} the active profile, or {@code null} if there is none.
+     */
+    public Profile getActive() {
+        return this.snapshot.get().active();
+    }
+    /**
+     * Makes a stored profile the active one.
+     *
+     * @param name The name of the profile.
+     * @return {@code Profile} the now active profile, or {@code null} if there is none with that name.
+     */
+    public Profile activate(String name) {
+        Snapshot next = this.snapshot.updateAndGet(current -> {
+            Profile profile = current.profiles().get(name.trim());
+            return profile == null ? current : new Snapshot(current.profiles(), profile);
+        });
+        if (next.active() == null || !next.active().name().equals(name.trim())) return null;
+        this.persist();
+        return next.active();
+    }
+    /**
+     * Stores a profile, replacing one with the same name, and makes it the active one.
+     *
+     * @param profile The profile.
+     */
+    public void save(Profile profile) {
+        this.snapshot.updateAndGet(current -> {
+            TreeMap<String, Profile> profiles = new TreeMap<>(current.profiles());
+            profiles.put(profile.name(), profile);
+            return new Snapshot(Collections.unmodifiableSortedMap(profiles), profile);
+        });
+        this.persist();
+    }
+    /**
+     * Removes a profile. If it was the active one, no profile is active afterwards.
+     *
+     * @param name The name of the profile.
+     * @return {@code boolean} true if the profile existed.
+     */
+    public boolean delete(String name) {
+        String key = name.trim();
+        Snapshot previous = this.snapshot.getAndUpdate(current -> {
+            if (!current.profiles().containsKey(key)) return current;
+            TreeMap<String, Profile> profiles = new TreeMap<>(current.profiles());
+            profiles.remove(key);
+            Profile active = current.active() != null && current.active().name().equals(key) ? null : current.active();
+            return new Snapshot(Collections.unmodifiableSortedMap(profiles), active);
+        });
+        if (!previous.profiles().containsKey(key)) return false;
+        this.persist();
+        return true;
+    }
+    /**
+     * Writes pending changes and stops the writer thread.
+     */
+    @Override
+    public void close() {
+        this.writer.shutdown();
+        try {
+            if (!this.writer.awaitTermination(1, TimeUnit.SECONDS)) logger.error("Profiles were not written in time");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    /**
+     * The file the profiles are kept in.
+     * @return {@code Path} the profile file.
+     */
+    public Path getFile() {
+        return this.file;
+    }
+
+    /**
+     * Schedules a write unless one is already waiting, which then picks up this change too.
+     */
+    private void persist() {
+        if (!this.dirty.compareAndSet(false, true)) return;
+        try {
+            this.writer.execute(() -> {
+                this.dirty.set(false);
+                try {
+                    this.write(this.snapshot.get());
+                } catch (IOException e) {
+                    logger.error(e.getMessage());
+                }
+            });
+        } catch (RuntimeException e) {
+            this.dirty.set(false);
+            logger.error("Profile store is closed");
+        }
+    }
+
+    private void write(Snapshot snapshot) throws IOException {
+        List<String> lines = new ArrayList<>(snapshot.profiles().size() + 2);
+        lines.add(HEADER + " " + VERSION);
+        lines.add(encode(snapshot.active() == null ? null : snapshot.active().name()));
+        for (Profile profile : snapshot.profiles().values()) lines.add(format(profile));
+        TargetFiles.write(this.file, lines);
+    }
+
+    /**
+     * Writes a profile as {@code name holdNanos gapNanos limit BUTTON startKey stopKey targets},
+     * where text is URL encoded and targets are written by {@link TargetFiles#format}.
+     */
+    private static String format(Profile profile) {
+        StringBuilder line = new StringBuilder(64);
+        line.append(encode(profile.name())).append(' ')
+                .append(profile.timing().holdNanos()).append(' ').append(profile.timing().gapNanos()).append(' ')
+                .append(profile.limit()).append(' ').append(profile.button().name()).append(' ')
+                .append(encode(profile.startKey())).append(' ').append(encode(profile.stopKey())).append(' ');
+        return TargetFiles.format(line, profile.targets()).toString();
+    }
+
+    private static Snapshot read(Path file) throws IOException {
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        if (lines.size() < 2 || !lines.get(0).equals(HEADER + " " + VERSION))
+            throw new IOException("Unsupported profile file: " + file);
+        TreeMap<String, Profile> profiles = new TreeMap<>();
+        try {
+            for (String line : lines.subList(2, lines.size())) {
+                if (line.isBlank()) continue;
+                String[] fields = line.trim().split(" ");
+                if (fields.length != 8) throw new IOException("Malformed profile: " + line);
+                Profile profile = new Profile(decode(fields[0]),
+                        new ClickTiming(Long.parseLong(fields[1]), Long.parseLong(fields[2])),
+                        Long.parseLong(fields[3]), MouseButton.valueOf(fields[4]), TargetFiles.parse(fields[7]),
+                        decode(fields[5]), decode(fields[6]));
+                profiles.put(profile.name(), profile);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Malformed profile file " + file + ": " + e.getMessage(), e);
+        }
+        String active = decode(lines.get(1).trim());
+        return new Snapshot(Collections.unmodifiableSortedMap(profiles), active == null ? null : profiles.get(active));
+    }
+
+    /**
+     * Encodes text without spaces, {@code null} as {@link #NONE}.
+     */
+    private static String encode(String text) {
+        if (text == null) return NONE;
+        return URLEncoder.encode(text, StandardCharsets.UTF_8).replace("-", "%2D");
+    }
+
+    private static String decode(String field) {
+        return field.equals(NONE) ? null : URLDecoder.decode(field, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The profiles by name and the active one, never modified once published.
+     */
+    private record Snapshot(Map<String, Profile> profiles, Profile active) { }
+}
@@ -0,0 +1,234 @@
+package com.airclicker.managers;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsDevice;
+import java.awt.GraphicsEnvironment;
+import java.awt.HeadlessException;
+import java.awt.MouseInfo;
+import java.awt.PointerInfo;
+import java.awt.Rectangle;
+import java.awt.geom.AffineTransform;
+import java.util.Arrays;
+
+/**
+ * A snapshot of the screens making up the virtual desktop, taken once and refreshed only
+ * when {@link #refresh()} finds the display configuration changed.
+ *
+ * The bounds and scale factors of every screen are kept in flat arrays, so mapping a
+ * coordinate never queries AWT. Bounds are in virtual desktop coordinates, the ones
+ * {@code Robot} and {@code MouseInfo} use. A screen with a scale factor above {@code 1} has
+ * more device pixels than it has virtual desktop units, so a position read off a screenshot of
+ * that screen has to be divided by its scale, see {@link #toVirtualX(int, int)}.
+ *
+ * Without a display, e.g. headless, the topology has no screens and the mapping methods
+ * return the coordinate unchanged.
+ *
+ * @author shabman
+ * @version 1.0.0
+ */
+public final class ScreenTopology {
+    /**
+     * The logger tracker to log information to the console.
+     *
+     * @apiNote There is no java doc available for {@code Logger} and {@code LoggerFactory}
+     */
+    private static final Logger logger = LoggerFactory.getLogger(ScreenTopology.class);
+    /**
+     * The instance shared by every window and the command line.
+     */
+    private static final ScreenTopology instance = new ScreenTopology();
+    /**
+     * The current snapshot, replaced as a whole so readers never see two configurations mixed.
+     */
+    private volatile Layout layout = Layout.EMPTY;
+    /**
+     * The screen the last {@link #deviceAt(int, int)} found, checked first by the next one.
+     */
+    private int lastHit;
+
+    /**
+     * The screens of one display configuration.
+     *
+     * @param devices The screens.
+     * @param bounds The {@code x, y, width, height} of every screen, four slots per screen.
+     * @param scales The horizontal and vertical scale factor of every screen, two slots per screen.
+     * @param virtual The bounds of the whole virtual desktop.
+     */
+    private record Layout(GraphicsDevice[] devices, int[] bounds, double[] scales, Rectangle virtual) {
+        static final Layout EMPTY = new Layout(new GraphicsDevice[0], new int[0], new double[0], new Rectangle());
+
+        boolean sameAs(Layout other) {
+            return Arrays.equals(this.devices, other.devices) && Arrays.equals(this.bounds, other.bounds)
+                    && Arrays.equals(this.scales, other.scales);
+        }
+    }
+
+    /**
+     * Prevents the class from being instantiated outside the factory.
+     */
+    private ScreenTopology() {
+        this.refresh();
+    }
+    /**
+     * The topology shared by every window and the command line.
+     *
+     * @return {@code ScreenTopology} the shared topology.
+     */
+    public static ScreenTopology shared() {
+        return instance;
+    }
+    /**
+     * Takes a new snapshot of the screens and keeps it if the configuration changed. Called when
+     * a window is activated or moves to another screen, which is when a change becomes visible.
+     *
+     * @return {@code boolean} true if the configuration changed.
+     */
+    public synchronized boolean refresh() {
+        Layout next = snapshot();
+        if (next.sameAs(this.layout)) return false;
+        this.layout = next;
+        this.lastHit = 0;
+        logger.info("Screens: {}, virtual desktop {}x{} at {},{}", next.devices.length,
+                next.virtual.width, next.virtual.height, next.virtual.x, next.virtual.y);
+        return true;
+    }
+    /**
+     * The amount of screens.
+     * @return {@code int} the screen count, {@code 0} without a display.
+     */
+    public int getDeviceCount() {
+        return this.layout.devices.length;
+    }
+    /**
+     * Finds the screen showing a virtual desktop coordinate. Checks the screen found last first,
+     * so runs of coordinates on one screen take a single comparison.
+     *
+     * @param x The virtual desktop x coordinate.
+     * @param y The virtual desktop y coordinate.
+     * @return {@code int} the screen index, or {@code -1} if no screen shows the coordinate.
+     */
+    public int deviceAt(int x, int y) {
+        final int[] bounds = this.layout.bounds;
+        final int n = bounds.length >> 2;
+        int hit = this.lastHit;
+        if (hit < n && contains(bounds, hit, x, y)) return hit;
+        for (int d = 0; d < n; d++) {
+            if (contains(bounds, d, x, y)) {
+                this.lastHit = d;
+                return d;
+            }
+        }
+        return -1;
+    }
+    /**
+     * Maps a horizontal device pixel of a screen, e.g. read off a screenshot of it, to the
+     * virtual desktop.
+     *
+     * @param device The screen index.
+     * @param x The pixel relative to the left edge of the screen.
+     * @return {@code int} the virtual desktop x coordinate.
+     */
+    public int toVirtualX(int device, int x) {
+        Layout layout = this.layout;
+        if (layout.devices.length == 0) return x;
+        return layout.bounds[device << 2] + (int) Math.round(x / layout.scales[device << 1]);
+    }
+    /**
+     * Maps a vertical device pixel of a screen, e.g. read off a screenshot of it, to the
+     * virtual desktop.
+     *
+     * @param device The screen index.
+     * @param y The pixel relative to the top edge of the screen.
+     * @return {@code int} the virtual desktop y coordinate.
+     */
+    public int toVirtualY(int device, int y) {
+        Layout layout = this.layout;
+        if (layout.devices.length == 0) return y;
+        return layout.bounds[(device << 2) + 1] + (int) Math.round(y / layout.scales[(device << 1) + 1]);
+    }
+    /**
+     * The bounds of a screen on the virtual desktop.
+     *
+     * @param device The screen index.
+     * @return {@code Rectangle} a copy of the bounds.
+     */
+    public Rectangle getBounds(int device) {
+        int[] bounds = this.layout.bounds;
+        int i = device << 2;
+        return new Rectangle(bounds[i], bounds[i + 1], bounds[i + 2], bounds[i + 3]);
+    }
+    /**
+     * The horizontal scale factor of a screen, e.g. {@code 1.5} at 150%.
+     *
+     * @param device The screen index.
+     * @return {@code double} device pixels per virtual desktop unit.
+     */
+    public double getScaleX(int device) {
+        return this.layout.scales[device << 1];
+    }
+    /**
+     * The vertical scale factor of a screen, e.g. {@code 1.5} at 150%.
+     *
+     * @param device The screen index.
+     * @return {@code double} device pixels per virtual desktop unit.
+     */
+    public double getScaleY(int device) {
+        return this.layout.scales[(device << 1) + 1];
+    }
+    /**
+     * The bounds of the whole virtual desktop, spanning every screen.
+     * @return {@code Rectangle} a copy of the bounds, empty without a display.
+     */
+    public Rectangle getVirtualBounds() {
+        return new Rectangle(this.layout.virtual);
+    }
+    /**
+     * The configuration windows should open on: the screen showing the pointer, otherwise the
+     * default screen.
+     *
+     * @return {@code GraphicsConfiguration} the configuration, {@code null} without a display.
+     */
+    public GraphicsConfiguration getWindowConfiguration() {
+        Layout layout = this.layout;
+        if (layout.devices.length == 0) return null;
+        PointerInfo info = MouseInfo.getPointerInfo();
+        if (info != null && Arrays.asList(layout.devices).contains(info.getDevice())) {
+            return info.getDevice().getDefaultConfiguration();
+        }
+        return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+    }
+
+    private static boolean contains(int[] bounds, int device, int x, int y) {
+        int i = device << 2;
+        return x >= bounds[i] && y >= bounds[i + 1] && x - bounds[i] < bounds[i + 2] && y - bounds[i + 1] < bounds[i + 3];
+    }
+
+    private static Layout snapshot() {
+        if (GraphicsEnvironment.isHeadless()) return Layout.EMPTY;
+        GraphicsDevice[] devices;
+        try {
+            devices = GraphicsEnvironment.getLocalGraphicsEnvironment().getScreenDevices();
+        } catch (HeadlessException e) {
+            return Layout.EMPTY;
+        }
+        int[] bounds = new int[devices.length << 2];
+        double[] scales = new double[devices.length << 1];
+        Rectangle virtual = new Rectangle();
+        for (int d = 0; d < devices.length; d++) {
+            GraphicsConfiguration config = devices[d].getDefaultConfiguration();
+            Rectangle rect = config.getBounds();
+            AffineTransform transform = config.getDefaultTransform();
+            bounds[d << 2] = rect.x;
+            bounds[(d << 2) + 1] = rect.y;
+            bounds[(d << 2) + 2] = rect.width;
+            bounds[(d << 2) + 3] = rect.height;
+            scales[d << 1] = transform.getScaleX() > 0 ? transform.getScaleX() : 1.0;
+            scales[(d << 1) + 1] = transform.getScaleY() > 0 ? transform.getScaleY() : 1.0;
+            virtual = d == 0 ? rect : virtual.union(rect);
+        }
+        return new Layout(devices, bounds, scales, virtual);
+    }
+}
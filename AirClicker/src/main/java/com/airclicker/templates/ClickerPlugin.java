@@ -0,0 +1,47 @@
+package com.airclicker.templates;
+
+/**
+ * Implement this interface and register it under
+ * {@code META-INF/services/com.airclicker.templates.ClickerPlugin} in a jar inside the
+ * {@code plugins} directory to hook into every click session. Every jar is loaded in its own
+ * class loader, so plugins may bundle conflicting versions of the same library.
+ *
+ * <p>All hooks are called on the clicking thread. {@link #beforeClick(long, int)} and
+ * {@link #afterClick(long, int)} run between two clicks and are timed against a budget, a
+ * plugin that keeps exceeding it is disabled. Hooks must not block and should not allocate.
+ * Button arguments use the {@code InputEvent.BUTTONn_DOWN_MASK} constants.</p>
+ */
+public interface ClickerPlugin {
+    /**
+     * The name shown in the plugin list.
+     *
+     * @return {@code String} the plugin name.
+     */
+    String name();
+    /**
+     * Called when a click session starts, before the first click.
+     *
+     * @param periodNanos The time between two clicks in nanoseconds.
+     */
+    default void onStart(long periodNanos) { }
+    /**
+     * Called right before a button is pressed.
+     *
+     * @param index The index of the click in the session, starting at {@code 0}.
+     * @param button The button mask.
+     */
+    default void beforeClick(long index, int button) { }
+    /**
+     * Called right after a button has been released.
+     *
+     * @param index The index of the click in the session, starting at {@code 0}.
+     * @param button The button mask.
+     */
+    default void afterClick(long index, int button) { }
+    /**
+     * Called when a click session has ended.
+     *
+     * @param clicks The amount of clicks in the session.
+     */
+    default void onStop(long clicks) { }
+}
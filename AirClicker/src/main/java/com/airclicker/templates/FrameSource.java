@@ -0,0 +1,22 @@
+package com.airclicker.templates;
+
+/**
+ * A {@code FrameSource} reads pixels from the screen. Only the requested rectangle is read,
+ * so watching a single pixel costs a single pixel of capture work.
+ *
+ * <p>Implementations are called from a single watching thread and are not required to be
+ * thread safe. Pixels use the {@code 0xRRGGBB} layout of {@code BufferedImage.TYPE_INT_RGB},
+ * the alpha byte is ignored.</p>
+ */
+public interface FrameSource {
+    /**
+     * Reads a rectangle of the screen into a buffer, row by row.
+     *
+     * @param x The left edge on the virtual desktop.
+     * @param y The top edge on the virtual desktop.
+     * @param width The width of the rectangle.
+     * @param height The height of the rectangle.
+     * @param pixels The buffer to fill, at least {@code width * height} long.
+     */
+    void capture(int x, int y, int width, int height, int[] pixels);
+}
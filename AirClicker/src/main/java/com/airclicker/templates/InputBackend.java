@@ -0,0 +1,79 @@
+package com.airclicker.templates;
+
+import java.awt.Point;
+
+/**
+ * An {@code InputBackend} injects mouse and keyboard events into the operating system.
+ * The click loop only talks to this interface, so the same loop can drive a {@code Robot},
+ * record events in memory or discard them entirely.
+ *
+ * <p>Implementations are called from a single clicking thread and are not required to be
+ * thread safe. Button arguments use the {@code InputEvent.BUTTONn_DOWN_MASK} constants and
+ * key arguments use the {@code KeyEvent.VK_} constants.</p>
+ *
+ * @see InputBackendProvider
+ */
+public interface InputBackend extends AutoCloseable {
+    /**
+     * Presses one or more mouse buttons.
+     *
+     * @param buttons The button mask.
+     */
+    void mousePress(int buttons);
+    /**
+     * Releases one or more mouse buttons.
+     *
+     * @param buttons The button mask.
+     */
+    void mouseRelease(int buttons);
+    /**
+     * Sends button changes that are due at the same moment as one batch. The buttons in
+     * {@code release} go up first, then the buttons in {@code press} go down, then the buttons
+     * in {@code click} go down and up again. Backends that can inject several events in one
+     * call should override this.
+     *
+     * @param release The buttons to release, {@code 0} for none.
+     * @param press The buttons to press and keep held, {@code 0} for none.
+     * @param click The buttons to press and release, {@code 0} for none.
+     */
+    default void mouseBatch(int release, int press, int click) {
+        if (release != 0) this.mouseRelease(release);
+        if (press != 0) this.mousePress(press);
+        if (click != 0) {
+            this.mousePress(click);
+            this.mouseRelease(click);
+        }
+    }
+    /**
+     * Moves the mouse pointer to the given screen coordinates.
+     *
+     * @param x The x coordinate.
+     * @param y The y coordinate.
+     */
+    void mouseMove(int x, int y);
+    /**
+     * Presses a key.
+     *
+     * @param keycode The key code.
+     */
+    void keyPress(int keycode);
+    /**
+     * Releases a key.
+     *
+     * @param keycode The key code.
+     */
+    void keyRelease(int keycode);
+    /**
+     * The current location of the mouse pointer as seen by this backend.
+     *
+     * @return {@code Point} the pointer location.
+     */
+    default Point getPointerLocation() {
+        return new Point();
+    }
+    /**
+     * Releases any resource held by the backend.
+     */
+    @Override
+    default void close() { }
+}
@@ -0,0 +1,34 @@
+package com.airclicker.templates;
+
+/**
+ * Implement this interface and register it under
+ * {@code META-INF/services/com.airclicker.templates.InputBackendProvider} to make a new
+ * {@link InputBackend} available through {@code ServiceLoader}.
+ */
+public interface InputBackendProvider {
+    /**
+     * The unique name used to select this backend, e.g. {@code robot}.
+     *
+     * @return {@code String} the backend name.
+     */
+    String name();
+    /**
+     * The priority used when no backend is requested explicitly, the highest available wins.
+     *
+     * @return {@code int} the priority.
+     */
+    int priority();
+    /**
+     * Determines if the backend can be created in the current environment.
+     *
+     * @return {@code boolean} true if {@link #create()} is expected to succeed.
+     */
+    boolean isAvailable();
+    /**
+     * Creates a new backend instance.
+     *
+     * @return {@code InputBackend} the backend.
+     * @throws IllegalStateException if the backend cannot be created.
+     */
+    InputBackend create();
+}
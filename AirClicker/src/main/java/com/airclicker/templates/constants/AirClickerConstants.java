@@ -4,5 +4,13 @@ public class AirClickerConstants {
 
     public static final String TITLE = "Air Clicker";
 
-    public static final String LOGO_PATH = "src/main/resources/images/logo.png";
+    /**
+     * The classpath location of the logo, load it through {@code ImageCache}.
+     */
+    public static final String LOGO_PATH = "/images/logo.png";
+
+    /**
+     * The directory in the user's home that persistent state such as scheduled jobs is kept in.
+     */
+    public static final String DATA_DIRECTORY = ".air-clicker";
 }
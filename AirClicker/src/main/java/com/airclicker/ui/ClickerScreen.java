@@ -1,7 +1,22 @@
 package com.airclicker.ui;
 
+import com.airclicker.controllers.ClickTarget;
 import com.airclicker.controllers.Clicker;
+import com.airclicker.controllers.ClickerEngine;
+import com.airclicker.controllers.ClickerMetrics;
+import com.airclicker.controllers.ClickTiming;
+import com.airclicker.controllers.MouseButton;
+import com.airclicker.controllers.TargetSequence;
+import com.airclicker.events.FlightRecording;
+import com.airclicker.macros.MacroPlayer;
+import com.airclicker.macros.MacroRecorder;
+import com.airclicker.managers.PluginManager;
+import com.airclicker.managers.PointerSampler;
+import com.airclicker.managers.Profile;
+import com.airclicker.managers.ProfileStore;
 import com.airclicker.managers.RoundedBorder;
+import com.airclicker.managers.ImageCache;
+import com.airclicker.managers.ScreenTopology;
 import com.airclicker.templates.FrameViewer;
 import com.airclicker.templates.constants.AirClickerConstants;
 
@@ -10,49 +25,66 @@ import com.formdev.flatlaf.FlatDarkLaf;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.imageio.ImageIO;
 
+import javax.swing.AbstractAction;
 import javax.swing.BorderFactory;
 import javax.swing.Box;
 import javax.swing.ImageIcon;
+import javax.swing.InputMap;
 import javax.swing.JButton;
 import javax.swing.JCheckBox;
 import javax.swing.JComboBox;
 import javax.swing.JComponent;
+import javax.swing.JFileChooser;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
+import javax.swing.JMenuItem;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JPopupMenu;
 import javax.swing.JRootPane;
 import javax.swing.JTextField;
+import javax.swing.KeyStroke;
 import javax.swing.SwingConstants;
 import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 import javax.swing.UIManager;
 import javax.swing.UnsupportedLookAndFeelException;
 import javax.swing.border.CompoundBorder;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
+import javax.swing.event.PopupMenuEvent;
+import javax.swing.event.PopupMenuListener;
 
+import java.awt.AWTEvent;
 import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.FlowLayout;
-import java.awt.GraphicsDevice;
-import java.awt.GraphicsEnvironment;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
-import java.awt.Image;
+import java.awt.GridLayout;
+import java.awt.Toolkit;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.awt.image.BufferedImage;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.beans.PropertyChangeEvent;
 
-import java.io.File;
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Pattern;
 
 /**
  * The {@code ClickerScreen} class is the main UI for the clicker controls.
@@ -67,9 +99,15 @@ public class ClickerScreen implements FrameViewer {
      */
     private final int height;
     /**
-     * The speed of the clicker.
+     * Matches every prefix of a valid timing spec, so typing {@code 500cps} is not rejected
+     * half way through.
      */
-    private int speed = 0;
+    private static final Pattern PARTIAL_TIMING = Pattern.compile(
+            "\\s*\\d*(\\.\\d*)?\\s*(m|ms|u|us|c|cp|cps)?\\s*(@\\s*\\d*(\\.\\d*)?\\s*%?)?\\s*", Pattern.CASE_INSENSITIVE);
+    /**
+     * The speed of the clicker, {@code null} until a valid speed has been entered.
+     */
+    private ClickTiming timing = null;
     /**
      * The limit of the clicker.
      */
@@ -77,7 +115,7 @@ public class ClickerScreen implements FrameViewer {
     /**
      * The side of the mouse
      */
-    private String mouseSide = "Default";
+    private MouseButton mouseSide = MouseButton.DEFAULT;
     /**
      * The logger tracker to log information to the console.
      *
@@ -85,13 +123,87 @@ public class ClickerScreen implements FrameViewer {
      */
     private final Logger logger = LoggerFactory.getLogger(ClickerScreen.class);
     /**
-     *
+     * The engine that runs the clicker on its own thread, away from the Event Dispatch Thread.
+     */
+    private final ClickerEngine engine;
+    /**
+     * The parts opened off the EDT during startup, {@code null} if {@link #prepare()} opens them itself.
+     */
+    private final ClickerServices services;
+    /**
+     * The points clicked in order when the clicker starts, empty to click in place.
+     */
+    private final List<ClickTarget> targets = new ArrayList<>();
+    /**
+     * The named setups behind the Settings button, {@code null} if the profile file could not be read.
+     */
+    private ProfileStore profiles;
+    /**
+     * The plugins called around every click, {@code null} if the plugin settings are invalid.
+     */
+    private PluginManager plugins;
+    /**
+     * The speed field.
+     */
+    private JTextField rateField;
+    /**
+     * The click limit field.
+     */
+    private JTextField limitField;
+    /**
+     * The mouse button selection.
      */
-    private final Clicker clicker = Clicker.build();
+    private JComboBox<MouseButton> buttonBox;
+    /**
+     * The label showing the amount of targets.
+     */
+    private JLabel targetCountLabel;
     /**
      * The {@code List<JComponent>} that holds TextFields and buttons.
      */
     private final List<JComponent> comps = new ArrayList<>();
+    /**
+     * The components that need a service which may have failed to open, with the check that
+     * decides if the service is there. Re-enabling the controls after a run keeps them off.
+     */
+    private final Map<JComponent, BooleanSupplier> availability = new HashMap<>();
+    /**
+     * The interval at which the status line is refreshed from the live metrics.
+     */
+    private static final int STATS_REFRESH_MILLIS = 250;
+    /**
+     * The interval at which the position fields are refreshed from the pointer sampler.
+     */
+    private static final int POINTER_REFRESH_MILLIS = 33;
+    /**
+     * The seconds between pressing Pick and capturing the pointer, to move it onto the target.
+     */
+    private static final int PICK_DELAY_SECONDS = 3;
+    /**
+     * The action names the profile hotkeys are bound to.
+     */
+    private static final String HOTKEY_START = "air-clicker-start", HOTKEY_STOP = "air-clicker-stop";
+    /**
+     * The timer refreshing the status line, a single timer so updates are coalesced on the EDT.
+     */
+    private Timer statsTimer;
+    /**
+     * The pointer position shown in the position fields, {@code null} if it cannot be sampled.
+     */
+    private PointerSampler pointer;
+    /**
+     * The timer copying the sampled pointer position into the position fields.
+     */
+    private Timer pointerTimer;
+    /**
+     * The running flight recording, {@code null} while not recording. Only used on the EDT.
+     */
+    private FlightRecording recording;
+    /**
+     * The macro being recorded from the mouse events of the application's windows, {@code null}
+     * while not recording. Only used on the EDT.
+     */
+    private MacroRecorder macroRecorder;
     /**
      * The window object, all tree components are parented onto this window object.
      */
@@ -104,21 +216,12 @@ public class ClickerScreen implements FrameViewer {
     private JPanel middlePanel;
     private JPanel bottomPanel;
     /**
-     * Responsible for describing fonts and graphic device objects on a specific platform
-     * for the Java™ Application.
+     * The screens of the virtual desktop, snapshotted once and shared with every window.
      *
      * @see     java.awt.GraphicsDevice
      * @see     java.awt.GraphicsConfiguration
      */
-    private final GraphicsEnvironment ge = GraphicsEnvironment.getLocalGraphicsEnvironment();
-    /**
-     * The GraphicsDevice describes the particular graphics device available in the specified
-     * GraphicsEnvironment. This may include Screen or printer devices.
-     *
-     * @see     java.awt.GraphicsEnvironment
-     * @see     java.awt.GraphicsConfiguration
-     */
-    private final GraphicsDevice[] gs = ge.getScreenDevices();
+    private final ScreenTopology screens = ScreenTopology.shared();
     /**
      * Instantiate the {@code SplashScreen} UI component with the width and height
      * for the primary display screen to see.
@@ -127,13 +230,40 @@ public class ClickerScreen implements FrameViewer {
      * @param height The height of the {@code JFrame} object.
      */
     public ClickerScreen(int width, int height) {
+        this(width, height, ClickerEngine.build(Clicker.build()));
+    }
+    /**
+     * Instantiate the {@code ClickerScreen} UI component with parts that were prepared
+     * ahead of time, e.g. in parallel during startup.
+     *
+     * @param width The width of the {@code JFrame} object.
+     * @param height The height of the {@code JFrame} object.
+     * @param engine The engine that runs the clicker.
+     */
+    public ClickerScreen(int width, int height, ClickerEngine engine) {
         this.width = width;
         this.height = height;
+        this.engine = engine;
+        this.services = null;
+    }
+    /**
+     * Instantiate the {@code ClickerScreen} UI component with the engine and every part that
+     * does I/O opened ahead of time, so building the window does not block the EDT.
+     *
+     * @param width The width of the {@code JFrame} object.
+     * @param height The height of the {@code JFrame} object.
+     * @param services The engine and the parts opened during startup, see {@link ClickerServices#open(ClickerEngine)}.
+     */
+    public ClickerScreen(int width, int height, ClickerServices services) {
+        this.width = width;
+        this.height = height;
+        this.engine = services.engine();
+        this.services = services;
     }
     /**
      * The create method instantiates the JFrame object and constructs its properties.
-     * The specified GraphicsDevice is selected and instructs the JFrame object to be displayed to
-     * the primary display screen, which could be an external monitor device. The Look and Feel
+     * The JFrame object is displayed on the screen showing the pointer, which could be an
+     * external monitor device, see {@link ScreenTopology#getWindowConfiguration()}. The Look and Feel
      * of this UI Element is set to FlatDarkLaf to give it more of a modern java look. The JFrame object's
      * relative location is set to null which forces it to be presented in the middle of the screen.
      *
@@ -143,26 +273,24 @@ public class ClickerScreen implements FrameViewer {
      */
     @Override
     public void create() {
-
-        UIManager.put("Button.arc", 5);
-        UIManager.put("TextField.arc", 250);
-
-        try {
-            UIManager.setLookAndFeel(new FlatDarkLaf());
-        } catch (UnsupportedLookAndFeelException e) {
-            this.logger.error(e.getMessage());
-        }
-
-        GraphicsDevice gd = (gs.length > 1) ? gs[1] : gs[0];
-
-        this.window = new JFrame(gd.getDefaultConfiguration());
+        this.prepare();
+        this.show();
+    }
+    /**
+     * Builds the JFrame object and every panel without displaying it. The Look and Feel
+     * must be installed before this is called, see {@link #installLookAndFeel()}. Without
+     * {@link ClickerServices} from the constructor they are opened here, on the calling thread.
+     */
+    public void prepare() {
+        this.window = new JFrame(this.screens.getWindowConfiguration());
         this.window.setSize(width, height);
         this.window.setLayout(new BorderLayout());
 
         this.window.setUndecorated(true);
         this.window.getRootPane().setWindowDecorationStyle(JRootPane.FRAME);
         this.window.setResizable(false);
-        this.window.setIconImage(this.resizeLogo().getImage());
+        ImageIcon icon = this.resizeLogo();
+        if (icon != null) this.window.setIconImage(icon.getImage());
         this.window.setTitle(AirClickerConstants.TITLE);
 
         this.window.setLocationRelativeTo(this.window);
@@ -172,16 +300,39 @@ public class ClickerScreen implements FrameViewer {
         this.panel.setLayout(new BorderLayout());
         this.window.add(this.panel, BorderLayout.CENTER);
 
-        this.show();
+        ClickerServices services = this.services != null ? this.services : ClickerServices.open(this.engine);
+        this.profiles = services.profiles();
+        this.plugins = services.plugins();
+        this.pointer = services.pointer();
+        this.pauseWhenIconified();
+        this.watchScreens();
+
+        this.createTopPanel();
+        this.createMiddlePanel();
+        this.createBottomPanel();
+
+        if (this.profiles != null && this.profiles.getActive() != null) this.applyProfile(this.profiles.getActive());
     }
     /**
      * Displays the JFrame object to the primary screen selected.
      */
     protected void show() {
-        this.createTopPanel();
-        this.createMiddlePanel();
-        this.createBottomPanel();
         this.window.setVisible(true);
+        if (this.plugins != null) this.plugins.loadAsync();
+    }
+    /**
+     * Installs the FlatDarkLaf Look and Feel used by every Air Clicker window. Must run before
+     * the first component is created.
+     */
+    public static void installLookAndFeel() {
+        UIManager.put("Button.arc", 5);
+        UIManager.put("TextField.arc", 250);
+
+        try {
+            UIManager.setLookAndFeel(new FlatDarkLaf());
+        } catch (UnsupportedLookAndFeelException e) {
+            LoggerFactory.getLogger(ClickerScreen.class).error(e.getMessage());
+        }
     }
     /**
      * TODO: Java Doc
@@ -197,6 +348,7 @@ public class ClickerScreen implements FrameViewer {
         this.window.add(this.topPanel, BorderLayout.NORTH);
 
         JTextField rate = new JTextField();
+        this.rateField = rate;
         rate.setPreferredSize(new Dimension(100, 70));
         rate.setOpaque(false);
         rate.setBorder(new CompoundBorder(
@@ -204,6 +356,7 @@ public class ClickerScreen implements FrameViewer {
                 BorderFactory.createTitledBorder(BorderFactory.createLineBorder(new Color(0x1A1A1A), 1, true), "Speed")
         ));
         this.comps.add(rate);
+        rate.setToolTipText("Milliseconds between clicks, or e.g. 250us, 2000cps, 20cps@50%");
         rate.getDocument().addDocumentListener(new DocumentListener() {
             @Override
             public void insertUpdate(DocumentEvent e) {
@@ -211,7 +364,9 @@ public class ClickerScreen implements FrameViewer {
             }
 
             @Override
-            public void removeUpdate(DocumentEvent e) { }
+            public void removeUpdate(DocumentEvent e) {
+                check();
+            }
 
             @Override
             public void changedUpdate(DocumentEvent e) {
@@ -219,10 +374,13 @@ public class ClickerScreen implements FrameViewer {
             }
 
             public void check() {
+                String text = rate.getText();
                 try {
-                    speed = Integer.parseInt(rate.getText());
-                } catch (NumberFormatException e) {
-                    JOptionPane.showMessageDialog(window, "Invalid number: "+e.getMessage(), "Air Clicker", JOptionPane.ERROR_MESSAGE);
+                    timing = ClickTiming.parse(text);
+                } catch (IllegalArgumentException e) {
+                    timing = null;
+                    if (PARTIAL_TIMING.matcher(text).matches()) return;
+                    JOptionPane.showMessageDialog(window, "Invalid speed: "+e.getMessage(), "Air Clicker", JOptionPane.ERROR_MESSAGE);
                     SwingUtilities.invokeLater(() -> rate.setText(""));
                     logger.error(e.getMessage());
                 }
@@ -231,6 +389,7 @@ public class ClickerScreen implements FrameViewer {
         this.topPanel.add(rate);
 
         JTextField amountOfTimes = new JTextField();
+        this.limitField = amountOfTimes;
         amountOfTimes.setPreferredSize(new Dimension(100, 70));
         amountOfTimes.setOpaque(false);
         amountOfTimes.setBorder(new CompoundBorder(
@@ -322,15 +481,14 @@ public class ClickerScreen implements FrameViewer {
 
         GridBagConstraints config = new GridBagConstraints();
 
-        String[] opts = new String[] {"Default", "Mouse Button Left", "Mouse Button Right"};
-        JComboBox<String> options = new JComboBox<>(opts);
+        JComboBox<MouseButton> options = new JComboBox<>(MouseButton.values());
+        this.buttonBox = options;
         options.setFocusable(false);
         options.setSelectedIndex(0);
-            mouseSide = (String) options.getSelectedItem();
+            mouseSide = (MouseButton) options.getSelectedItem();
         options.addActionListener(e -> {
-            mouseSide = (String) options.getSelectedItem();
+            mouseSide = (MouseButton) options.getSelectedItem();
         });
-        System.out.println(mouseSide);
         this.comps.add(options);
 
         JLabel title = new JLabel("Mouse Options");
@@ -397,9 +555,78 @@ public class ClickerScreen implements FrameViewer {
         rightConfig.gridy = 0;
         rightPanel.add(yPos, rightConfig);
 
+        JLabel targetCount = new JLabel("Targets: 0");
+        this.targetCountLabel = targetCount;
+
         rightConfig.gridx = 0;
         rightConfig.gridy = 1;
-        rightPanel.add(Box.createVerticalStrut(10), rightConfig);
+        rightPanel.add(targetCount, rightConfig);
+
+        JButton addTarget = new JButton();
+        addTarget.setText("Add");
+        addTarget.setFocusable(false);
+        addTarget.setContentAreaFilled(false);
+        addTarget.setPreferredSize(new Dimension(50, 25));
+        addTarget.setBorder(new RoundedBorder(5, new Color(0x1A1A1A)));
+        addTarget.addActionListener((ActionEvent e) -> {
+            try {
+                this.targets.add(new ClickTarget(parseCoordinate(xPos.getText()), parseCoordinate(yPos.getText()),
+                        mouseSide.mask(), 1));
+                targetCount.setText("Targets: " + this.targets.size());
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(window, "Invalid position: "+ex.getMessage(), "Air Clicker", JOptionPane.ERROR_MESSAGE);
+            }
+        });
+        this.comps.add(addTarget);
+
+        rightConfig.gridx = 1;
+        rightConfig.gridy = 1;
+        rightPanel.add(addTarget, rightConfig);
+
+        JButton clearTargets = new JButton();
+        clearTargets.setText("Clear");
+        clearTargets.setFocusable(false);
+        clearTargets.setContentAreaFilled(false);
+        clearTargets.setPreferredSize(new Dimension(50, 25));
+        clearTargets.setBorder(new RoundedBorder(5, new Color(0x1A1A1A)));
+        clearTargets.addActionListener((ActionEvent e) -> {
+            this.targets.clear();
+            targetCount.setText("Targets: 0");
+        });
+        this.comps.add(clearTargets);
+
+        rightConfig.gridx = 2;
+        rightConfig.gridy = 1;
+        rightPanel.add(clearTargets, rightConfig);
+
+        JButton pickTarget = new JButton();
+        pickTarget.setText("Pick");
+        pickTarget.setToolTipText("Adds the pointer position as a target after " + PICK_DELAY_SECONDS + " seconds");
+        pickTarget.setFocusable(false);
+        pickTarget.setContentAreaFilled(false);
+        pickTarget.setPreferredSize(new Dimension(50, 25));
+        pickTarget.setBorder(new RoundedBorder(5, new Color(0x1A1A1A)));
+        this.requires(pickTarget, () -> this.pointer != null);
+        pickTarget.addActionListener((ActionEvent e) -> this.pickTarget(pickTarget));
+        this.comps.add(pickTarget);
+
+        rightConfig.gridx = 3;
+        rightConfig.gridy = 1;
+        rightPanel.add(pickTarget, rightConfig);
+
+        if (this.pointer != null) {
+            long[] shown = { PointerSampler.UNKNOWN };
+            this.pointerTimer = new Timer(POINTER_REFRESH_MILLIS, (ActionEvent e) -> {
+                long packed = this.pointer.get();
+                // Leave the fields alone while a coordinate is typed in.
+                if (packed == shown[0] || packed == PointerSampler.UNKNOWN || xPos.hasFocus() || yPos.hasFocus()) return;
+                if (PointerSampler.x(packed) != PointerSampler.x(shown[0])) xPos.setText("X: " + PointerSampler.x(packed));
+                if (PointerSampler.y(packed) != PointerSampler.y(shown[0])) yPos.setText("Y: " + PointerSampler.y(packed));
+                shown[0] = packed;
+            });
+            this.pointerTimer.setCoalesce(true);
+            this.pointerTimer.start();
+        }
 
         this.middlePanel.add(rightPanel);
     }
@@ -409,7 +636,7 @@ public class ClickerScreen implements FrameViewer {
     protected void createBottomPanel() {
         this.bottomPanel = new JPanel();
         this.bottomPanel.setLayout(new FlowLayout(FlowLayout.LEFT, 10, 5));
-        this.bottomPanel.setPreferredSize(new Dimension(this.window.getSize().width, 95));
+        this.bottomPanel.setPreferredSize(new Dimension(this.window.getSize().width, 120));
         this.bottomPanel.setBorder(new CompoundBorder(
                 BorderFactory.createEmptyBorder(4, 10, 10, 10),
                 BorderFactory.createTitledBorder(BorderFactory.createLineBorder(new Color(0x1A1A1A), 1, true), "Main Controls")
@@ -425,23 +652,7 @@ public class ClickerScreen implements FrameViewer {
                 new RoundedBorder(5, new Color(0x1A1A1A))
         ));
 
-        startButton.addActionListener((ActionEvent e) -> {
-            AtomicInteger i = new AtomicInteger();
-
-            this.comps.forEach(event -> {
-                this.comps.get(i.get()).setEnabled(false);
-                i.getAndIncrement();
-            });
-
-            if (speed == 0 && limit == 0) {
-                logger.info("Not available");
-            } else if (speed > 0 && limit > 0) {
-                clicker.shouldRun = true;
-                clicker.begin(speed, limit, mouseSide);
-            } else if (speed > 0 && limit == 0) {
-                clicker.begin(speed, mouseSide);
-            }
-        });
+        startButton.addActionListener((ActionEvent e) -> this.startClicking());
 
         this.bottomPanel.add(startButton);
 
@@ -454,15 +665,7 @@ public class ClickerScreen implements FrameViewer {
                 new RoundedBorder(5, new Color(0x1A1A1A))
         ));
 
-        stopButton.addActionListener((ActionEvent e) -> {
-            AtomicInteger i = new AtomicInteger();
-            this.comps.forEach(event -> {
-                this.comps.get(i.get()).setEnabled(true);
-                i.getAndIncrement();
-            });
-
-            clicker.shouldRun = false;
-        });
+        stopButton.addActionListener((ActionEvent e) -> engine.stop());
 
         this.bottomPanel.add(stopButton);
 
@@ -475,6 +678,9 @@ public class ClickerScreen implements FrameViewer {
                 new RoundedBorder(5, new Color(0x1A1A1A))
         ));
 
+        this.requires(pluginsButton, () -> this.plugins != null);
+        pluginsButton.addActionListener((ActionEvent e) -> this.showPlugins());
+
         this.comps.add(pluginsButton);
         this.bottomPanel.add(pluginsButton);
 
@@ -487,6 +693,9 @@ public class ClickerScreen implements FrameViewer {
                 new RoundedBorder(5, new Color(0x1A1A1A))
         ));
 
+        this.requires(settingsButton, () -> this.profiles != null);
+        settingsButton.addActionListener((ActionEvent e) -> this.showProfiles());
+
         this.comps.add(settingsButton);
         this.bottomPanel.add(settingsButton);
 
@@ -501,21 +710,457 @@ public class ClickerScreen implements FrameViewer {
 
         this.comps.add(helpButton);
         this.bottomPanel.add(helpButton);
+
+        JLabel stats = new JLabel(this.formatStats());
+        stats.setPreferredSize(new Dimension(540, 20));
+        stats.setToolTipText("Right-click for Flight Recorder and macros");
+        stats.setComponentPopupMenu(this.createRecordingMenu());
+        this.bottomPanel.add(stats);
+
+        this.statsTimer = new Timer(STATS_REFRESH_MILLIS, (ActionEvent e) -> {
+            String text = this.formatStats();
+            if (!text.equals(stats.getText())) stats.setText(text);
+        });
+        this.statsTimer.setCoalesce(true);
+        this.statsTimer.start();
     }
     /**
-     *  Resizes the image to a specified width and height
-     * @return {@code ImageIcon} a resized image
+     * Builds the context menu of the status line, which starts, dumps and stops a flight recording
+     * and records and plays macros.
+     *
+     * @return {@code JPopupMenu} the menu.
      */
-    public ImageIcon resizeLogo() {
-        BufferedImage img;
+    private JPopupMenu createRecordingMenu() {
+        JPopupMenu menu = new JPopupMenu();
+        JMenuItem start = new JMenuItem("Start Flight Recording");
+        JMenuItem dump = new JMenuItem("Save Flight Recording");
+        JMenuItem stop = new JMenuItem("Save and Stop Flight Recording");
+        start.addActionListener((ActionEvent e) -> this.startRecording());
+        dump.addActionListener((ActionEvent e) -> this.saveRecording(false));
+        stop.addActionListener((ActionEvent e) -> this.saveRecording(true));
+        menu.add(start);
+        menu.add(dump);
+        menu.add(stop);
+        JMenuItem record = new JMenuItem("Record Macro");
+        JMenuItem save = new JMenuItem("Stop and Save Macro...");
+        JMenuItem play = new JMenuItem("Play Macro...");
+        record.addActionListener((ActionEvent e) -> this.startMacroRecording());
+        save.addActionListener((ActionEvent e) -> this.saveMacro());
+        play.addActionListener((ActionEvent e) -> this.playMacro());
+        menu.addSeparator();
+        menu.add(record);
+        menu.add(save);
+        menu.add(play);
+        menu.addPopupMenuListener(new PopupMenuListener() {
+            @Override
+            public void popupMenuWillBecomeVisible(PopupMenuEvent e) {
+                start.setEnabled(recording == null);
+                dump.setEnabled(recording != null);
+                stop.setEnabled(recording != null);
+                record.setEnabled(macroRecorder == null);
+                save.setEnabled(macroRecorder != null);
+                play.setEnabled(macroRecorder == null && !engine.isRunning());
+            }
+
+            @Override
+            public void popupMenuWillBecomeInvisible(PopupMenuEvent e) { }
+
+            @Override
+            public void popupMenuCanceled(PopupMenuEvent e) { }
+        });
+        return menu;
+    }
+    /**
+     * Starts a flight recording of the clicker and the JVM.
+     */
+    protected void startRecording() {
+        try {
+            this.recording = FlightRecording.start(null);
+        } catch (IOException | IllegalStateException e) {
+            logger.error(e.getMessage());
+            JOptionPane.showMessageDialog(window, "Cannot start flight recording: "+e.getMessage(), "Air Clicker", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+    /**
+     * Writes the flight recording to a new file in the recordings directory, off the EDT.
+     *
+     * @param stop Determines if the recording ends after it is written.
+     */
+    protected void saveRecording(boolean stop) {
+        FlightRecording recording = this.recording;
+        if (recording == null) return;
+        if (stop) this.recording = null;
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return recording.dump(FlightRecording.newFile());
+            } catch (IOException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            } finally {
+                if (stop) recording.close();
+            }
+        }).whenComplete((file, error) -> SwingUtilities.invokeLater(() -> {
+            if (error != null) {
+                JOptionPane.showMessageDialog(window, "Cannot save flight recording: "+error.getCause().getMessage(), "Air Clicker", JOptionPane.ERROR_MESSAGE);
+            } else {
+                JOptionPane.showMessageDialog(window, "Flight recording saved to " + file, "Air Clicker", JOptionPane.INFORMATION_MESSAGE);
+            }
+        }));
+    }
+    /**
+     * Starts recording a macro from the mouse moves, presses and releases over the
+     * application's windows.
+     */
+    protected void startMacroRecording() {
+        this.macroRecorder = new MacroRecorder();
+        Toolkit.getDefaultToolkit().addAWTEventListener(this.macroRecorder,
+                AWTEvent.MOUSE_EVENT_MASK | AWTEvent.MOUSE_MOTION_EVENT_MASK);
+    }
+    /**
+     * Stops the macro recording and asks where to save it, the file is written off the EDT.
+     */
+    protected void saveMacro() {
+        MacroRecorder recorder = this.macroRecorder;
+        if (recorder == null) return;
+        this.macroRecorder = null;
+        Toolkit.getDefaultToolkit().removeAWTEventListener(recorder);
+        Path file = this.chooseMacro(true);
+        if (file == null) return;
+        CompletableFuture.runAsync(() -> {
+            try {
+                Path parent = file.toAbsolutePath().getParent();
+                if (parent != null) Files.createDirectories(parent);
+                recorder.save(file);
+            } catch (IOException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        }).whenComplete((ignored, error) -> SwingUtilities.invokeLater(() -> {
+            if (error != null) {
+                JOptionPane.showMessageDialog(window, "Cannot save macro: "+error.getCause().getMessage(), "Air Clicker", JOptionPane.ERROR_MESSAGE);
+            } else {
+                JOptionPane.showMessageDialog(window, recorder.size() + " events saved to " + file, "Air Clicker", JOptionPane.INFORMATION_MESSAGE);
+            }
+        }));
+    }
+    /**
+     * Asks for a macro file and replays it, the controls stay disabled until it ends.
+     */
+    protected void playMacro() {
+        if (this.engine.isRunning()) return;
+        Path file = this.chooseMacro(false);
+        if (file == null) return;
+        MacroPlayer player;
         try {
-            img = ImageIO.read(new File(AirClickerConstants.LOGO_PATH));
-            return new ImageIcon(img.getScaledInstance(width, height, Image.SCALE_SMOOTH));
+            player = new MacroPlayer(file);
         } catch (IOException e) {
-            this.logger.error(e.getMessage());
-            return null;
+            logger.error(e.getMessage());
+            JOptionPane.showMessageDialog(window, "Cannot open macro: "+e.getMessage(), "Air Clicker", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        this.setControlsEnabled(false);
+        this.engine.play(player, 1.0).whenComplete((stats, error) -> {
+            try {
+                player.close();
+            } catch (IOException e) {
+                logger.error(e.getMessage());
+            }
+            SwingUtilities.invokeLater(() -> this.setControlsEnabled(true));
+        });
+    }
+    /**
+     * Shows a file dialog on the macros directory.
+     *
+     * @param save Determines if the dialog asks for a file to write rather than one to read.
+     * @return {@code Path} the chosen file, {@code null} if the dialog was cancelled.
+     */
+    private Path chooseMacro(boolean save) {
+        JFileChooser chooser = new JFileChooser(Path.of(System.getProperty("user.home"),
+                AirClickerConstants.DATA_DIRECTORY, "macros").toFile());
+        int result = save ? chooser.showSaveDialog(window) : chooser.showOpenDialog(window);
+        return result == JFileChooser.APPROVE_OPTION ? chooser.getSelectedFile().toPath() : null;
+    }
+    /**
+     * Starts the clicker with the current fields, over the targets if there are any.
+     */
+    protected void startClicking() {
+        if (timing == null) {
+            logger.info("Not available");
+            return;
+        }
+        if (this.engine.isRunning()) return;
+        this.setControlsEnabled(false);
+        (this.targets.isEmpty()
+                ? engine.start(timing, limit, mouseSide)
+                : engine.start(timing, limit, TargetSequence.compile(this.targets)))
+                .whenComplete((stats, error) -> SwingUtilities.invokeLater(() -> this.setControlsEnabled(true)));
+    }
+    /**
+     * Pauses the pointer sampler while the window is minimised.
+     */
+    private void pauseWhenIconified() {
+        if (this.pointer == null) return;
+        this.window.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowIconified(WindowEvent e) {
+                pointer.pause();
+            }
+
+            @Override
+            public void windowDeiconified(WindowEvent e) {
+                pointer.resume();
+            }
+        });
+    }
+    /**
+     * Refreshes the screen topology when the window is activated or moves to another screen,
+     * which is when a changed display configuration becomes visible to the user.
+     */
+    private void watchScreens() {
+        this.window.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowActivated(WindowEvent e) {
+                screens.refresh();
+            }
+        });
+        this.window.addPropertyChangeListener("graphicsConfiguration", (PropertyChangeEvent e) -> this.screens.refresh());
+    }
+    /**
+     * Counts down on the button, then adds the sampled pointer position as a target with the
+     * selected mouse button.
+     *
+     * @param button The button showing the countdown.
+     */
+    private void pickTarget(JButton button) {
+        int[] remaining = { PICK_DELAY_SECONDS };
+        button.setEnabled(false);
+        button.setText(String.valueOf(remaining[0]));
+        Timer countdown = new Timer(1000, null);
+        countdown.addActionListener((ActionEvent e) -> {
+            if (--remaining[0] > 0) {
+                button.setText(String.valueOf(remaining[0]));
+                return;
+            }
+            countdown.stop();
+            button.setText("Pick");
+            button.setEnabled(!this.engine.isRunning());
+            long packed = this.pointer.get();
+            if (packed == PointerSampler.UNKNOWN) return;
+            this.targets.add(new ClickTarget(PointerSampler.x(packed), PointerSampler.y(packed), mouseSide.mask(), 1));
+            this.targetCountLabel.setText("Targets: " + this.targets.size());
+        });
+        countdown.start();
+    }
+    /**
+     * Shows the loaded plugins with their slowest hook call, where every plugin can be
+     * enabled or disabled. The plugins are loaded off the EDT first if that has not happened yet.
+     */
+    protected void showPlugins() {
+        this.plugins.loadAsync().thenAccept(loaded -> SwingUtilities.invokeLater(() -> this.showPlugins(this.plugins.getStatus())));
+    }
+    /**
+     * Shows the loaded plugins and applies the enabled states that were changed.
+     *
+     * @param status The loaded plugins and their hook timings.
+     */
+    private void showPlugins(List<PluginManager.Status> status) {
+        if (status.isEmpty()) {
+            JOptionPane.showMessageDialog(window, "No plugins found in " + this.plugins.getDirectory().toAbsolutePath(),
+                    "Plugins", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        JPanel list = new JPanel(new GridLayout(status.size() + 1, 1, 0, 5));
+        list.add(new JLabel(String.format("Budget per click hook: %d us", this.plugins.getBudgetNanos() / 1000)));
+        List<JCheckBox> boxes = new ArrayList<>();
+        for (PluginManager.Status plugin : status) {
+            JCheckBox box = new JCheckBox(String.format("%s (%s)  |  slowest %.1f us, %d over budget",
+                    plugin.name(), plugin.jar(), plugin.maxNanos() / 1e3, plugin.overruns()), plugin.enabled());
+            box.setFocusable(false);
+            boxes.add(box);
+            list.add(box);
+        }
+        if (JOptionPane.showConfirmDialog(window, list, "Plugins", JOptionPane.OK_CANCEL_OPTION,
+                JOptionPane.PLAIN_MESSAGE) != JOptionPane.OK_OPTION) return;
+        for (int i = 0; i < boxes.size(); i++) this.plugins.setEnabled(i, boxes.get(i).isSelected());
+    }
+    /**
+     * Shows the profile dialog, where the current fields can be saved under a name and saved
+     * profiles can be loaded or deleted.
+     */
+    protected void showProfiles() {
+        JComboBox<String> names = new JComboBox<>();
+        this.profiles.getProfiles().forEach(profile -> names.addItem(profile.name()));
+        names.setEditable(true);
+        Profile active = this.profiles.getActive();
+        if (active != null) names.setSelectedItem(active.name());
+        JTextField startKey = new JTextField(active == null || active.startKey() == null ? "" : active.startKey());
+        JTextField stopKey = new JTextField(active == null || active.stopKey() == null ? "" : active.stopKey());
+        names.addActionListener(e -> {
+            Profile selected = names.getSelectedItem() == null ? null : this.profiles.get(names.getSelectedItem().toString());
+            if (selected == null) return;
+            startKey.setText(selected.startKey() == null ? "" : selected.startKey());
+            stopKey.setText(selected.stopKey() == null ? "" : selected.stopKey());
+        });
+
+        JPanel form = new JPanel(new GridLayout(3, 2, 5, 5));
+        form.add(new JLabel("Profile"));
+        form.add(names);
+        form.add(new JLabel("Start key"));
+        form.add(startKey);
+        form.add(new JLabel("Stop key"));
+        form.add(stopKey);
+
+        String[] actions = { "Load", "Save", "Delete", "Cancel" };
+        int choice = JOptionPane.showOptionDialog(window, form, "Profiles", JOptionPane.DEFAULT_OPTION,
+                JOptionPane.PLAIN_MESSAGE, null, actions, actions[0]);
+        Object selected = names.getSelectedItem();
+        if (choice < 0 || choice == 3 || selected == null || selected.toString().isBlank()) return;
+        String name = selected.toString();
+        switch (choice) {
+            case 0 -> {
+                Profile profile = this.profiles.activate(name);
+                if (profile == null) {
+                    JOptionPane.showMessageDialog(window, "No profile named " + name, "Air Clicker", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                this.applyProfile(profile);
+            }
+            case 1 -> {
+                try {
+                    Profile profile = new Profile(name, timing, limit, mouseSide, this.targets,
+                            parseKey(startKey.getText()), parseKey(stopKey.getText()));
+                    this.profiles.save(profile);
+                    this.bindHotkeys(profile);
+                } catch (IllegalArgumentException ex) {
+                    JOptionPane.showMessageDialog(window, "Cannot save profile: "+ex.getMessage(), "Air Clicker", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+            default -> this.profiles.delete(name);
         }
     }
+    /**
+     * Fills every field from a profile and binds its hotkeys.
+     *
+     * @param profile The profile to apply.
+     */
+    protected void applyProfile(Profile profile) {
+        ClickTiming saved = profile.timing();
+        this.rateField.setText(formatTiming(saved));
+        this.limitField.setEnabled(true);
+        this.limitField.setText(profile.limit() == 0 ? "" : String.valueOf(profile.limit()));
+        this.buttonBox.setSelectedItem(profile.button());
+        this.targets.clear();
+        this.targets.addAll(profile.targets());
+        this.targetCountLabel.setText("Targets: " + this.targets.size());
+        // The field listeners round the values through text, the profile keeps the exact ones.
+        this.timing = saved;
+        this.limit = (int) Math.min(Integer.MAX_VALUE, profile.limit());
+        this.mouseSide = profile.button();
+        this.bindHotkeys(profile);
+    }
+    /**
+     * Binds the start and stop keys of a profile while the window is focused, replacing the
+     * keys of the previous profile.
+     *
+     * @param profile The profile whose keys are bound.
+     */
+    private void bindHotkeys(Profile profile) {
+        JRootPane root = this.window.getRootPane();
+        InputMap keys = root.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW);
+        KeyStroke[] bound = keys.keys();
+        if (bound != null) for (KeyStroke key : bound)
+            if (HOTKEY_START.equals(keys.get(key)) || HOTKEY_STOP.equals(keys.get(key))) keys.remove(key);
+        root.getActionMap().put(HOTKEY_START, new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                startClicking();
+            }
+        });
+        root.getActionMap().put(HOTKEY_STOP, new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                engine.stop();
+            }
+        });
+        if (profile.startKey() != null) keys.put(KeyStroke.getKeyStroke(profile.startKey()), HOTKEY_START);
+        if (profile.stopKey() != null) keys.put(KeyStroke.getKeyStroke(profile.stopKey()), HOTKEY_STOP);
+    }
+    /**
+     * Formats a timing as a spec the speed field accepts.
+     *
+     * @param timing The timing.
+     * @return {@code String} the spec, e.g. {@code 20cps} or {@code 20cps@50%}.
+     */
+    static String formatTiming(ClickTiming timing) {
+        if (timing.periodNanos() == 0) return "0";
+        MathContext digits = new MathContext(6);
+        String spec = new BigDecimal(timing.cps(), digits).stripTrailingZeros().toPlainString() + "cps";
+        if (timing.holdNanos() == 0) return spec;
+        double duty = 100.0 * timing.holdNanos() / timing.periodNanos();
+        return spec + "@" + new BigDecimal(duty, digits).stripTrailingZeros().toPlainString() + "%";
+    }
+    /**
+     * Checks a hotkey field.
+     *
+     * @param text The field text in {@code KeyStroke} syntax, e.g. {@code F6} or {@code ctrl shift S}.
+     * @return {@code String} the key, or {@code null} if the field is empty.
+     * @throws IllegalArgumentException if the text is not a key.
+     */
+    static String parseKey(String text) {
+        if (text == null || text.isBlank()) return null;
+        String key = text.trim();
+        if (KeyStroke.getKeyStroke(key) == null) throw new IllegalArgumentException("Unknown key: " + key);
+        return key;
+    }
+    /**
+     * Formats the live metrics shown in the status line.
+     *
+     * @return {@code String} the status text.
+     */
+    protected String formatStats() {
+        ClickerMetrics metrics = this.engine.getClicker().getMetrics();
+        return String.format("%s%s  |  clicks %d  |  %.1f cps  |  latency p50 %.0f us, p99 %.0f us, max %.0f us",
+                this.recording != null ? "REC  |  " : this.macroRecorder != null ? "MACRO  |  " : "", metrics.isRunning() ? "Running" : "Idle", metrics.getSessionClicks(), metrics.getAchievedCps(),
+                metrics.getLatencyP50Micros(), metrics.getLatencyP99Micros(), metrics.getLatencyMaxMicros());
+    }
+    /**
+     * Reads a coordinate from a position field, ignoring labels such as {@code X: }.
+     *
+     * @param text The field text.
+     * @return {@code int} the coordinate.
+     * @throws NumberFormatException if the text does not contain a number.
+     */
+    static int parseCoordinate(String text) {
+        return Integer.parseInt(text.replaceAll("[^0-9-]", ""));
+    }
+    /**
+     * Enables or disables every interactive component while a click job is running.
+     *
+     * @param enabled Whether the components should accept input.
+     */
+    protected void setControlsEnabled(boolean enabled) {
+        this.comps.forEach(comp -> comp.setEnabled(enabled && this.isAvailable(comp)));
+    }
+    /**
+     * Only enables a component while the service behind it is there.
+     *
+     * @param comp The component.
+     * @param available Determines if the service behind the component is there.
+     */
+    private void requires(JComponent comp, BooleanSupplier available) {
+        this.availability.put(comp, available);
+        comp.setEnabled(available.getAsBoolean());
+    }
+
+    private boolean isAvailable(JComponent comp) {
+        BooleanSupplier available = this.availability.get(comp);
+        return available == null || available.getAsBoolean();
+    }
+    /**
+     *  Resizes the image to a specified width and height
+     * @return {@code ImageIcon} a resized image
+     */
+    public ImageIcon resizeLogo() {
+        return ImageCache.shared().icon(AirClickerConstants.LOGO_PATH, width, height);
+    }
     /**
      * The main JFrame object which is targeted to be displayed to the
      * primary screen.
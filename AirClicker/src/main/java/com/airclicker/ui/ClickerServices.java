@@ -0,0 +1,93 @@
+package com.airclicker.ui;
+
+import com.airclicker.control.ControlServer;
+import com.airclicker.controllers.ClickerEngine;
+import com.airclicker.managers.PluginManager;
+import com.airclicker.managers.PointerSampler;
+import com.airclicker.managers.ProfileStore;
+import com.airclicker.templates.constants.AirClickerConstants;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * The parts of the {@link ClickerScreen} that do I/O or start threads, opened before the
+ * window is built so the Event Dispatch Thread only receives the results. Opening registers
+ * the metrics MBean, binds the control socket if {@value ControlServer#CONTROL_PROPERTY} is
+ * set, reads the profile file, attaches the plugin manager and starts the pointer sampler. A
+ * part that fails to open is logged and left {@code null}, the window works without it.
+ *
+ * @param engine The engine that runs the clicker.
+ * @param profiles The saved profiles, {@code null} if the profile file could not be read.
+ * @param plugins The plugin manager, {@code null} if the plugin directory is invalid.
+ * @param pointer The pointer sampler for the position fields, {@code null} if it could not be started.
+ *
+ * @author shabman
+ * @version 1.0.0
+ */
+public record ClickerServices(ClickerEngine engine, ProfileStore profiles, PluginManager plugins, PointerSampler pointer) {
+    /**
+     * The logger tracker to log information to the console.
+     *
+     * @apiNote There is no java doc available for {@code Logger} and {@code LoggerFactory}
+     */
+    private static final Logger logger = LoggerFactory.getLogger(ClickerServices.class);
+
+    /**
+     * Opens every part. Blocks on file and socket I/O, so it should not run on the Event
+     * Dispatch Thread.
+     *
+     * @param engine The engine that runs the clicker.
+     * @return {@code ClickerServices} the opened parts.
+     */
+    public static ClickerServices open(ClickerEngine engine) {
+        engine.getClicker().getMetrics().register();
+        openControlServer(engine);
+        return new ClickerServices(engine, openProfileStore(), attachPlugins(engine), startPointerSampler(engine));
+    }
+
+    private static void openControlServer(ClickerEngine engine) {
+        String address = System.getProperty(ControlServer.CONTROL_PROPERTY);
+        if (address == null || address.isBlank()) return;
+        try {
+            ControlServer.open(engine, address);
+        } catch (IOException | IllegalArgumentException e) {
+            logger.error(e.getMessage());
+        }
+    }
+
+    private static ProfileStore openProfileStore() {
+        Path file = Path.of(System.getProperty("user.home"), AirClickerConstants.DATA_DIRECTORY, "profiles");
+        try {
+            ProfileStore profiles = ProfileStore.load(file);
+            Runtime.getRuntime().addShutdownHook(new Thread(profiles::close, "air-clicker-profiles-flush"));
+            return profiles;
+        } catch (IOException e) {
+            logger.error(e.getMessage());
+            return null;
+        }
+    }
+
+    private static PluginManager attachPlugins(ClickerEngine engine) {
+        try {
+            PluginManager plugins = PluginManager.build();
+            engine.getClicker().setPlugin(plugins);
+            return plugins;
+        } catch (IllegalArgumentException e) {
+            logger.error(e.getMessage());
+            return null;
+        }
+    }
+
+    private static PointerSampler startPointerSampler(ClickerEngine engine) {
+        try {
+            return PointerSampler.start(engine.getClicker().getBackend());
+        } catch (IllegalArgumentException e) {
+            logger.error(e.getMessage());
+            return null;
+        }
+    }
+}
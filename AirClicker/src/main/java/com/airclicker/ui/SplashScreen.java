@@ -1,33 +1,21 @@
 package com.airclicker.ui;
 
-import com.airclicker.managers.StateManager;
+import com.airclicker.managers.ImageCache;
+import com.airclicker.managers.ScreenTopology;
 import com.airclicker.templates.FrameViewer;
 import com.airclicker.templates.constants.AirClickerConstants;
 
-import com.formdev.flatlaf.FlatDarkLaf;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.imageio.ImageIO;
 import javax.swing.ImageIcon;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
-import javax.swing.UIManager;
-import javax.swing.UnsupportedLookAndFeelException;
 
 import java.awt.BorderLayout;
-import java.awt.GraphicsDevice;
-import java.awt.GraphicsEnvironment;
-import java.awt.Image;
 import java.awt.Taskbar;
-import java.awt.image.BufferedImage;
-
-import java.io.File;
-import java.io.IOException;
 
-import java.util.Random;
 
 /**
  * The {@code SplashScreen} class is the first UI element to appear on the screen.
@@ -57,21 +45,12 @@ public class SplashScreen implements FrameViewer {
      */
     private JPanel panel;
     /**
-     * Responsible for describing fonts and graphic device objects on a specific platform
-     * for the Java™ Application.
+     * The screens of the virtual desktop, snapshotted once and shared with every window.
      *
      * @see     java.awt.GraphicsDevice
      * @see     java.awt.GraphicsConfiguration
      */
-    private final GraphicsEnvironment ge = GraphicsEnvironment.getLocalGraphicsEnvironment();
-    /**
-     * The GraphicsDevice describes the particular graphics device available in the specified
-     * GraphicsEnvironment. This may include Screen or printer devices.
-     *
-     * @see     java.awt.GraphicsEnvironment
-     * @see     java.awt.GraphicsConfiguration
-     */
-    private final GraphicsDevice[] gs = ge.getScreenDevices();
+    private final ScreenTopology screens = ScreenTopology.shared();
     /**
      * Instantiate the {@code SplashScreen} UI component with the width and height
      * for the primary display screen to see.
@@ -83,31 +62,24 @@ public class SplashScreen implements FrameViewer {
         this.width = width;
         this.height = height;
 
-        Taskbar taskbar = Taskbar.getTaskbar();
-        taskbar.setIconImage(this.resizeLogo().getImage());
+        ImageIcon icon = this.resizeLogo();
+        if (icon != null && Taskbar.isTaskbarSupported() && Taskbar.getTaskbar().isSupported(Taskbar.Feature.ICON_IMAGE)) {
+            Taskbar.getTaskbar().setIconImage(icon.getImage());
+        }
     }
     /**
      * The create method instantiates the JFrame object and constructs its properties.
-     * The specified GraphicsDevice is selected and instructs the JFrame object to be displayed to
-     * the primary display screen, which could be an external monitor device. The Look and Feel
-     * of this UI Element is set to FlatDarkLaf to give it more of a modern java look. The JFrame object's
+     * The JFrame object is displayed on the screen showing the pointer, which could be an
+     * external monitor device, see {@link ScreenTopology#getWindowConfiguration()}. The Look and Feel
+     * is expected to be installed already, see {@link ClickerScreen#installLookAndFeel()}. The JFrame object's
      * relative location is set to null which forces it to be presented in the middle of the screen.
      *
      * @see     javax.swing.JFrame
      * @see     java.awt.GraphicsDevice
-     * @see     com.formdev.flatlaf.FlatDarkLaf
      */
     @Override
     public void create() {
-        try {
-            UIManager.setLookAndFeel(new FlatDarkLaf());
-        } catch (UnsupportedLookAndFeelException e) {
-            this.logger.error(e.getMessage());
-        }
-
-        GraphicsDevice gd = (gs.length > 1) ? gs[1] : gs[0];
-
-        this.window = new JFrame(gd.getDefaultConfiguration());
+        this.window = new JFrame(this.screens.getWindowConfiguration());
         this.window.setSize(width, height);
         this.window.setLayout(new BorderLayout());
 
@@ -129,26 +101,13 @@ public class SplashScreen implements FrameViewer {
      */
     public void show() {
         this.window.setVisible(true);
-        try {
-            Thread.sleep(new Random().nextInt(9) * 1000);
-            new StateManager().swapState(this.window, new ClickerScreen(585, 360));
-        } catch (InterruptedException e) {
-            this.logger.error(e.getMessage());
-        }
     }
     /**
      *  Resizes the image to a specified width and height
      * @return {@code ImageIcon} a resized image
      */
     public ImageIcon resizeLogo() {
-        BufferedImage img;
-        try {
-            img = ImageIO.read(new File(AirClickerConstants.LOGO_PATH));
-            return new ImageIcon(img.getScaledInstance(width, height, Image.SCALE_SMOOTH));
-        } catch (IOException e) {
-            this.logger.error(e.getMessage());
-            return null;
-        }
+        return ImageCache.shared().icon(AirClickerConstants.LOGO_PATH, width, height);
     }
     /**
      * The main JFrame object which is targeted to be displayed to the
@@ -0,0 +1,91 @@
+package com.airclicker.vision;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * A grayscale image with one {@code int} luminance value between {@code 0} and {@code 255} per
+ * pixel. Instances are reused between searches, so their buffers only grow.
+ *
+ * @author shabman
+ * @version 1.0.0
+ */
+final class GrayImage {
+    /**
+     * The width in pixels.
+     */
+    int width;
+    /**
+     * The height in pixels.
+     */
+    int height;
+    /**
+     * The luminance of every pixel, row by row.
+     */
+    int[] pixels = new int[0];
+
+    /**
+     * Converts {@code 0xRRGGBB} pixels, weighting the channels like ITU-R BT.601.
+     *
+     * @param rgb The pixels, row by row.
+     * @param width The width in pixels.
+     * @param height The height in pixels.
+     */
+    void load(int[] rgb, int width, int height) {
+        this.resize(width, height);
+        final int[] pixels = this.pixels;
+        for (int i = 0, n = width * height; i < n; i++) {
+            int p = rgb[i];
+            pixels[i] = (((p >> 16) & 0xFF) * 77 + ((p >> 8) & 0xFF) * 150 + (p & 0xFF) * 29) >> 8;
+        }
+    }
+    /**
+     * Converts an image.
+     *
+     * @param image The image.
+     */
+    void load(BufferedImage image) {
+        this.load(rgbOf(image), image.getWidth(), image.getHeight());
+    }
+    /**
+     * Reads the {@code 0xRRGGBB} pixels of an image, copying integer rasters without a colour
+     * model conversion.
+     *
+     * @param image The image.
+     * @return {@code int[]} the pixels, row by row.
+     */
+    static int[] rgbOf(BufferedImage image) {
+        int width = image.getWidth(), height = image.getHeight();
+        int[] rgb = new int[width * height];
+        int type = image.getType();
+        if (type == BufferedImage.TYPE_INT_RGB || type == BufferedImage.TYPE_INT_ARGB) {
+            image.getRaster().getDataElements(0, 0, width, height, rgb);
+        } else {
+            image.getRGB(0, 0, width, height, rgb, 0, width);
+        }
+        return rgb;
+    }
+    /**
+     * Fills this image with a half size copy of another, averaging every 2x2 block.
+     *
+     * @param source The image to shrink.
+     */
+    void downscale(GrayImage source) {
+        int width = source.width / 2, height = source.height / 2;
+        this.resize(width, height);
+        final int[] from = source.pixels, to = this.pixels;
+        final int stride = source.width;
+        for (int y = 0; y < height; y++) {
+            int row = 2 * y * stride, out = y * width;
+            for (int x = 0; x < width; x++) {
+                int i = row + 2 * x;
+                to[out + x] = (from[i] + from[i + 1] + from[i + stride] + from[i + stride + 1] + 2) >> 2;
+            }
+        }
+    }
+
+    private void resize(int width, int height) {
+        this.width = width;
+        this.height = height;
+        if (this.pixels.length < width * height) this.pixels = new int[width * height];
+    }
+}
@@ -0,0 +1,30 @@
+package com.airclicker.vision;
+
+/**
+ * A location where a template was found.
+ *
+ * @param x The left edge of the match in screen pixels.
+ * @param y The top edge of the match in screen pixels.
+ * @param width The width of the template.
+ * @param height The height of the template.
+ * @param score The normalised cross-correlation, {@code 1.0} for a perfect match.
+ *
+ * @author shabman
+ * @version 1.0.0
+ */
+public record Match(int x, int y, int width, int height, double score) {
+    /**
+     * The horizontal centre of the match.
+     * @return {@code int} the x coordinate.
+     */
+    public int centerX() {
+        return this.x + this.width / 2;
+    }
+    /**
+     * The vertical centre of the match.
+     * @return {@code int} the y coordinate.
+     */
+    public int centerY() {
+        return this.y + this.height / 2;
+    }
+}
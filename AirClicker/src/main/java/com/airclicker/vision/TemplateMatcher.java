@@ -0,0 +1,390 @@
+package com.airclicker.vision;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The {@code TemplateMatcher} class finds an image on the screen, scoring every location by
+ * normalised cross-correlation of the grayscale pixels, so a match survives small changes in
+ * brightness and contrast.
+ *
+ * The screen and the template are shrunk into a pyramid of half size levels. The coarsest
+ * level is searched exhaustively, split into tiles that run in parallel on a
+ * {@link ForkJoinPool}. Window sums at that level come from integral images, so only the
+ * products with the template are computed per location. The best candidates are then refined
+ * level by level in a small neighbourhood only. The last match is remembered and its
+ * neighbourhood is checked first, which skips the full search while the target stays in place.
+ *
+ * Buffers are reused between searches, so {@link #find(int[], int, int)} is synchronized.
+ *
+ * @author shabman
+ * @version 1.0.1
+ */
+public final class TemplateMatcher {
+    /**
+     * The default lowest score accepted as a match.
+     */
+    public static final double DEFAULT_THRESHOLD = 0.9;
+    /**
+     * The smallest side the template is shrunk to on the coarsest level.
+     */
+    private static final int MIN_TEMPLATE_SIDE = 8;
+    /**
+     * The most levels below the original size.
+     */
+    private static final int MAX_LEVEL = 4;
+    /**
+     * The amount of coarse candidates that are refined.
+     */
+    private static final int CANDIDATES = 4;
+    /**
+     * The locations a tile may hold before it is split.
+     */
+    private static final int TILE_LOCATIONS = 4096;
+    /**
+     * How far, in pixels of the coarsest level, the last match is searched around.
+     */
+    private static final int NEIGHBOURHOOD = 4;
+    /**
+     * The pool the tiles run on.
+     */
+    private final ForkJoinPool pool;
+    /**
+     * The lowest score accepted as a match.
+     */
+    private final double threshold;
+    /**
+     * The template on every level.
+     */
+    private final GrayImage[] template;
+    /**
+     * The sum and sum of squares of the template on every level.
+     */
+    private final long[] templateSum, templateSquares;
+    /**
+     * The index of the coarsest level.
+     */
+    private final int levels;
+    /**
+     * The screen on every level, reused between searches.
+     */
+    private final GrayImage[] screen;
+    /**
+     * The integral images of the coarsest screen level, reused between searches.
+     */
+    private long[] integral = new long[0], integralSquares = new long[0];
+    /**
+     * The last match, {@code null} if the last search failed.
+     */
+    private Match last;
+
+    /**
+     * Prevents the class from being instantiated outside the factories.
+     */
+    private TemplateMatcher(GrayImage image, double threshold, ForkJoinPool pool) {
+        if (image.width == 0 || image.height == 0) throw new IllegalArgumentException("The template must not be empty");
+        this.threshold = threshold;
+        this.pool = pool;
+        int levels = 0;
+        while (levels < MAX_LEVEL && Math.min(image.width, image.height) >> (levels + 1) >= MIN_TEMPLATE_SIDE) levels++;
+        this.levels = levels;
+        this.template = new GrayImage[levels + 1];
+        this.screen = new GrayImage[levels + 1];
+        this.templateSum = new long[levels + 1];
+        this.templateSquares = new long[levels + 1];
+        this.template[0] = image;
+        for (int level = 0; level <= levels; level++) {
+            if (level > 0) {
+                this.template[level] = new GrayImage();
+                this.template[level].downscale(this.template[level - 1]);
+            }
+            GrayImage t = this.template[level];
+            long sum = 0, squares = 0;
+            for (int i = 0, n = t.width * t.height; i < n; i++) {
+                sum += t.pixels[i];
+                squares += (long) t.pixels[i] * t.pixels[i];
+            }
+            this.templateSum[level] = sum;
+            this.templateSquares[level] = squares;
+            this.screen[level] = new GrayImage();
+        }
+    }
+    /**
+     * Creates a matcher with {@link #DEFAULT_THRESHOLD} on the common pool.
+     *
+     * @param template The image to look for.
+     * @return {@code TemplateMatcher} the matcher.
+     */
+    public static TemplateMatcher of(BufferedImage template) {
+        return of(template, DEFAULT_THRESHOLD, ForkJoinPool.commonPool());
+    }
+    /**
+     * Creates a matcher.
+     *
+     * @param template The image to look for.
+     * @param threshold The lowest score accepted as a match, between {@code -1.0} and {@code 1.0}.
+     * @param pool The pool the tiles run on.
+     * @return {@code TemplateMatcher} the matcher.
+     */
+    public static TemplateMatcher of(BufferedImage template, double threshold, ForkJoinPool pool) {
+        GrayImage image = new GrayImage();
+        image.load(template);
+        return new TemplateMatcher(image, threshold, pool);
+    }
+    /**
+     * Searches a screen image.
+     *
+     * @param screen The screen, e.g. a synthetic image in tests.
+     * @return {@code Match} the best location, or {@code null} if none reaches the threshold.
+     */
+    public Match find(BufferedImage screen) {
+        return this.find(GrayImage.rgbOf(screen), screen.getWidth(), screen.getHeight());
+    }
+    /**
+     * Searches captured screen pixels.
+     *
+     * @param rgb The {@code 0xRRGGBB} pixels, row by row.
+     * @param width The width of the screen.
+     * @param height The height of the screen.
+     * @return {@code Match} the best location, or {@code null} if none reaches the threshold.
+     */
+    public synchronized Match find(int[] rgb, int width, int height) {
+        GrayImage t = this.template[0];
+        if (width < t.width || height < t.height) return null;
+        this.screen[0].load(rgb, width, height);
+        for (int level = 1; level <= this.levels; level++) this.screen[level].downscale(this.screen[level - 1]);
+        this.buildIntegral(this.screen[this.levels]);
+
+        Candidates coarse;
+        Match match = null;
+        if (this.last != null) {
+            int cx = this.last.x() >> this.levels, cy = this.last.y() >> this.levels;
+            coarse = new Candidates();
+            this.scan(coarse, cx - NEIGHBOURHOOD, cy - NEIGHBOURHOOD, cx + NEIGHBOURHOOD + 1, cy + NEIGHBOURHOOD + 1);
+            match = this.refine(coarse);
+        }
+        if (match == null) {
+            GrayImage s = this.screen[this.levels], c = this.template[this.levels];
+            coarse = this.pool.invoke(new Tile(0, 0, s.width - c.width + 1, s.height - c.height + 1));
+            match = this.refine(coarse);
+        }
+        this.last = match;
+        return match;
+    }
+    /**
+     * Forgets the last match, so the next search covers the whole screen.
+     */
+    public synchronized void forget() {
+        this.last = null;
+    }
+
+    /**
+     * Follows every coarse candidate down to the original size and keeps the best.
+     */
+    private Match refine(Candidates coarse) {
+        Match best = null;
+        for (int c = 0; c < coarse.count; c++) {
+            int x = coarse.xs[c], y = coarse.ys[c];
+            double score = coarse.scores[c];
+            for (int level = this.levels - 1; level >= 0; level--) {
+                GrayImage s = this.screen[level], t = this.template[level];
+                int bx = 2 * x, by = 2 * y;
+                score = Double.NEGATIVE_INFINITY;
+                for (int dy = -2; dy <= 2; dy++) {
+                    for (int dx = -2; dx <= 2; dx++) {
+                        int px = 2 * x + dx, py = 2 * y + dy;
+                        if (px < 0 || py < 0 || px > s.width - t.width || py > s.height - t.height) continue;
+                        double candidate = this.score(level, px, py);
+                        if (candidate > score) {
+                            score = candidate;
+                            bx = px;
+                            by = py;
+                        }
+                    }
+                }
+                x = bx;
+                y = by;
+            }
+            if (score >= this.threshold && (best == null || score > best.score()))
+                best = new Match(x, y, this.template[0].width, this.template[0].height, score);
+        }
+        return best;
+    }
+
+    /**
+     * Scores every location of a rectangle on the coarsest level, clipped to the screen.
+     */
+    private void scan(Candidates into, int x0, int y0, int x1, int y1) {
+        GrayImage s = this.screen[this.levels], t = this.template[this.levels];
+        x0 = Math.max(x0, 0);
+        y0 = Math.max(y0, 0);
+        x1 = Math.min(x1, s.width - t.width + 1);
+        y1 = Math.min(y1, s.height - t.height + 1);
+        final long n = (long) t.width * t.height;
+        final long sumT = this.templateSum[this.levels];
+        final double varianceT = this.templateSquares[this.levels] - (double) sumT * sumT / n;
+        final long[] integral = this.integral, squares = this.integralSquares;
+        final int stride = s.width + 1;
+        for (int y = y0; y < y1; y++) {
+            for (int x = x0; x < x1; x++) {
+                int a = y * stride + x, b = a + t.width, c = a + t.height * stride, d = c + t.width;
+                long sumI = integral[d] - integral[b] - integral[c] + integral[a];
+                long sumI2 = squares[d] - squares[b] - squares[c] + squares[a];
+                double varianceI = sumI2 - (double) sumI * sumI / n;
+                if (varianceI <= 0 || varianceT <= 0) {
+                    into.offer(flat(sumI, sumI2, sumT, n, varianceT), x, y);
+                    continue;
+                }
+                long product = product(s, t, x, y);
+                double score = (product - (double) sumI * sumT / n) / Math.sqrt(varianceI * varianceT);
+                into.offer(score, x, y);
+            }
+        }
+    }
+
+    /**
+     * Scores one location on any level, computing the window sums directly.
+     */
+    private double score(int level, int x, int y) {
+        GrayImage s = this.screen[level], t = this.template[level];
+        final int[] screen = s.pixels;
+        long sumI = 0, sumI2 = 0;
+        for (int j = 0; j < t.height; j++) {
+            int row = (y + j) * s.width + x;
+            for (int i = 0; i < t.width; i++) {
+                int p = screen[row + i];
+                sumI += p;
+                sumI2 += p * p;
+            }
+        }
+        final long n = (long) t.width * t.height;
+        final long sumT = this.templateSum[level];
+        double varianceI = sumI2 - (double) sumI * sumI / n;
+        double varianceT = this.templateSquares[level] - (double) sumT * sumT / n;
+        if (varianceI <= 0 || varianceT <= 0) return flat(sumI, sumI2, sumT, n, varianceT);
+        return (product(s, t, x, y) - (double) sumI * sumT / n) / Math.sqrt(varianceI * varianceT);
+    }
+
+    /**
+     * Scores a location where the correlation is undefined. A solid colour template scores one
+     * minus the root mean square difference to its colour, so the exact colour scores {@code 1}
+     * and the pyramid can still rank windows whose edges were blurred by shrinking. A flat window
+     * under a textured template scores {@code 0}.
+     */
+    private static double flat(long sumI, long sumI2, long sumT, long n, double varianceT) {
+        if (varianceT > 0) return 0.0;
+        double colour = (double) sumT / n;
+        double squares = sumI2 - 2 * colour * sumI + n * colour * colour;
+        return 1.0 - Math.sqrt(Math.max(squares, 0) / n) / 255;
+    }
+
+    private static long product(GrayImage s, GrayImage t, int x, int y) {
+        final int[] screen = s.pixels, template = t.pixels;
+        final int width = t.width;
+        long product = 0;
+        for (int j = 0, k = 0; j < t.height; j++) {
+            int row = (y + j) * s.width + x;
+            for (int i = 0; i < width; i++, k++) product += screen[row + i] * template[k];
+        }
+        return product;
+    }
+
+    private void buildIntegral(GrayImage s) {
+        int stride = s.width + 1, size = stride * (s.height + 1);
+        if (this.integral.length < size) {
+            this.integral = new long[size];
+            this.integralSquares = new long[size];
+        }
+        final long[] integral = this.integral, squares = this.integralSquares;
+        final int[] pixels = s.pixels;
+        for (int y = 0; y < s.height; y++) {
+            long row = 0, rowSquares = 0;
+            int above = y * stride, here = above + stride;
+            for (int x = 0; x < s.width; x++) {
+                int p = pixels[y * s.width + x];
+                row += p;
+                rowSquares += p * p;
+                integral[here + x + 1] = integral[above + x + 1] + row;
+                squares[here + x + 1] = squares[above + x + 1] + rowSquares;
+            }
+        }
+    }
+
+    /**
+     * A rectangle of coarse locations, split in half until it is small enough to scan. Tiles only
+     * live for one search and are never serialized.
+     */
+    @SuppressWarnings("serial")
+    private final class Tile extends RecursiveTask<Candidates> {
+        private final int x0, y0, x1, y1;
+
+        Tile(int x0, int y0, int x1, int y1) {
+            this.x0 = x0;
+            this.y0 = y0;
+            this.x1 = x1;
+            this.y1 = y1;
+        }
+
+        @Override
+        protected Candidates compute() {
+            int width = this.x1 - this.x0, height = this.y1 - this.y0;
+            if ((long) width * height <= TILE_LOCATIONS || (width < 2 && height < 2)) {
+                Candidates candidates = new Candidates();
+                TemplateMatcher.this.scan(candidates, this.x0, this.y0, this.x1, this.y1);
+                return candidates;
+            }
+            Tile first, second;
+            if (width >= height) {
+                int middle = this.x0 + width / 2;
+                first = new Tile(this.x0, this.y0, middle, this.y1);
+                second = new Tile(middle, this.y0, this.x1, this.y1);
+            } else {
+                int middle = this.y0 + height / 2;
+                first = new Tile(this.x0, this.y0, this.x1, middle);
+                second = new Tile(this.x0, middle, this.x1, this.y1);
+            }
+            second.fork();
+            Candidates merged = first.compute();
+            merged.merge(second.join());
+            return merged;
+        }
+    }
+
+    /**
+     * The best few locations of a tile, sorted by descending score. Locations next to a better
+     * one are dropped, so the candidates point at different places instead of one peak.
+     */
+    private static final class Candidates {
+        final double[] scores = new double[CANDIDATES];
+        final int[] xs = new int[CANDIDATES], ys = new int[CANDIDATES];
+        int count;
+
+        void offer(double score, int x, int y) {
+            if (this.count == CANDIDATES && score <= this.scores[CANDIDATES - 1]) return;
+            for (int i = 0; i < this.count; i++) {
+                if (Math.abs(this.xs[i] - x) > 2 || Math.abs(this.ys[i] - y) > 2) continue;
+                if (score <= this.scores[i]) return;
+                this.count--;
+                System.arraycopy(this.scores, i + 1, this.scores, i, this.count - i);
+                System.arraycopy(this.xs, i + 1, this.xs, i, this.count - i);
+                System.arraycopy(this.ys, i + 1, this.ys, i, this.count - i);
+                break;
+            }
+            int i = this.count < CANDIDATES ? this.count++ : CANDIDATES - 1;
+            while (i > 0 && this.scores[i - 1] < score) {
+                this.scores[i] = this.scores[i - 1];
+                this.xs[i] = this.xs[i - 1];
+                this.ys[i] = this.ys[i - 1];
+                i--;
+            }
+            this.scores[i] = score;
+            this.xs[i] = x;
+            this.ys[i] = y;
+        }
+
+        void merge(Candidates other) {
+            for (int i = 0; i < other.count; i++) this.offer(other.scores[i], other.xs[i], other.ys[i]);
+        }
+    }
+}